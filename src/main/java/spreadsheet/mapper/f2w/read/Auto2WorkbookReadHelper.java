@@ -0,0 +1,406 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.poi.util.LittleEndian;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import spreadsheet.mapper.model.core.Workbook;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * <pre>
+ * reader of xls, xlsx, xlsb, ods and csv, the format is detected by the head of file,
+ * the head is at most 64KB (not only the magic bytes) so that the zip entries in front of the workbook part can be walked,
+ * then read by the reader of the format ({@link Xls2WorkbookReadHelper}, {@link Xlsx2WorkbookReadHelper},
+ * {@link Xlsb2WorkbookReadHelper}, {@link Ods2WorkbookReadHelper}, {@link Csv2WorkbookReadHelper}):
+ * 1. ole2 header is xls.
+ * 2. zip is ods if its first entry is the mimetype of ods.
+ * 3. zip is xlsb if the content types ([Content_Types].xml) or entries of head have binary workbook part, xlsx if have xml workbook part.
+ *    if not known by head, the central directory of file or byte buffer is read,
+ *    but of input stream it is not reachable, so {@link WorkbookReadException} is thrown,
+ *    read it as file or byte buffer, or by {@link Xlsx2WorkbookReadHelper} or {@link Xlsb2WorkbookReadHelper}.
+ * 4. text without nul char is csv of utf-8, the delimiter is the most of comma, tab, semicolon and vertical bar in first line.
+ * only the head is buffered for detecting, the input stream or byte buffer is not copied.
+ * </pre>
+ */
+public class Auto2WorkbookReadHelper extends WorkbookReadHelperAdapter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Auto2WorkbookReadHelper.class);
+
+  private static final int HEAD_SIZE = 64 * 1024;
+
+  private static final byte[] OLE2_SIGNATURE = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+
+  private static final int ZIP_LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+  private static final int ZIP_LOCAL_HEADER_SIZE = 30;
+
+  private static final String CONTENT_TYPES_ENTRY = "[Content_Types].xml";
+
+  private static final String BINARY_WORKBOOK_ENTRY = "xl/workbook.bin";
+
+  private static final String XML_WORKBOOK_ENTRY = "xl/workbook.xml";
+
+  // stored uncompressed as first entry of open document
+  private static final String MIMETYPE_ENTRY = "mimetype";
+
+  private static final String ODS_MIMETYPE = "application/vnd.oasis.opendocument.spreadsheet";
+
+  // content type of binary workbook part
+  private static final String BINARY_WORKBOOK_CONTENT_TYPE = "application/vnd.ms-excel.sheet.binary.macroEnabled.main";
+
+  private static final char[] DELIMITERS = {',', '\t', ';', '|'};
+
+  enum Format {
+    XLS, XLSX, XLSB, ODS, CSV
+  }
+
+  @Override
+  protected void read(File file, InputStream inputStream, ByteBuffer byteBuffer, Workbook excelWorkbook,
+                      RowCursorHandler rowCursorHandler, boolean padRows, ReadOptions readOptions) {
+    WorkbookReadHelperAdapter readHelper;
+    if (file != null) {
+      readHelper = createReadHelper(file);
+    } else if (byteBuffer != null) {
+      readHelper = createReadHelper(byteBuffer);
+    } else {
+      inputStream = toHeadedInputStream(inputStream);
+      readHelper = createReadHelper(inputStream);
+    }
+
+    if (readHelper != null) {
+      readHelper.read(file, inputStream, byteBuffer, excelWorkbook, rowCursorHandler, padRows, readOptions);
+    }
+  }
+
+  private InputStream toHeadedInputStream(InputStream inputStream) {
+    if (inputStream == null) {
+      throw new IllegalArgumentException("input stream can not be null");
+    }
+    return inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream, HEAD_SIZE);
+  }
+
+  /**
+   * @param inputStream mark supported, reset to start after head read, closed if not read by the reader of format
+   * @return reader of format, null if stream is empty
+   */
+  private WorkbookReadHelperAdapter createReadHelper(InputStream inputStream) {
+    try {
+      inputStream.mark(HEAD_SIZE);
+      byte[] head = readHead(inputStream);
+      inputStream.reset();
+
+      if (head.length == 0) {
+        IOUtils.closeQuietly(inputStream);
+        return null;
+      }
+      Format format = detect(head);
+      if (format == null) {
+        // the central directory of stream is not reachable
+        throw new WorkbookReadException("xlsx or xlsb not detected by the head of input stream");
+      }
+      return createReadHelper(format, head);
+
+    } catch (IOException e) {
+      IOUtils.closeQuietly(inputStream);
+      LOGGER.error(ExceptionUtils.getStackTrace(e));
+      throw new WorkbookReadException(e);
+    } catch (RuntimeException e) {
+      IOUtils.closeQuietly(inputStream);
+      throw e;
+    }
+  }
+
+  /**
+   * @return reader of format, null if file is empty
+   */
+  private WorkbookReadHelperAdapter createReadHelper(File file) {
+    if (file == null) {
+      throw new IllegalArgumentException("file can not be null");
+    }
+
+    byte[] head;
+    InputStream inputStream = null;
+    try {
+      inputStream = new FileInputStream(file);
+      head = readHead(inputStream);
+    } catch (IOException e) {
+      LOGGER.error(ExceptionUtils.getStackTrace(e));
+      throw new WorkbookReadException(e);
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+
+    if (head.length == 0) {
+      return null;
+    }
+    Format format = detect(head);
+    if (format == null) {
+      format = hasEntry(file, BINARY_WORKBOOK_ENTRY) ? Format.XLSB : Format.XLSX;
+    }
+    return createReadHelper(format, head);
+  }
+
+  /**
+   * @return reader of format, null if byte buffer is empty
+   */
+  private WorkbookReadHelperAdapter createReadHelper(ByteBuffer byteBuffer) {
+    if (byteBuffer == null) {
+      throw new IllegalArgumentException("byte buffer can not be null");
+    }
+
+    byte[] head = new byte[Math.min(HEAD_SIZE, byteBuffer.remaining())];
+    byteBuffer.duplicate().get(head);
+    if (head.length == 0) {
+      return null;
+    }
+    Format format = detect(head);
+    if (format == null) {
+      format = hasEntry(byteBuffer, BINARY_WORKBOOK_ENTRY) ? Format.XLSB : Format.XLSX;
+    }
+    return createReadHelper(format, head);
+  }
+
+  private WorkbookReadHelperAdapter createReadHelper(Format format, byte[] head) {
+    LOGGER.debug("read as " + format);
+
+    WorkbookReadHelperAdapter readHelper;
+    switch (format) {
+      case XLS:
+        readHelper = new Xls2WorkbookReadHelper();
+        break;
+      case XLSX:
+        readHelper = new Xlsx2WorkbookReadHelper();
+        break;
+      case XLSB:
+        readHelper = new Xlsb2WorkbookReadHelper();
+        break;
+      case ODS:
+        readHelper = new Ods2WorkbookReadHelper();
+        break;
+      default:
+        readHelper = new Csv2WorkbookReadHelper(detectDelimiter(head), '"', StandardCharsets.UTF_8);
+        break;
+    }
+    return readHelper;
+  }
+
+  private byte[] readHead(InputStream inputStream) throws IOException {
+    byte[] head = new byte[HEAD_SIZE];
+    int length = IOUtils.read(inputStream, head);
+    if (length == head.length) {
+      return head;
+    }
+    byte[] result = new byte[length];
+    System.arraycopy(head, 0, result, 0, length);
+    return result;
+  }
+
+  /*===============
+    detecting
+   ================*/
+
+  /**
+   * @param head not empty
+   * @return format, null if zip but xlsx or xlsb not known by head
+   */
+  static Format detect(byte[] head) {
+    if (startsWith(head, OLE2_SIGNATURE)) {
+      return Format.XLS;
+    }
+
+    if (head.length >= 4 && LittleEndian.getInt(head, 0) == ZIP_LOCAL_HEADER_SIGNATURE) {
+      return detectZip(head);
+    }
+
+    if (isText(head)) {
+      return Format.CSV;
+    }
+    throw new WorkbookReadException("unsupported format");
+  }
+
+  /**
+   * walk the zip local headers in head
+   *
+   * @return null if not known by head
+   */
+  private static Format detectZip(byte[] head) {
+    int offset = 0;
+    while (offset + ZIP_LOCAL_HEADER_SIZE <= head.length && LittleEndian.getInt(head, offset) == ZIP_LOCAL_HEADER_SIGNATURE) {
+      int flags = LittleEndian.getUShort(head, offset + 6);
+      int method = LittleEndian.getUShort(head, offset + 8);
+      long compressedSize = LittleEndian.getUInt(head, offset + 18);
+      int nameLength = LittleEndian.getUShort(head, offset + 26);
+      int extraLength = LittleEndian.getUShort(head, offset + 28);
+      int dataOffset = offset + ZIP_LOCAL_HEADER_SIZE + nameLength + extraLength;
+      if (dataOffset > head.length) {
+        return null;
+      }
+
+      String name = new String(head, offset + ZIP_LOCAL_HEADER_SIZE, nameLength, StandardCharsets.UTF_8);
+      if (BINARY_WORKBOOK_ENTRY.equals(name)) {
+        return Format.XLSB;
+      }
+      if (XML_WORKBOOK_ENTRY.equals(name)) {
+        return Format.XLSX;
+      }
+      if (offset == 0 && MIMETYPE_ENTRY.equals(name) && ODS_MIMETYPE.equals(readEntry(head, dataOffset, method, (flags & 0x08) != 0 ? -1 : compressedSize))) {
+        return Format.ODS;
+      }
+      if (CONTENT_TYPES_ENTRY.equals(name)) {
+        String contentTypes = readEntry(head, dataOffset, method, (flags & 0x08) != 0 ? -1 : compressedSize);
+        if (contentTypes != null) {
+          return contentTypes.contains(BINARY_WORKBOOK_CONTENT_TYPE) ? Format.XLSB : Format.XLSX;
+        }
+      }
+
+      // the sizes are after the data if the 3rd bit of flags set
+      if ((flags & 0x08) != 0) {
+        return null;
+      }
+      offset = (int) Math.min(dataOffset + compressedSize, Integer.MAX_VALUE);
+    }
+    return null;
+  }
+
+  /**
+   * @param compressedSize -1 if not known
+   * @return text of entry, null if the entry is not whole in head or not deflated or stored
+   */
+  private static String readEntry(byte[] head, int dataOffset, int method, long compressedSize) {
+    if (method == 0) {
+      if (compressedSize < 0 || dataOffset + compressedSize > head.length) {
+        return null;
+      }
+      return new String(head, dataOffset, (int) compressedSize, StandardCharsets.UTF_8);
+    }
+    if (method != 8) {
+      return null;
+    }
+
+    Inflater inflater = new Inflater(true);
+    try {
+      inflater.setInput(head, dataOffset, head.length - dataOffset);
+      byte[] buffer = new byte[HEAD_SIZE];
+      int length = 0;
+      while (!inflater.finished() && length < buffer.length) {
+        int inflated = inflater.inflate(buffer, length, buffer.length - length);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          return null;
+        }
+        length += inflated;
+      }
+      return inflater.finished() ? new String(buffer, 0, length, StandardCharsets.UTF_8) : null;
+    } catch (DataFormatException e) {
+      LOGGER.debug("content types not inflated: " + e.getMessage());
+      return null;
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static boolean hasEntry(File file, String entryName) {
+    ZipFile zipFile = null;
+    try {
+      // only the central directory is read
+      zipFile = new ZipFile(file);
+      return zipFile.getEntry(entryName) != null;
+    } catch (IOException e) {
+      LOGGER.error(ExceptionUtils.getStackTrace(e));
+      throw new WorkbookReadException(e);
+    } finally {
+      if (zipFile != null) {
+        try {
+          zipFile.close();
+        } catch (IOException e) {
+          LOGGER.error(ExceptionUtils.getStackTrace(e));
+        }
+      }
+    }
+  }
+
+  private static boolean hasEntry(ByteBuffer byteBuffer, String entryName) {
+    try {
+      // only the central directory is read
+      Enumeration<? extends ZipEntry> entries = new ByteBufferZipEntrySource(byteBuffer).getEntries();
+      while (entries.hasMoreElements()) {
+        if (entryName.equals(entries.nextElement().getName())) {
+          return true;
+        }
+      }
+      return false;
+    } catch (IOException e) {
+      LOGGER.error(ExceptionUtils.getStackTrace(e));
+      throw new WorkbookReadException(e);
+    }
+  }
+
+  /**
+   * @return true if no nul char and not utf-16 byte order mark
+   */
+  private static boolean isText(byte[] head) {
+    if (head.length >= 2 && ((head[0] == (byte) 0xFE && head[1] == (byte) 0xFF) || (head[0] == (byte) 0xFF && head[1] == (byte) 0xFE))) {
+      return false;
+    }
+    for (byte b : head) {
+      if (b == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the most delimiter out of quotes in first line, comma if none
+   */
+  static char detectDelimiter(byte[] head) {
+    int[] counts = new int[DELIMITERS.length];
+    boolean quoted = false;
+    for (byte b : head) {
+      if (b == '"') {
+        quoted = !quoted;
+      } else if (!quoted && (b == '\n' || b == '\r')) {
+        break;
+      } else if (!quoted) {
+        for (int i = 0; i < DELIMITERS.length; i++) {
+          if (b == DELIMITERS[i]) {
+            counts[i]++;
+          }
+        }
+      }
+    }
+
+    int most = 0;
+    for (int i = 1; i < DELIMITERS.length; i++) {
+      if (counts[i] > counts[most]) {
+        most = i;
+      }
+    }
+    return DELIMITERS[most];
+  }
+
+  private static boolean startsWith(byte[] head, byte[] prefix) {
+    if (head.length < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (head[i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,339 @@
+package spreadsheet.mapper.f2w.read;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * <pre>
+ * ole2 compound file held by byte buffer, for reading the streams of root storage without copying the file.
+ * the sectors of a stream are read from the buffer following the sector chain when the stream is read,
+ * only the sector numbers of fat (and mini fat for small streams) are resolved, the sectors are not copied.
+ * </pre>
+ */
+class ByteBufferCompoundFile {
+
+  private static final long SIGNATURE = 0xE11AB1A1E011CFD0L;
+
+  private static final int HEADER_SIZE = 512;
+
+  private static final int HEADER_DIFAT_COUNT = 109;
+
+  private static final int DIRECTORY_ENTRY_SIZE = 128;
+
+  private static final int END_OF_CHAIN = -2;
+
+  private static final int NO_STREAM = -1;
+
+  private static final int STREAM_TYPE = 2;
+
+  private ByteBuffer buffer;
+
+  private int sectorShift;
+
+  private int miniSectorShift;
+
+  private int miniStreamCutoff;
+
+  // sector numbers of fat sectors
+  private int[] fatSectors;
+
+  private int[] miniFatChain;
+
+  private int[] miniStreamChain;
+
+  private int[] directoryChain;
+
+  /**
+   * @param buffer compound file from position to limit
+   * @throws IOException not compound file
+   */
+  ByteBufferCompoundFile(ByteBuffer buffer) throws IOException {
+    this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    if (this.buffer.limit() < HEADER_SIZE || this.buffer.getLong(0) != SIGNATURE) {
+      throw new IOException("not ole2 compound file");
+    }
+
+    sectorShift = this.buffer.getShort(0x1E);
+    miniSectorShift = this.buffer.getShort(0x20);
+    miniStreamCutoff = this.buffer.getInt(0x38);
+    if (sectorShift != 9 && sectorShift != 12) {
+      throw new IOException("bad sector size");
+    }
+
+    readFatSectors(this.buffer.getInt(0x2C), this.buffer.getInt(0x44), this.buffer.getInt(0x48));
+    directoryChain = readChain(this.buffer.getInt(0x30));
+    miniFatChain = readChain(this.buffer.getInt(0x3C));
+    // the root entry holds the mini stream
+    miniStreamChain = readChain(this.buffer.getInt(directoryEntryOffset(0) + 116));
+  }
+
+  /**
+   * @param names names of the stream in root storage, the first found is opened
+   * @return stream
+   * @throws FileNotFoundException none of names found
+   */
+  InputStream openStream(String... names) throws IOException {
+    List<Integer> children = getRootChildren();
+    for (String name : names) {
+      for (Integer child : children) {
+        int offset = directoryEntryOffset(child);
+        if (buffer.get(offset + 66) == STREAM_TYPE && name.equals(getEntryName(offset))) {
+          int startSector = buffer.getInt(offset + 116);
+          int size = buffer.getInt(offset + 120);
+          return size < miniStreamCutoff ? new MiniSectorInputStream(startSector, size) : new SectorInputStream(startSector, size);
+        }
+      }
+    }
+    throw new FileNotFoundException("no stream of " + names[0]);
+  }
+
+  private void readFatSectors(int fatSectorCount, int difatSector, int difatSectorCount) throws IOException {
+    fatSectors = new int[fatSectorCount];
+    int count = 0;
+    for (int i = 0; i < HEADER_DIFAT_COUNT && count < fatSectorCount; i++) {
+      fatSectors[count++] = buffer.getInt(0x4C + i * 4);
+    }
+
+    int perDifatSector = (1 << sectorShift) / 4 - 1;
+    for (int i = 0; i < difatSectorCount && count < fatSectorCount; i++) {
+      int offset = sectorOffset(difatSector);
+      for (int j = 0; j < perDifatSector && count < fatSectorCount; j++) {
+        fatSectors[count++] = buffer.getInt(offset + j * 4);
+      }
+      // the last int is next difat sector
+      difatSector = buffer.getInt(offset + perDifatSector * 4);
+    }
+    if (count < fatSectorCount) {
+      throw new IOException("bad difat");
+    }
+  }
+
+  private int nextSector(int sector) throws IOException {
+    int perFatSector = (1 << sectorShift) / 4;
+    int fatIndex = sector / perFatSector;
+    if (sector < 0 || fatIndex >= fatSectors.length) {
+      throw new IOException("bad sector " + sector);
+    }
+    return buffer.getInt(sectorOffset(fatSectors[fatIndex]) + (sector % perFatSector) * 4);
+  }
+
+  private int nextMiniSector(int miniSector) throws IOException {
+    int perFatSector = (1 << sectorShift) / 4;
+    int chainIndex = miniSector / perFatSector;
+    if (miniSector < 0 || chainIndex >= miniFatChain.length) {
+      throw new IOException("bad mini sector " + miniSector);
+    }
+    return buffer.getInt(sectorOffset(miniFatChain[chainIndex]) + (miniSector % perFatSector) * 4);
+  }
+
+  private int[] readChain(int startSector) throws IOException {
+    List<Integer> chain = new ArrayList<>();
+    int maxLength = buffer.limit() >> sectorShift;
+    for (int sector = startSector; sector != END_OF_CHAIN && sector >= 0; sector = nextSector(sector)) {
+      if (chain.size() > maxLength) {
+        throw new IOException("sector chain loops");
+      }
+      chain.add(sector);
+    }
+
+    int[] result = new int[chain.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = chain.get(i);
+    }
+    return result;
+  }
+
+  private int sectorOffset(int sector) throws IOException {
+    long offset = (long) (sector + 1) << sectorShift;
+    if (sector < 0 || offset >= buffer.limit()) {
+      throw new IOException("bad sector " + sector);
+    }
+    return (int) offset;
+  }
+
+  private int directoryEntryOffset(int entry) throws IOException {
+    int perSector = (1 << sectorShift) / DIRECTORY_ENTRY_SIZE;
+    if (entry / perSector >= directoryChain.length) {
+      throw new IOException("bad directory entry " + entry);
+    }
+    return sectorOffset(directoryChain[entry / perSector]) + (entry % perSector) * DIRECTORY_ENTRY_SIZE;
+  }
+
+  private String getEntryName(int offset) {
+    // utf-16 with terminating null
+    int length = Math.max(0, Math.min(64, buffer.getShort(offset + 64)) - 2);
+    byte[] name = new byte[length];
+    ByteBuffer nameBuffer = buffer.duplicate();
+    nameBuffer.position(offset);
+    nameBuffer.get(name);
+    return new String(name, StandardCharsets.UTF_16LE);
+  }
+
+  /**
+   * @return entries of root storage, the red black tree of siblings under the child of root entry
+   */
+  private List<Integer> getRootChildren() throws IOException {
+    List<Integer> children = new ArrayList<>();
+    Deque<Integer> stack = new ArrayDeque<>();
+    int child = buffer.getInt(directoryEntryOffset(0) + 76);
+    if (child != NO_STREAM) {
+      stack.push(child);
+    }
+
+    int maxCount = directoryChain.length * ((1 << sectorShift) / DIRECTORY_ENTRY_SIZE);
+    while (!stack.isEmpty()) {
+      int entry = stack.pop();
+      if (children.size() > maxCount) {
+        throw new IOException("directory tree loops");
+      }
+      children.add(entry);
+
+      int offset = directoryEntryOffset(entry);
+      int left = buffer.getInt(offset + 68);
+      int right = buffer.getInt(offset + 72);
+      if (left != NO_STREAM) {
+        stack.push(left);
+      }
+      if (right != NO_STREAM) {
+        stack.push(right);
+      }
+    }
+    return children;
+  }
+
+  /**
+   * stream of sectors, the sector of position is located when read
+   */
+  private abstract class ChainInputStream extends InputStream {
+
+    private int sector;
+
+    private int sectorPosition;
+
+    private int remaining;
+
+    private ChainInputStream(int startSector, int size) {
+      this.sector = startSector;
+      this.remaining = size;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (remaining == 0) {
+        return -1;
+      }
+      toReadingSector();
+
+      int value = buffer.get(offset(sector) + sectorPosition) & 0xFF;
+      sectorPosition++;
+      remaining--;
+      return value;
+    }
+
+    /**
+     * read across sectors until length or end, poi reads record headers by one call expecting all bytes
+     */
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+      if (length == 0) {
+        return 0;
+      }
+      if (remaining == 0) {
+        return -1;
+      }
+
+      int total = Math.min(length, remaining);
+      ByteBuffer sectorBuffer = buffer.duplicate();
+      for (int read = 0; read < total; ) {
+        toReadingSector();
+        int sectorRead = Math.min(total - read, getSectorSize() - sectorPosition);
+
+        sectorBuffer.position(offset(sector) + sectorPosition);
+        sectorBuffer.get(bytes, offset + read, sectorRead);
+
+        sectorPosition += sectorRead;
+        read += sectorRead;
+      }
+      remaining -= total;
+      return total;
+    }
+
+    @Override
+    public int available() {
+      return remaining;
+    }
+
+    private void toReadingSector() throws IOException {
+      if (sectorPosition == getSectorSize()) {
+        sector = next(sector);
+        sectorPosition = 0;
+      }
+    }
+
+    protected abstract int getSectorSize();
+
+    protected abstract int next(int sector) throws IOException;
+
+    protected abstract int offset(int sector) throws IOException;
+  }
+
+  private class SectorInputStream extends ChainInputStream {
+
+    private SectorInputStream(int startSector, int size) {
+      super(startSector, size);
+    }
+
+    @Override
+    protected int getSectorSize() {
+      return 1 << sectorShift;
+    }
+
+    @Override
+    protected int next(int sector) throws IOException {
+      return nextSector(sector);
+    }
+
+    @Override
+    protected int offset(int sector) throws IOException {
+      return sectorOffset(sector);
+    }
+  }
+
+  private class MiniSectorInputStream extends ChainInputStream {
+
+    private MiniSectorInputStream(int startSector, int size) {
+      super(startSector, size);
+    }
+
+    @Override
+    protected int getSectorSize() {
+      return 1 << miniSectorShift;
+    }
+
+    @Override
+    protected int next(int sector) throws IOException {
+      return nextMiniSector(sector);
+    }
+
+    /**
+     * the mini sectors are in the mini stream
+     */
+    @Override
+    protected int offset(int sector) throws IOException {
+      int position = sector << miniSectorShift;
+      int chainIndex = position >> sectorShift;
+      if (sector < 0 || chainIndex >= miniStreamChain.length) {
+        throw new IOException("bad mini sector " + sector);
+      }
+      return sectorOffset(miniStreamChain[chainIndex]) + (position & ((1 << sectorShift) - 1));
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package spreadsheet.mapper.f2w.read;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * <pre>
+ * input stream reads the bytes of a byte buffer from position to limit, the bytes are not copied.
+ * the supplied buffer is duplicated, so its position is not changed.
+ * </pre>
+ */
+class ByteBufferInputStream extends InputStream {
+
+  private ByteBuffer buffer;
+
+  private int mark;
+
+  ByteBufferInputStream(ByteBuffer buffer) {
+    this.buffer = buffer.duplicate();
+    this.mark = this.buffer.position();
+  }
+
+  /**
+   * @param buffer whole buffer
+   * @param offset offset in buffer
+   * @param length length from offset
+   * @return stream reads the bytes
+   */
+  static ByteBufferInputStream slice(ByteBuffer buffer, int offset, int length) {
+    ByteBuffer slice = buffer.duplicate();
+    slice.limit(offset + length);
+    slice.position(offset);
+    return new ByteBufferInputStream(slice);
+  }
+
+  @Override
+  public int read() {
+    return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int length) {
+    if (length == 0) {
+      return 0;
+    }
+    if (!buffer.hasRemaining()) {
+      return -1;
+    }
+    int read = Math.min(length, buffer.remaining());
+    buffer.get(bytes, offset, read);
+    return read;
+  }
+
+  @Override
+  public long skip(long n) {
+    int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+    buffer.position(buffer.position() + skipped);
+    return skipped;
+  }
+
+  @Override
+  public int available() {
+    return buffer.remaining();
+  }
+
+  @Override
+  public boolean markSupported() {
+    return true;
+  }
+
+  @Override
+  public synchronized void mark(int readLimit) {
+    mark = buffer.position();
+  }
+
+  @Override
+  public synchronized void reset() {
+    buffer.position(mark);
+  }
+}
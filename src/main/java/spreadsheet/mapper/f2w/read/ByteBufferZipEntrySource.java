@@ -0,0 +1,264 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.poi.openxml4j.util.ZipEntrySource;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * <pre>
+ * zip entries of a zip held by byte buffer, for opening package without copying the zip.
+ * the entries are listed by the central directory, an entry is inflated from the buffer when its stream is read,
+ * so only the inflated entries being read are in memory (poi reads one part at a time).
+ * the entries are guarded against zip bomb like the zip input stream of poi,
+ * by {@link ZipSecureFile#getMinInflateRatio()}, {@link ZipSecureFile#getMaxEntrySize()} and the declared size.
+ * zip64 is not supported, a byte buffer is less than 2GB anyway.
+ * </pre>
+ */
+class ByteBufferZipEntrySource implements ZipEntrySource {
+
+  private static final int END_SIGNATURE = 0x06054b50;
+
+  private static final int END_SIZE = 22;
+
+  private static final int CENTRAL_SIGNATURE = 0x02014b50;
+
+  private static final int CENTRAL_HEADER_SIZE = 46;
+
+  private static final int LOCAL_SIGNATURE = 0x04034b50;
+
+  private static final int LOCAL_HEADER_SIZE = 30;
+
+  private static final int UTF_8_FLAG = 1 << 11;
+
+  private static final Charset CP437 = Charset.forName("IBM437");
+
+  private static final int INFLATE_BUFFER_SIZE = 8 * 1024;
+
+  /**
+   * inflate ratio is not checked before the entry inflated this size, same as poi
+   */
+  private static final long GRACE_ENTRY_SIZE = 100 * 1024;
+
+  private ByteBuffer buffer;
+
+  private List<BufferedZipEntry> entries = new ArrayList<>();
+
+  private boolean closed;
+
+  /**
+   * @param buffer zip from position to limit
+   * @throws ZipException not zip or zip64
+   */
+  ByteBufferZipEntrySource(ByteBuffer buffer) throws ZipException {
+    this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    readCentralDirectory();
+  }
+
+  @Override
+  public Enumeration<? extends ZipEntry> getEntries() {
+    return Collections.enumeration(entries);
+  }
+
+  @Override
+  public InputStream getInputStream(ZipEntry entry) throws IOException {
+    if (closed) {
+      throw new IOException("zip entry source closed");
+    }
+    BufferedZipEntry bufferedEntry = (BufferedZipEntry) entry;
+
+    int offset = bufferedEntry.localHeaderOffset;
+    if (buffer.getInt(offset) != LOCAL_SIGNATURE) {
+      throw new ZipException("bad local header of " + entry.getName());
+    }
+    // the local extra field can be different from the central one
+    int dataOffset = offset + LOCAL_HEADER_SIZE + getUShort(offset + 26) + getUShort(offset + 28);
+    ByteBufferInputStream data = ByteBufferInputStream.slice(buffer, dataOffset, (int) entry.getCompressedSize());
+
+    if (entry.getMethod() == ZipEntry.STORED) {
+      checkEntrySize(entry.getName(), entry.getCompressedSize());
+      return data;
+    }
+    return new EntryInflaterInputStream(data, entry);
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    entries.clear();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed;
+  }
+
+  private void readCentralDirectory() throws ZipException {
+    int end = findEnd();
+    int count = getUShort(end + 10);
+    long size = getUInt(end + 12);
+    long offset = getUInt(end + 16);
+    if (count == 0xFFFF || size == 0xFFFFFFFFL || offset == 0xFFFFFFFFL) {
+      throw new ZipException("zip64 not supported");
+    }
+
+    int position = (int) offset;
+    for (int i = 0; i < count; i++) {
+      if (position + CENTRAL_HEADER_SIZE > buffer.limit() || buffer.getInt(position) != CENTRAL_SIGNATURE) {
+        throw new ZipException("bad central directory");
+      }
+
+      int flags = getUShort(position + 8);
+      int nameLength = getUShort(position + 28);
+      int extraLength = getUShort(position + 30);
+      int commentLength = getUShort(position + 32);
+
+      byte[] name = new byte[nameLength];
+      ByteBuffer nameBuffer = buffer.duplicate();
+      nameBuffer.position(position + CENTRAL_HEADER_SIZE);
+      nameBuffer.get(name);
+
+      BufferedZipEntry entry = new BufferedZipEntry(new String(name, (flags & UTF_8_FLAG) != 0 ? StandardCharsets.UTF_8 : CP437));
+      int method = getUShort(position + 10);
+      if (method != ZipEntry.STORED && method != ZipEntry.DEFLATED) {
+        throw new ZipException("unsupported compression method of " + entry.getName());
+      }
+      entry.setMethod(method);
+      entry.setCrc(getUInt(position + 16));
+      entry.setCompressedSize(getUInt(position + 20));
+      entry.setSize(getUInt(position + 24));
+      entry.localHeaderOffset = (int) getUInt(position + 42);
+      if (entry.localHeaderOffset + LOCAL_HEADER_SIZE > buffer.limit()) {
+        throw new ZipException("bad local header offset of " + entry.getName());
+      }
+      entries.add(entry);
+
+      position += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+    }
+  }
+
+  /**
+   * @return offset of end of central directory record, the comment after it is at most 64KB
+   */
+  private int findEnd() throws ZipException {
+    int lowest = Math.max(0, buffer.limit() - END_SIZE - 0xFFFF);
+    for (int position = buffer.limit() - END_SIZE; position >= lowest; position--) {
+      if (buffer.getInt(position) == END_SIGNATURE) {
+        return position;
+      }
+    }
+    throw new ZipException("not zip");
+  }
+
+  private static void checkEntrySize(String name, long size) throws IOException {
+    if (size > ZipSecureFile.getMaxEntrySize()) {
+      throw new IOException("Zip bomb detected! The file would exceed the max size of the expanded data in the zip-file. entry: "
+          + name + ", max entry size: " + ZipSecureFile.getMaxEntrySize());
+    }
+  }
+
+  private int getUShort(int index) {
+    return buffer.getShort(index) & 0xFFFF;
+  }
+
+  private long getUInt(int index) {
+    return buffer.getInt(index) & 0xFFFFFFFFL;
+  }
+
+  private static class BufferedZipEntry extends ZipEntry {
+
+    private int localHeaderOffset;
+
+    private BufferedZipEntry(String name) {
+      super(name);
+    }
+  }
+
+  /**
+   * <pre>
+   * raw deflate stream needs a dummy byte after the data (like {@link java.util.zip.ZipFile}), the inflater is ended on close.
+   * the compressed and inflated bytes are counted to stop reading a zip bomb.
+   * </pre>
+   */
+  private static class EntryInflaterInputStream extends InflaterInputStream {
+
+    private ZipEntry entry;
+
+    private long compressedCount;
+
+    private long inflatedCount;
+
+    private boolean dummyFed;
+
+    private boolean closed;
+
+    private EntryInflaterInputStream(InputStream in, ZipEntry entry) {
+      super(in, new Inflater(true), INFLATE_BUFFER_SIZE);
+      this.entry = entry;
+    }
+
+    @Override
+    protected void fill() throws IOException {
+      len = in.read(buf, 0, buf.length);
+      if (len == -1) {
+        if (dummyFed) {
+          throw new ZipException("unexpected end of zip entry");
+        }
+        buf[0] = 0;
+        len = 1;
+        dummyFed = true;
+      } else {
+        compressedCount += len;
+      }
+      inf.setInput(buf, 0, len);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int read = super.read(b, off, len);
+      if (read > 0) {
+        inflatedCount += read;
+        checkThreshold();
+      }
+      return read;
+    }
+
+    private void checkThreshold() throws IOException {
+      if (inflatedCount > entry.getSize()) {
+        throw new ZipException("zip entry " + entry.getName() + " is larger than its declared size " + entry.getSize());
+      }
+      checkEntrySize(entry.getName(), inflatedCount);
+
+      if (inflatedCount <= GRACE_ENTRY_SIZE) {
+        return;
+      }
+      double ratio = (double) compressedCount / inflatedCount;
+      if (ratio < ZipSecureFile.getMinInflateRatio()) {
+        throw new IOException("Zip bomb detected! The file would exceed the max. ratio of compressed file size to the size of the expanded data. entry: "
+            + entry.getName() + ", ratio: " + ratio + ", min inflate ratio: " + ZipSecureFile.getMinInflateRatio());
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!closed) {
+        closed = true;
+        inf.end();
+        super.close();
+      }
+    }
+  }
+}
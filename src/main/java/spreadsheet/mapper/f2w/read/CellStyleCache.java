@@ -0,0 +1,40 @@
+package spreadsheet.mapper.f2w.read;
+
+import java.util.Arrays;
+
+/**
+ * <pre>
+ * {@link NumericCellFormat} by cell style index of one workbook,
+ * style data is per style not per cell, so it is resolved once per read instead of once per cell.
+ * not thread safe, one instance for one read.
+ * </pre>
+ */
+public class CellStyleCache {
+
+  private NumericCellFormat[] numericCellFormats = new NumericCellFormat[64];
+
+  /**
+   * @param styleIndex cell style index of workbook
+   * @return cached format or null
+   */
+  public NumericCellFormat get(int styleIndex) {
+    if (styleIndex < 0 || styleIndex >= numericCellFormats.length) {
+      return null;
+    }
+    return numericCellFormats[styleIndex];
+  }
+
+  /**
+   * @param styleIndex        cell style index of workbook
+   * @param numericCellFormat format of style
+   */
+  public void put(int styleIndex, NumericCellFormat numericCellFormat) {
+    if (styleIndex < 0) {
+      return;
+    }
+    if (styleIndex >= numericCellFormats.length) {
+      numericCellFormats = Arrays.copyOf(numericCellFormats, Math.max(numericCellFormats.length * 2, styleIndex + 1));
+    }
+    numericCellFormats[styleIndex] = numericCellFormat;
+  }
+}
@@ -0,0 +1,32 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * <pre>
+ * cell value to text utils, shared by all workbook read helpers,
+ * so the same file value read by different readers get the same cell value.
+ * </pre>
+ */
+public class CellValueUtils {
+
+  private CellValueUtils() {
+    // default constructor
+  }
+
+  /**
+   * @param value boolean value
+   * @return true or false
+   */
+  public static String toBooleanText(boolean value) {
+    return Boolean.toString(value);
+  }
+
+  /**
+   * @param value string value
+   * @return null if blank else trimmed value
+   */
+  public static String toStringText(String value) {
+    return StringUtils.isBlank(value) ? null : value.trim();
+  }
+}
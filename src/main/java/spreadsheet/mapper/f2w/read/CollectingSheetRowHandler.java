@@ -0,0 +1,58 @@
+package spreadsheet.mapper.f2w.read;
+
+import spreadsheet.mapper.model.core.CellBean;
+import spreadsheet.mapper.model.core.ColumnarSheet;
+import spreadsheet.mapper.model.core.Row;
+import spreadsheet.mapper.model.core.Sheet;
+
+/**
+ * <pre>
+ * collect all rows into the sheet, after the sheet end all rows are padded to the same size of cells,
+ * and {@link ColumnarSheet} is compacted.
+ * this is what {@link WorkbookReadHelper#read(java.io.InputStream)} does.
+ * data rows are not padded after the last requested column of {@link ReadOptions}.
+ * no state between sheets, so sheets can be collected concurrently.
+ * </pre>
+ */
+public class CollectingSheetRowHandler implements SheetRowHandler {
+
+  private ReadOptions readOptions;
+
+  public CollectingSheetRowHandler() {
+    this(new ReadOptions());
+  }
+
+  public CollectingSheetRowHandler(ReadOptions readOptions) {
+    this.readOptions = readOptions;
+  }
+
+  @Override
+  public void onSheetStart(Sheet sheet) {
+    // nothing
+  }
+
+  @Override
+  public void onRow(Row row) {
+    row.getSheet().addRow(row);
+  }
+
+  @Override
+  public void onSheetEnd(Sheet sheet) {
+    int maxColNum = 0;
+    for (Row row : sheet.getRows()) {
+      maxColNum = Math.max(maxColNum, row.sizeOfCells());
+    }
+
+    for (Row row : sheet.getRows()) {
+      int columnSize = readOptions.getColumnSize(row.getIndex(), maxColNum);
+      while (row.sizeOfCells() < columnSize) {
+        row.addCell(new CellBean());
+      }
+    }
+
+    if (sheet instanceof ColumnarSheet) {
+      // loaded, the value index is not needed anymore
+      ((ColumnarSheet) sheet).compact();
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package spreadsheet.mapper.f2w.read;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <pre>
+ * per column dictionary of cell values of one sheet, equal values of a column share one canonical string,
+ * so the retained heap of repetitive columns (like status, department, Y/N) is reduced.
+ * once distinct values of a column exceed the cardinality cap, the column dictionary is dropped
+ * and the values of the column are kept as read.
+ * not thread safe, one instance for one sheet.
+ * </pre>
+ */
+public class ColumnValueDictionary {
+
+  private int cardinalityCap;
+
+  private List<Map<String, String>> dictionaries = new ArrayList<>();
+
+  private BitSet overflowedColumns = new BitSet();
+
+  /**
+   * @param cardinalityCap max distinct values of one column
+   */
+  public ColumnValueDictionary(int cardinalityCap) {
+    if (cardinalityCap < 1) {
+      throw new IllegalArgumentException("cardinality cap must be greater than 0");
+    }
+    this.cardinalityCap = cardinalityCap;
+  }
+
+  /**
+   * @param colNum 0-based column number
+   * @param value  cell value
+   * @return the canonical value equals supplied value
+   */
+  public String canonicalize(int colNum, String value) {
+    if (value == null || overflowedColumns.get(colNum)) {
+      return value;
+    }
+
+    while (dictionaries.size() <= colNum) {
+      dictionaries.add(null);
+    }
+    Map<String, String> dictionary = dictionaries.get(colNum);
+    if (dictionary == null) {
+      dictionary = new HashMap<>();
+      dictionaries.set(colNum, dictionary);
+    }
+
+    String canonical = dictionary.get(value);
+    if (canonical != null) {
+      return canonical;
+    }
+
+    if (dictionary.size() >= cardinalityCap) {
+      // high cardinality column, dictionary not helps
+      overflowedColumns.set(colNum);
+      dictionaries.set(colNum, null);
+      return value;
+    }
+
+    dictionary.put(value, value);
+    return value;
+  }
+}
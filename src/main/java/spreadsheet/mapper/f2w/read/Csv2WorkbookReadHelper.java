@@ -0,0 +1,144 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.core.Workbook;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <pre>
+ * csv (or tsv and other delimited text) to workbook reader, one file is read as one sheet,
+ * the sheet name is the file name without extension when read from file.
+ * file is memory mapped window by window (64MB per window) so it can be larger than 2GB,
+ * input stream is read through a channel into a reused buffer, see {@link CsvParser}.
+ * all cell values are read as text, blank value is read as null like other readers.
+ * </pre>
+ */
+public class Csv2WorkbookReadHelper extends WorkbookReadHelperAdapter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Csv2WorkbookReadHelper.class);
+
+  private static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private char delimiter;
+
+  private char quote;
+
+  private Charset charset;
+
+  private int windowSize = DEFAULT_WINDOW_SIZE;
+
+  /**
+   * comma delimited, double quoted, utf-8
+   */
+  public Csv2WorkbookReadHelper() {
+    this(',', '"', StandardCharsets.UTF_8);
+  }
+
+  /**
+   * @param delimiter field delimiter, like ',' or '\t'
+   * @param quote     quote
+   * @param charset   ascii compatible charset
+   */
+  public Csv2WorkbookReadHelper(char delimiter, char quote, Charset charset) {
+    if (charset == null) {
+      throw new IllegalArgumentException("charset can not be null");
+    }
+    CsvParser.checkAsciiCompatible(delimiter, quote, charset);
+    this.delimiter = delimiter;
+    this.quote = quote;
+    this.charset = charset;
+  }
+
+  /**
+   * @return tab delimited, double quoted, utf-8 reader
+   */
+  public static Csv2WorkbookReadHelper tsv() {
+    return new Csv2WorkbookReadHelper('\t', '"', StandardCharsets.UTF_8);
+  }
+
+  void setWindowSize(int windowSize) {
+    this.windowSize = windowSize;
+  }
+
+  @Override
+  protected void read(File file, InputStream inputStream, ByteBuffer byteBuffer, Workbook excelWorkbook,
+                      RowCursorHandler rowCursorHandler, boolean padRows, ReadOptions readOptions) {
+
+    try {
+
+      if (file != null ? file.length() == 0 : byteBuffer != null ? !byteBuffer.hasRemaining() : inputStream.available() == 0) {
+        return;
+      }
+
+      String sheetName = file != null ? FilenameUtils.getBaseName(file.getName()) : null;
+      if (!readOptions.isSheetRequested(1, sheetName)) {
+        return;
+      }
+
+      Sheet excelSheet = readOptions.createSheet(sheetName);
+      excelWorkbook.addSheet(excelSheet);
+
+      SheetAssembler sheetAssembler = new SheetAssembler(excelSheet, rowCursorHandler, padRows, readOptions);
+      CsvParser csvParser = new CsvParser(sheetAssembler, delimiter, quote, charset);
+
+      sheetAssembler.startSheet();
+      if (file != null) {
+        parseMapped(file, csvParser);
+      } else if (byteBuffer != null) {
+        csvParser.parse(byteBuffer.duplicate());
+      } else {
+        parseBuffered(inputStream, csvParser);
+      }
+      csvParser.finish();
+      sheetAssembler.endSheet();
+
+    } catch (Exception e) {
+      LOGGER.error(ExceptionUtils.getStackTrace(e));
+      throw new WorkbookReadException(e);
+    } finally {
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
+  private void parseMapped(File file, CsvParser csvParser) throws Exception {
+
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+
+      FileChannel channel = randomAccessFile.getChannel();
+      long size = channel.size();
+
+      // the parse state is kept by parser, so a window can end in the middle of a field
+      for (long position = 0; position < size && !csvParser.isFinished(); position += windowSize) {
+        csvParser.parse(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, size - position)));
+      }
+    }
+  }
+
+  private void parseBuffered(InputStream inputStream, CsvParser csvParser) throws Exception {
+
+    ReadableByteChannel channel = Channels.newChannel(inputStream);
+    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    while (!csvParser.isFinished() && channel.read(buffer) != -1) {
+      buffer.flip();
+      csvParser.parse(buffer);
+      buffer.clear();
+    }
+  }
+}
@@ -0,0 +1,266 @@
+package spreadsheet.mapper.f2w.read;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * <pre>
+ * csv byte parser, bytes are supplied chunk by chunk ({@link #parse(ByteBuffer)}) and the parse state is kept between chunks,
+ * so a field or row can cross chunks. field bytes are copied to one reused byte array and decoded once per field.
+ * the delimiter and quote must be ascii and the charset must be ascii compatible, so they never appear inside a multi bytes character:
+ * any ascii delimiter and quote of utf-8 (its multi bytes are all greater than 0x7F) and single byte charsets (like iso-8859-1),
+ * only the delimiter and quote less than 0x40 (like , ; tab ") of the other multi bytes charsets (like gbk, big5, shift_jis),
+ * their trail bytes cover 0x40-0x7E, so | or \ can be the trail byte of a character.
+ * stateful charsets (like iso-2022-jp, iso-2022-kr, iso-2022-cn) are not supported, their double bytes characters
+ * between the escape (or shift) sequences are made of ascii bytes, decode them to utf-8 first.
+ * utf-8 byte order mark at the beginning is skipped.
+ * rfc 4180: quoted field can contain delimiter, line break and doubled quote, line break is \n, \r\n or \r.
+ * </pre>
+ */
+public class CsvParser {
+
+  private static final int FIELD_START = 0;
+
+  private static final int UNQUOTED = 1;
+
+  private static final int QUOTED = 2;
+
+  // a quote in quoted field, it's a closing quote or the first of doubled quote
+  private static final int QUOTE_IN_QUOTED = 3;
+
+  private static final byte[] UTF8_BYTE_ORDER_MARK = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+  // the least trail byte of gbk, big5, shift_jis characters
+  private static final int TRAIL_BYTE_MIN = 0x40;
+
+  // japanese, chinese and korean characters, encoded with escape or shift out by stateful charsets
+  private static final String STATEFUL_PROBE = "\u3042\u4e2d\uac00";
+
+  private static final byte ESCAPE = 0x1B;
+
+  private static final byte SHIFT_OUT = 0x0E;
+
+  private SheetAssembler sheetAssembler;
+
+  private byte delimiter;
+
+  private byte quote;
+
+  private Charset charset;
+
+  /*===============
+    parse state
+   ================*/
+  private int state = FIELD_START;
+
+  // matched bytes of utf-8 byte order mark at the beginning, the mark can cross chunks
+  private int byteOrderMarkMatched;
+
+  private boolean pendingCarriageReturn;
+
+  private boolean rowStarted;
+
+  private int rowNum;
+
+  private int colNum;
+
+  private byte[] field = new byte[256];
+
+  private int fieldLength;
+
+  private boolean finished;
+
+  /**
+   * @param sheetAssembler {@link SheetAssembler}
+   * @param delimiter      field delimiter
+   * @param quote          quote
+   * @param charset        ascii compatible charset
+   */
+  public CsvParser(SheetAssembler sheetAssembler, char delimiter, char quote, Charset charset) {
+    checkAsciiCompatible(delimiter, quote, charset);
+
+    this.sheetAssembler = sheetAssembler;
+    this.delimiter = (byte) delimiter;
+    this.quote = (byte) quote;
+    this.charset = charset;
+    this.byteOrderMarkMatched = StandardCharsets.UTF_8.equals(charset) ? 0 : UTF8_BYTE_ORDER_MARK.length;
+  }
+
+  /**
+   * parse the remaining bytes of chunk, stop when {@link SheetAssembler#isFinished()}
+   *
+   * @param chunk bytes
+   */
+  public void parse(ByteBuffer chunk) {
+    while (chunk.hasRemaining() && !finished) {
+      byte b = chunk.get();
+
+      if (byteOrderMarkMatched < UTF8_BYTE_ORDER_MARK.length) {
+        if (b == UTF8_BYTE_ORDER_MARK[byteOrderMarkMatched]) {
+          byteOrderMarkMatched++;
+          continue;
+        }
+        replayByteOrderMark();
+      }
+
+      consume(b);
+    }
+  }
+
+  /**
+   * all bytes supplied, end the last row if it not ends with line break
+   */
+  public void finish() {
+    if (finished) {
+      return;
+    }
+    replayByteOrderMark();
+
+    if (state != FIELD_START || colNum > 0) {
+      endField();
+      endRow();
+    }
+  }
+
+  /**
+   * @return true if rows limit reached, the rest bytes need not be supplied
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * not a byte order mark, the matched bytes are content
+   */
+  private void replayByteOrderMark() {
+    int matched = byteOrderMarkMatched;
+    byteOrderMarkMatched = UTF8_BYTE_ORDER_MARK.length;
+    for (int i = 0; i < matched && matched < UTF8_BYTE_ORDER_MARK.length; i++) {
+      consume(UTF8_BYTE_ORDER_MARK[i]);
+    }
+  }
+
+  private void consume(byte b) {
+    if (pendingCarriageReturn) {
+      pendingCarriageReturn = false;
+      if (b == '\n') {
+        // \r\n
+        return;
+      }
+    }
+
+    switch (state) {
+      case FIELD_START:
+        if (b == quote) {
+          state = QUOTED;
+        } else {
+          state = UNQUOTED;
+          unquoted(b);
+        }
+        break;
+      case UNQUOTED:
+        unquoted(b);
+        break;
+      case QUOTED:
+        if (b == quote) {
+          state = QUOTE_IN_QUOTED;
+        } else {
+          append(b);
+        }
+        break;
+      case QUOTE_IN_QUOTED:
+        if (b == quote) {
+          append(b);
+          state = QUOTED;
+        } else {
+          // closed, the bytes after closing quote are kept as unquoted
+          state = UNQUOTED;
+          unquoted(b);
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void unquoted(byte b) {
+    if (b == delimiter) {
+      endField();
+    } else if (b == '\n') {
+      endField();
+      endRow();
+    } else if (b == '\r') {
+      endField();
+      endRow();
+      pendingCarriageReturn = true;
+    } else {
+      append(b);
+    }
+  }
+
+  private void append(byte b) {
+    if (fieldLength == field.length) {
+      field = Arrays.copyOf(field, field.length * 2);
+    }
+    field[fieldLength++] = b;
+  }
+
+  private void endField() {
+    if (!rowStarted) {
+      sheetAssembler.startRow(rowNum);
+      rowStarted = true;
+    }
+
+    String value = null;
+    if (fieldLength > 0 && sheetAssembler.isColumnRequested(colNum)) {
+      value = CellValueUtils.toStringText(new String(field, 0, fieldLength, charset));
+    }
+    sheetAssembler.cell(colNum, value);
+
+    colNum++;
+    fieldLength = 0;
+    state = FIELD_START;
+  }
+
+  private void endRow() {
+    sheetAssembler.endRow();
+    rowStarted = false;
+    rowNum++;
+    colNum = 0;
+    finished = sheetAssembler.isFinished();
+  }
+
+  static void checkAsciiCompatible(char delimiter, char quote, Charset charset) {
+    if (delimiter >= 0x80 || quote >= 0x80) {
+      throw new IllegalArgumentException("delimiter and quote must be ascii");
+    }
+    if (isStateful(charset)) {
+      throw new IllegalArgumentException("stateful charset[" + charset + "] is not supported, its double bytes characters are ascii bytes");
+    }
+    boolean selfSynchronizing = StandardCharsets.UTF_8.equals(charset) || charset.newEncoder().maxBytesPerChar() == 1;
+    if (!selfSynchronizing && (delimiter >= TRAIL_BYTE_MIN || quote >= TRAIL_BYTE_MIN)) {
+      throw new IllegalArgumentException("delimiter and quote of charset[" + charset + "] must be less than 0x40, they can be trail bytes of multi bytes character");
+    }
+    byte[] ascii = new String(new char[]{delimiter, quote, '\r', '\n'}).getBytes(charset);
+    if (ascii.length != 4 || ascii[0] != delimiter || ascii[1] != quote || ascii[2] != '\r' || ascii[3] != '\n') {
+      throw new IllegalArgumentException("charset[" + charset + "] is not ascii compatible");
+    }
+  }
+
+  /**
+   * @return true if decode only (the state can not be checked) or the characters are encoded with escape or shift out sequence
+   */
+  private static boolean isStateful(Charset charset) {
+    if (!charset.canEncode()) {
+      return true;
+    }
+    for (byte b : STATEFUL_PROBE.getBytes(charset)) {
+      if (b == ESCAPE || b == SHIFT_OUT) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
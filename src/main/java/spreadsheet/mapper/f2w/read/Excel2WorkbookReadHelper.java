@@ -2,141 +2,214 @@ package spreadsheet.mapper.f2w.read;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.POIXMLDocument;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
-import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import spreadsheet.mapper.f2w.DateFormatRegisterer;
 import spreadsheet.mapper.model.core.*;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.text.SimpleDateFormat;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  * excel to workbook reader decorator
  * <p>
+ * the state of a read is held by the read, so one helper can read many files concurrently.
+ * <p>
  * Created by hanwen on 2017/1/3.
  */
-public class Excel2WorkbookReadHelper implements WorkbookReadHelper {
+public class Excel2WorkbookReadHelper extends WorkbookReadHelperAdapter {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(Excel2WorkbookReadHelper.class);
 
-  private org.apache.poi.ss.usermodel.Workbook workbook;
+  private static final int ZIP_LOCAL_HEADER_SIGNATURE = 0x04034b50;
 
-  public Workbook read(InputStream inputStream) {
+  @Override
+  protected void read(File file, InputStream inputStream, ByteBuffer byteBuffer, Workbook excelWorkbook,
+                      RowCursorHandler rowCursorHandler, boolean padRows, ReadOptions readOptions) {
 
-    Workbook excelWorkbook = new WorkbookBean();
+    org.apache.poi.ss.usermodel.Workbook workbook = null;
     try {
 
-      if (inputStream.available() == 0) {
-        return excelWorkbook;
+      if (file != null ? file.length() == 0 : byteBuffer != null ? !byteBuffer.hasRemaining() : inputStream.available() == 0) {
+        return;
       }
 
-      workbook = WorkbookFactory.create(inputStream);
+      // read only, the file is not written back when workbook closed
+      if (file != null) {
+        workbook = WorkbookFactory.create(file, null, true);
+      } else if (byteBuffer != null) {
+        workbook = createWorkbook(byteBuffer);
+      } else {
+        workbook = WorkbookFactory.create(inputStream);
+      }
+      ReadContext readContext = new ReadContext(workbook, readOptions.isEvaluateFormulas());
 
       int sheetCount = workbook.getNumberOfSheets();
 
       for (int i = 0; i < sheetCount; i++) {
 
+        if (!readOptions.isSheetRequested(i + 1, workbook.getSheetName(i))) {
+          continue;
+        }
+
         org.apache.poi.ss.usermodel.Sheet sheet = workbook.getSheetAt(i);
 
         if (sheet == null) {
           continue;
         }
 
-        Sheet excelSheet = createSheet(sheet);
+        Sheet excelSheet = createSheet(sheet, readOptions);
         excelWorkbook.addSheet(excelSheet);
 
-        int maxColNum = getMaxColNum(sheet);
-        for (int j = 0; j <= sheet.getLastRowNum(); j++) {
+        SheetAssembler sheetAssembler = new SheetAssembler(excelSheet, rowCursorHandler, true, readOptions);
+        sheetAssembler.startSheet();
+
+        int lastRowNum;
+        int maxColNum;
+        if (readOptions.isUsedRange()) {
+          // only the rows up to the last row with value are walked
+          int[] usedRange = getUsedRange(sheet);
+          lastRowNum = usedRange[0];
+          maxColNum = usedRange[1];
+        } else {
+          lastRowNum = sheet.getLastRowNum();
+          maxColNum = getMaxColNum(sheet);
+        }
+
+        sheetAssembler.dimension(maxColNum);
+        int firstRowNum = readOptions.getStartRow() - 1;
+        if (readOptions.isFillMergedRegions()) {
+          sheetAssembler.mergedRegions(getMergedRegions(sheet));
+          // anchor values of regions cross start row may be before start row
+          firstRowNum = 0;
+        }
+        // the rows before start row are pushed (and skipped) by assembler as empty rows, their cells are not read
+        for (int j = firstRowNum; j <= lastRowNum && !sheetAssembler.isFinished(); j++) {
 
           org.apache.poi.ss.usermodel.Row row = sheet.getRow(j);
-          Row excelRow = createRow();
-          excelSheet.addRow(excelRow);
+          sheetAssembler.startRow(j);
 
           for (int k = 0; k < maxColNum; k++) {
 
-            org.apache.poi.ss.usermodel.Cell cell = row.getCell(k);
-            excelRow.addCell(createCell(cell));
+            org.apache.poi.ss.usermodel.Cell cell = row == null ? null : row.getCell(k);
+            sheetAssembler.cell(k, sheetAssembler.isColumnRequested(k) ? createCellValue(readContext, cell) : null);
           }
+
+          sheetAssembler.endRow();
         }
+
+        sheetAssembler.endSheet();
       }
 
-      return excelWorkbook;
     } catch (Exception e) {
       LOGGER.error(ExceptionUtils.getStackTrace(e));
       throw new WorkbookReadException(e);
     } finally {
 
       try {
-        workbook.close();
+        if (workbook instanceof POIXMLDocument && (file != null || byteBuffer != null)) {
+          // read only package discards changes by revert, close is for save
+          ((POIXMLDocument) workbook).getPackage().revert();
+        } else if (workbook != null) {
+          workbook.close();
+        }
       } catch (IOException e) {
         LOGGER.error(ExceptionUtils.getStackTrace(e));
       }
     }
   }
 
-  private Sheet createSheet(org.apache.poi.ss.usermodel.Sheet sheet) {
-    String sheetName = sheet.getSheetName();
+  private static boolean isDate1904(org.apache.poi.ss.usermodel.Workbook workbook) {
+    if (workbook instanceof XSSFWorkbook) {
+      return ((XSSFWorkbook) workbook).isDate1904();
+    }
+    return workbook instanceof HSSFWorkbook && ((HSSFWorkbook) workbook).getInternalWorkbook().isUsing1904DateWindowing();
+  }
 
-    if (StringUtils.isBlank(sheetName)) {
+  /**
+   * the xlsx package is opened over the buffer, the xls file system of usermodel is always buffered in memory by poi
+   */
+  private org.apache.poi.ss.usermodel.Workbook createWorkbook(ByteBuffer byteBuffer) throws Exception {
+    ByteBuffer head = byteBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    if (head.remaining() >= 4 && head.getInt(head.position()) == ZIP_LOCAL_HEADER_SIGNATURE) {
+      return new XSSFWorkbook(OPCPackage.open(new ByteBufferZipEntrySource(byteBuffer)));
+    }
+    return WorkbookFactory.create(new ByteBufferInputStream(byteBuffer));
+  }
 
-      return new SheetBean();
+  private MergedRegionIndex getMergedRegions(org.apache.poi.ss.usermodel.Sheet sheet) {
+    MergedRegionIndex mergedRegionIndex = new MergedRegionIndex();
+    for (CellRangeAddress region : sheet.getMergedRegions()) {
+      mergedRegionIndex.add(region.getFirstRow(), region.getLastRow(), region.getFirstColumn(), region.getLastColumn());
     }
+    return mergedRegionIndex;
+  }
 
-    return new SheetBean(sheetName);
+  private Sheet createSheet(org.apache.poi.ss.usermodel.Sheet sheet, ReadOptions readOptions) {
+    return readOptions.createSheet(sheet.getSheetName());
   }
 
-  private Row createRow() {
-    return new RowBean();
+  private NumericCellFormat getNumericCellFormat(ReadContext readContext, CellStyle cellStyle) {
+    int styleIndex = cellStyle.getIndex() & 0xFFFF;
+
+    NumericCellFormat numericCellFormat = readContext.cellStyleCache.get(styleIndex);
+    if (numericCellFormat == null) {
+      numericCellFormat = new NumericCellFormat(cellStyle.getDataFormat(), cellStyle.getDataFormatString());
+      readContext.cellStyleCache.put(styleIndex, numericCellFormat);
+    }
+    return numericCellFormat;
   }
 
-  private Cell createCell(org.apache.poi.ss.usermodel.Cell cell) {
+  private String createCellValue(ReadContext readContext, org.apache.poi.ss.usermodel.Cell cell) {
     if (cell == null) {
 
-      return new CellBean();
+      return null;
     }
 
     String value;
 
-    int cellType = cell.getCellType();
-    if (cellType == org.apache.poi.ss.usermodel.Cell.CELL_TYPE_BLANK) {
+    CellType cellType = cell.getCellTypeEnum();
+    if (cellType == CellType.FORMULA) {
 
-      value = null;
+      CellValue cellValue = readContext.formulaEvaluator == null ? null : evaluate(readContext, cell);
+      if (cellValue != null) {
+        return createEvaluatedValue(readContext, cell, cellValue);
+      }
+      // the cached result stored in file, the getters of cell return the cached result of formula cell
+      cellType = cell.getCachedFormulaResultTypeEnum();
+    }
 
-    } else if (cellType == org.apache.poi.ss.usermodel.Cell.CELL_TYPE_BOOLEAN) {
+    if (cellType == CellType.BLANK) {
 
-      value = Boolean.toString(cell.getBooleanCellValue());
+      value = null;
 
-    } else if (cellType == org.apache.poi.ss.usermodel.Cell.CELL_TYPE_ERROR) {
+    } else if (cellType == CellType.BOOLEAN) {
 
-      value = null;
+      value = CellValueUtils.toBooleanText(cell.getBooleanCellValue());
 
-    } else if (cellType == org.apache.poi.ss.usermodel.Cell.CELL_TYPE_FORMULA) {
+    } else if (cellType == CellType.ERROR) {
 
       value = null;
 
-    } else if (cellType == org.apache.poi.ss.usermodel.Cell.CELL_TYPE_NUMERIC) {
-
-      if (DateUtil.isCellDateFormatted(cell)) {
-        String dateFormat = DateFormatRegisterer.GLOBAL.getCorrespondingFormat(cell.getCellStyle().getDataFormatString());
+    } else if (cellType == CellType.NUMERIC) {
 
-        if (dateFormat == null) {
-          value = DateFormatRegisterer.ERROR_PATTERN;
-        } else {
-          SimpleDateFormat simpleDateFormat = new SimpleDateFormat(dateFormat);
-          value = simpleDateFormat.format(cell.getDateCellValue());
-        }
-      } else {
-        value = NumberToTextConverter.toText(cell.getNumericCellValue());
-      }
+      value = getNumericCellFormat(readContext, cell.getCellStyle()).format(cell.getNumericCellValue(), readContext.date1904);
 
-    } else if (cellType == org.apache.poi.ss.usermodel.Cell.CELL_TYPE_STRING) {
+    } else if (cellType == CellType.STRING) {
 
-      String cellValue = cell.getStringCellValue();
-      value = StringUtils.isBlank(cellValue) ? null : cellValue.trim();
+      value = CellValueUtils.toStringText(cell.getStringCellValue());
 
     } else {
 
@@ -144,17 +217,114 @@ public class Excel2WorkbookReadHelper implements WorkbookReadHelper {
 
     }
 
-    return new CellBean(value);
+    return value;
+
+  }
+
+  /**
+   * evaluate by the evaluator shared by all sheets of workbook, so the evaluated cells are cached for the formulas after
+   *
+   * @return null if the formula can not be evaluated (like unsupported function), then the cached result is read
+   */
+  private CellValue evaluate(ReadContext readContext, org.apache.poi.ss.usermodel.Cell cell) {
+    try {
+      return readContext.formulaEvaluator.evaluate(cell);
+    } catch (RuntimeException e) {
+      LOGGER.debug("formula[" + cell.getCellFormula() + "] not evaluated: " + e.getMessage());
+      return null;
+    }
+  }
 
+  private String createEvaluatedValue(ReadContext readContext, org.apache.poi.ss.usermodel.Cell cell, CellValue cellValue) {
+    switch (cellValue.getCellTypeEnum()) {
+      case NUMERIC:
+        return getNumericCellFormat(readContext, cell.getCellStyle()).format(cellValue.getNumberValue(), readContext.date1904);
+      case STRING:
+        return CellValueUtils.toStringText(cellValue.getStringValue());
+      case BOOLEAN:
+        return CellValueUtils.toBooleanText(cellValue.getBooleanValue());
+      default:
+        // blank, error
+        return null;
+    }
   }
 
   private int getMaxColNum(org.apache.poi.ss.usermodel.Sheet sheet) {
     int maxColNum = 0;
-    for (int j = 0; j <= sheet.getLastRowNum(); j++) {
-      org.apache.poi.ss.usermodel.Row row = sheet.getRow(j);
+    // only the rows exist in file are iterated
+    for (org.apache.poi.ss.usermodel.Row row : sheet) {
       maxColNum = Math.max(row.getLastCellNum(), maxColNum);
     }
     return maxColNum;
   }
 
+  /**
+   * the extent of cells with value, the cells only have style are skipped.
+   * the last row is found from the bottom of sheet, so the rows after it (formatted to the end of sheet) are passed over
+   * once, and the columns are only counted on the rows up to it.
+   *
+   * @return [last row number (-1 if no value), max column number]
+   */
+  private int[] getUsedRange(org.apache.poi.ss.usermodel.Sheet sheet) {
+    int lastRowNum = -1;
+    for (int i = sheet.getLastRowNum(); i >= sheet.getFirstRowNum() && lastRowNum < 0; i--) {
+      org.apache.poi.ss.usermodel.Row row = sheet.getRow(i);
+      if (row != null && getLastValueColNum(row, 0) >= 0) {
+        lastRowNum = i;
+      }
+    }
+
+    int maxColNum = 0;
+    // rows are iterated in row number order
+    for (org.apache.poi.ss.usermodel.Row row : sheet) {
+      if (row.getRowNum() > lastRowNum) {
+        break;
+      }
+      maxColNum = Math.max(maxColNum, getLastValueColNum(row, maxColNum) + 1);
+    }
+    return new int[]{lastRowNum, maxColNum};
+  }
+
+  /**
+   * @param row        row
+   * @param fromColNum  the cells before it are not checked
+   * @return 0-based column number of the last cell with value from the column, -1 if none
+   */
+  private int getLastValueColNum(org.apache.poi.ss.usermodel.Row row, int fromColNum) {
+    for (int k = row.getLastCellNum() - 1; k >= Math.max(fromColNum, row.getFirstCellNum()); k--) {
+      org.apache.poi.ss.usermodel.Cell cell = row.getCell(k);
+      if (cell != null && hasValue(cell)) {
+        return k;
+      }
+    }
+    return -1;
+  }
+
+  private boolean hasValue(org.apache.poi.ss.usermodel.Cell cell) {
+    CellType cellType = cell.getCellTypeEnum();
+    if (cellType == CellType.BLANK) {
+      return false;
+    }
+    return cellType != CellType.STRING || StringUtils.isNotBlank(cell.getStringCellValue());
+  }
+
+  /**
+   * state of one read, not shared by the reads
+   */
+  private static class ReadContext {
+
+    private CellStyleCache cellStyleCache = new CellStyleCache();
+
+    // null if formulas not evaluated
+    private FormulaEvaluator formulaEvaluator;
+
+    private boolean date1904;
+
+    private ReadContext(org.apache.poi.ss.usermodel.Workbook workbook, boolean evaluateFormulas) {
+      this.date1904 = isDate1904(workbook);
+      // one evaluator for the workbook, formulas refer to other sheets share the evaluated cells
+      this.formulaEvaluator = evaluateFormulas ? workbook.getCreationHelper().createFormulaEvaluator() : null;
+    }
+  }
+
 }
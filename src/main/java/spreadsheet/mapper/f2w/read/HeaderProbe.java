@@ -0,0 +1,76 @@
+package spreadsheet.mapper.f2w.read;
+
+import spreadsheet.mapper.model.core.Workbook;
+import spreadsheet.mapper.model.meta.WorkbookMeta;
+import spreadsheet.mapper.w2o.HeaderWorkbookMetaFactory;
+
+import java.io.File;
+import java.io.InputStream;
+
+/**
+ * <pre>
+ * probe the header rows of every sheet without reading data rows,
+ * the parse of every sheet stops once header rows read (see {@link ReadOptions#maxRows(int)}),
+ * so the probe time is independent of the data rows size. used to recognize the template of uploaded file.
+ * the probe reads by a copy of the read options of supplied read helper (so the sheets and columns options are kept)
+ * from the first row, the copy is passed to the read only, the read helper is not changed,
+ * so it can be shared with other reads during probe.
+ * </pre>
+ */
+public class HeaderProbe {
+
+  private WorkbookReadHelperAdapter workbookReadHelper;
+
+  /**
+   * @param workbookReadHelper read helper of file format, streaming read helpers stop parsing earlier
+   */
+  public HeaderProbe(WorkbookReadHelperAdapter workbookReadHelper) {
+    if (workbookReadHelper == null) {
+      throw new IllegalArgumentException("workbook read helper can not be null");
+    }
+    this.workbookReadHelper = workbookReadHelper;
+  }
+
+  /**
+   * @param inputStream    auto close
+   * @param headerRowCount header row count, the last header row is field name row
+   * @return {@link WorkbookMeta} see {@link HeaderWorkbookMetaFactory}
+   */
+  public WorkbookMeta probe(InputStream inputStream, int headerRowCount) {
+    return new HeaderWorkbookMetaFactory(headerRowCount).create(probeRows(inputStream, headerRowCount));
+  }
+
+  /**
+   * @param file           file
+   * @param headerRowCount header row count, the last header row is field name row
+   * @return {@link WorkbookMeta} see {@link HeaderWorkbookMetaFactory}
+   */
+  public WorkbookMeta probe(File file, int headerRowCount) {
+    return new HeaderWorkbookMetaFactory(headerRowCount).create(probeRows(file, headerRowCount));
+  }
+
+  /**
+   * @param inputStream    auto close
+   * @param headerRowCount header row count
+   * @return workbook of all sheets, every sheet only has the header rows
+   */
+  public Workbook probeRows(InputStream inputStream, int headerRowCount) {
+    return workbookReadHelper.collect(null, inputStream, null, createReadOptions(headerRowCount));
+  }
+
+  /**
+   * @param file           file
+   * @param headerRowCount header row count
+   * @return workbook of all sheets, every sheet only has the header rows
+   */
+  public Workbook probeRows(File file, int headerRowCount) {
+    return workbookReadHelper.collect(file, null, null, createReadOptions(headerRowCount));
+  }
+
+  private ReadOptions createReadOptions(int headerRowCount) {
+    if (headerRowCount < 1) {
+      throw new IllegalArgumentException("header row count must be greater than 0");
+    }
+    return workbookReadHelper.getReadOptions().copy().startRow(1).maxRows(headerRowCount);
+  }
+}
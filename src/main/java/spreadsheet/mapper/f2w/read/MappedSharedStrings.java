@@ -0,0 +1,271 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.util.SAXHelper;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <pre>
+ * shared strings table backed by memory mapped temp files, for xlsx has huge shared strings part.
+ * the part is parsed once: strings are written (utf-8) to a data file and their offsets to an index file,
+ * then both files are memory mapped, an entry is decoded only when a cell references it.
+ * a small lru cache holds the hot entries, so the heap used is bounded regardless of the table size.
+ * the temp files are deleted on {@link #close()}.
+ * </pre>
+ */
+public class MappedSharedStrings implements SharedStrings, Closeable {
+
+  public static final int DEFAULT_CACHE_SIZE = 1024;
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  // map files by segments, every entry is written inside one segment
+  private static final long SEGMENT_SIZE = 1 << 30;
+
+  private File dataFile;
+
+  private File indexFile;
+
+  private List<MappedByteBuffer> dataSegments;
+
+  private List<MappedByteBuffer> indexSegments;
+
+  private int count;
+
+  private byte[] buffer = new byte[256];
+
+  private Map<Integer, String> cache;
+
+  /**
+   * @param sharedStringsInputStream shared strings part, auto close
+   * @param cacheSize                max entries of lru cache
+   * @throws IOException io exception
+   */
+  public MappedSharedStrings(InputStream sharedStringsInputStream, final int cacheSize) throws IOException {
+    this.cache = new LinkedHashMap<Integer, String>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+        return size() > cacheSize;
+      }
+    };
+
+    dataFile = File.createTempFile("sharedStrings", ".dat");
+    indexFile = File.createTempFile("sharedStrings", ".idx");
+    try {
+      index(sharedStringsInputStream);
+      dataSegments = map(dataFile);
+      indexSegments = map(indexFile);
+    } catch (IOException e) {
+      close();
+      throw e;
+    } catch (Exception e) {
+      close();
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public int getCount() {
+    return count;
+  }
+
+  @Override
+  public synchronized String getEntryAt(int index) {
+    if (index < 0 || index >= count) {
+      throw new IllegalArgumentException("shared string index[" + index + "] out of bounds");
+    }
+
+    String entry = cache.get(index);
+    if (entry != null) {
+      return entry;
+    }
+
+    long indexPosition = (long) index * 8;
+    long offset = indexSegments.get((int) (indexPosition / SEGMENT_SIZE)).getLong((int) (indexPosition % SEGMENT_SIZE));
+
+    MappedByteBuffer dataSegment = dataSegments.get((int) (offset / SEGMENT_SIZE));
+    int position = (int) (offset % SEGMENT_SIZE);
+    int length = dataSegment.getInt(position);
+
+    if (buffer.length < length) {
+      buffer = new byte[Math.max(buffer.length * 2, length)];
+    }
+    ByteBuffer entryBuffer = dataSegment.duplicate();
+    entryBuffer.position(position + 4);
+    entryBuffer.get(buffer, 0, length);
+
+    entry = new String(buffer, 0, length, UTF_8);
+    cache.put(index, entry);
+    return entry;
+  }
+
+  @Override
+  public synchronized void close() {
+    dataSegments = null;
+    indexSegments = null;
+    cache.clear();
+
+    // mapped buffers release the files after gc on some platforms
+    if (dataFile != null && !dataFile.delete()) {
+      dataFile.deleteOnExit();
+    }
+    if (indexFile != null && !indexFile.delete()) {
+      indexFile.deleteOnExit();
+    }
+  }
+
+  private void index(InputStream sharedStringsInputStream) throws Exception {
+    DataOutputStream dataOutputStream = null;
+    DataOutputStream indexOutputStream = null;
+    try {
+      dataOutputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(dataFile), 64 * 1024));
+      indexOutputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile), 64 * 1024));
+
+      if (sharedStringsInputStream != null) {
+        IndexHandler indexHandler = new IndexHandler(dataOutputStream, indexOutputStream);
+
+        XMLReader xmlReader = SAXHelper.newXMLReader();
+        xmlReader.setContentHandler(indexHandler);
+        xmlReader.parse(new InputSource(sharedStringsInputStream));
+
+        count = indexHandler.count;
+      }
+
+      dataOutputStream.flush();
+      indexOutputStream.flush();
+    } finally {
+      IOUtils.closeQuietly(dataOutputStream);
+      IOUtils.closeQuietly(indexOutputStream);
+      IOUtils.closeQuietly(sharedStringsInputStream);
+    }
+  }
+
+  private List<MappedByteBuffer> map(File file) throws IOException {
+    List<MappedByteBuffer> segments = new ArrayList<>();
+
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    try {
+      FileChannel channel = randomAccessFile.getChannel();
+      long size = channel.size();
+      for (long position = 0; position < size; position += SEGMENT_SIZE) {
+        segments.add(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, size - position)));
+      }
+    } finally {
+      // the mapping stays valid after channel closed
+      randomAccessFile.close();
+    }
+
+    return segments;
+  }
+
+  /**
+   * sax handler of shared strings part, write every si text (phonetic runs excluded) to data file
+   */
+  private static class IndexHandler extends DefaultHandler {
+
+    private DataOutputStream dataOutputStream;
+
+    private DataOutputStream indexOutputStream;
+
+    private long offset;
+
+    private int count;
+
+    private boolean textOpen;
+
+    private boolean phoneticOpen;
+
+    private StringBuilder text = new StringBuilder(64);
+
+    private IndexHandler(DataOutputStream dataOutputStream, DataOutputStream indexOutputStream) {
+      this.dataOutputStream = dataOutputStream;
+      this.indexOutputStream = indexOutputStream;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+      switch (localName) {
+        case "si":
+          text.setLength(0);
+          break;
+        case "t":
+          textOpen = true;
+          break;
+        case "rPh":
+          phoneticOpen = true;
+          break;
+        default:
+          break;
+      }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+      switch (localName) {
+        case "si":
+          write(text.toString());
+          break;
+        case "t":
+          textOpen = false;
+          break;
+        case "rPh":
+          phoneticOpen = false;
+          break;
+        default:
+          break;
+      }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+      if (textOpen && !phoneticOpen) {
+        text.append(ch, start, length);
+      }
+    }
+
+    private void write(String entry) {
+      byte[] bytes = entry.getBytes(UTF_8);
+      try {
+
+        // not across segment
+        long segmentRemaining = SEGMENT_SIZE - offset % SEGMENT_SIZE;
+        if (segmentRemaining < 4 + bytes.length) {
+          for (long i = 0; i < segmentRemaining; i++) {
+            dataOutputStream.write(0);
+          }
+          offset += segmentRemaining;
+        }
+
+        indexOutputStream.writeLong(offset);
+        dataOutputStream.writeInt(bytes.length);
+        dataOutputStream.write(bytes);
+
+      } catch (IOException e) {
+        throw new WorkbookReadException(e);
+      }
+
+      offset += 4 + bytes.length;
+      count++;
+    }
+  }
+}
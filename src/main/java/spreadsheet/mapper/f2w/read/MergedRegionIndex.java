@@ -0,0 +1,251 @@
+package spreadsheet.mapper.f2w.read;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * <pre>
+ * index of merged regions of one sheet, find the region of a cell in O(log regions).
+ * it's a centered interval tree on rows, the regions of a node all cross the center row of node,
+ * merged regions never overlap, so the regions of a node never overlap in columns,
+ * they are sorted by first column and the only candidate of a cell is found by binary search.
+ * regions are added before the first {@link #find(int, int)}, then the ids of regions are their order sorted by first row and first column.
+ * row and column numbers are 0-based like poi.
+ * </pre>
+ */
+public class MergedRegionIndex {
+
+  private int[] firstRows = new int[16];
+
+  private int[] lastRows = new int[16];
+
+  private int[] firstCols = new int[16];
+
+  private int[] lastCols = new int[16];
+
+  private int size;
+
+  // built on first find after regions added
+  private Node root;
+
+  private boolean built;
+
+  /**
+   * @param firstRow first row number
+   * @param lastRow  last row number
+   * @param firstCol first column number
+   * @param lastCol  last column number
+   */
+  public void add(int firstRow, int lastRow, int firstCol, int lastCol) {
+    if (firstRow < 0 || firstCol < 0 || lastRow < firstRow || lastCol < firstCol) {
+      throw new IllegalArgumentException("illegal merged region[" + firstRow + ":" + lastRow + "," + firstCol + ":" + lastCol + "]");
+    }
+    if (firstRow == lastRow && firstCol == lastCol) {
+      // single cell, nothing merged
+      return;
+    }
+
+    if (size == firstRows.length) {
+      int capacity = size * 2;
+      firstRows = Arrays.copyOf(firstRows, capacity);
+      lastRows = Arrays.copyOf(lastRows, capacity);
+      firstCols = Arrays.copyOf(firstCols, capacity);
+      lastCols = Arrays.copyOf(lastCols, capacity);
+    }
+    firstRows[size] = firstRow;
+    lastRows[size] = lastRow;
+    firstCols[size] = firstCol;
+    lastCols[size] = lastCol;
+    size++;
+    built = false;
+  }
+
+  /**
+   * @return regions count
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param rowNum row number
+   * @param colNum column number
+   * @return id of region contains the cell, -1 if not merged
+   */
+  public int find(int rowNum, int colNum) {
+    build();
+
+    Node node = root;
+    while (node != null) {
+      int id = floor(node.regions, colNum);
+      if (id >= 0 && colNum <= lastCols[id] && rowNum >= firstRows[id] && rowNum <= lastRows[id]) {
+        return id;
+      }
+
+      if (rowNum < node.center) {
+        node = node.left;
+      } else if (rowNum > node.center) {
+        node = node.right;
+      } else {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @param rowNum row number
+   * @param colNum column number
+   * @return true if the cell is the top left cell of a region, whose value is the value of region
+   */
+  public boolean isAnchor(int rowNum, int colNum) {
+    int id = find(rowNum, colNum);
+    return id >= 0 && firstRows[id] == rowNum && firstCols[id] == colNum;
+  }
+
+  public int getFirstRow(int id) {
+    build();
+    return firstRows[id];
+  }
+
+  public int getLastRow(int id) {
+    build();
+    return lastRows[id];
+  }
+
+  public int getFirstCol(int id) {
+    build();
+    return firstCols[id];
+  }
+
+  public int getLastCol(int id) {
+    build();
+    return lastCols[id];
+  }
+
+  private void build() {
+    if (built) {
+      return;
+    }
+    sortRegions();
+
+    List<Integer> ids = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      ids.add(i);
+    }
+    root = build(ids);
+    built = true;
+  }
+
+  /**
+   * sort by first row then first column, so region ids are in reading order
+   */
+  private void sortRegions() {
+    Integer[] order = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer o1, Integer o2) {
+        int result = Integer.compare(firstRows[o1], firstRows[o2]);
+        return result != 0 ? result : Integer.compare(firstCols[o1], firstCols[o2]);
+      }
+    });
+
+    int[] sortedFirstRows = new int[size];
+    int[] sortedLastRows = new int[size];
+    int[] sortedFirstCols = new int[size];
+    int[] sortedLastCols = new int[size];
+    for (int i = 0; i < size; i++) {
+      sortedFirstRows[i] = firstRows[order[i]];
+      sortedLastRows[i] = lastRows[order[i]];
+      sortedFirstCols[i] = firstCols[order[i]];
+      sortedLastCols[i] = lastCols[order[i]];
+    }
+    firstRows = sortedFirstRows;
+    lastRows = sortedLastRows;
+    firstCols = sortedFirstCols;
+    lastCols = sortedLastCols;
+  }
+
+  /**
+   * @param ids sorted by first row
+   * @return node, null if no ids
+   */
+  private Node build(List<Integer> ids) {
+    if (ids.isEmpty()) {
+      return null;
+    }
+
+    // the median region crosses center, so both sides have half regions at most
+    Node node = new Node(firstRows[ids.get(ids.size() / 2)]);
+
+    List<Integer> lefts = new ArrayList<>();
+    List<Integer> rights = new ArrayList<>();
+    List<Integer> crosses = new ArrayList<>();
+    for (Integer id : ids) {
+      if (lastRows[id] < node.center) {
+        lefts.add(id);
+      } else if (firstRows[id] > node.center) {
+        rights.add(id);
+      } else {
+        crosses.add(id);
+      }
+    }
+
+    Collections.sort(crosses, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer o1, Integer o2) {
+        return Integer.compare(firstCols[o1], firstCols[o2]);
+      }
+    });
+    node.regions = new int[crosses.size()];
+    for (int i = 0; i < crosses.size(); i++) {
+      node.regions[i] = crosses.get(i);
+    }
+
+    node.left = build(lefts);
+    node.right = build(rights);
+    return node;
+  }
+
+  /**
+   * @param regions sorted by first column
+   * @return the last region whose first column not after supplied column, -1 if none
+   */
+  private int floor(int[] regions, int colNum) {
+    int low = 0;
+    int high = regions.length - 1;
+    int result = -1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (firstCols[regions[mid]] <= colNum) {
+        result = regions[mid];
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return result;
+  }
+
+  private static class Node {
+
+    private int center;
+
+    // regions cross center row, sorted by first column
+    private int[] regions;
+
+    private Node left;
+
+    private Node right;
+
+    private Node(int center) {
+      this.center = center;
+    }
+  }
+}
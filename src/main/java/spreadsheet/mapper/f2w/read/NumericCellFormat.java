@@ -0,0 +1,129 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.LocaleUtil;
+import spreadsheet.mapper.f2w.DateFormatRegisterer;
+import spreadsheet.mapper.utils.TextCodec;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <pre>
+ * how numeric cells of one cell style are read, resolved once from the format of the style:
+ * if the format is a date format, the registered date pattern ({@link DateFormatRegisterer#getCorrespondingFormat(String)})
+ * and a formatter of the pattern.
+ * the numbers and the dates of gregorian calendar and ascii digits are formatted by {@link TextCodec}.
+ * the formatter is not thread safe, so the instance is confined to one read,
+ * but whether a format string is a date format is shared by all reads, workbooks of one source use the same few formats.
+ * </pre>
+ */
+public class NumericCellFormat {
+
+  private static final int MAX_SHARED_FORMAT_STRINGS = 1024;
+
+  // format string -> is date format, for the formats not built-in
+  private static final ConcurrentMap<String, Boolean> DATE_FORMAT_STRINGS = new ConcurrentHashMap<>();
+
+  private boolean date;
+
+  private String datePattern;
+
+  private SimpleDateFormat dateFormat;
+
+  // date format can be replaced by text codec
+  private boolean codecDateFormat;
+
+  /**
+   * @param formatIndex  format index of cell style
+   * @param formatString format string of cell style
+   */
+  public NumericCellFormat(int formatIndex, String formatString) {
+    this.date = isDateFormat(formatIndex, formatString);
+
+    if (date) {
+      this.datePattern = DateFormatRegisterer.GLOBAL.getCorrespondingFormat(formatString);
+      this.dateFormat = datePattern == null ? null : new SimpleDateFormat(datePattern);
+      this.codecDateFormat = dateFormat != null && isCodecDateFormat(dateFormat);
+    }
+  }
+
+  /**
+   * @return true if the format is a date format
+   */
+  public boolean isDate() {
+    return date;
+  }
+
+  /**
+   * @return registered date pattern, null if not date format or not registered
+   */
+  public String getDatePattern() {
+    return datePattern;
+  }
+
+  /**
+   * @param value numeric value
+   * @return true if value should be read as date
+   */
+  public boolean isDate(double value) {
+    return date && DateUtil.isValidExcelDate(value);
+  }
+
+  /**
+   * @param value    numeric value
+   * @param date1904 if workbook using 1904 date windowing
+   * @return text
+   */
+  public String format(double value, boolean date1904) {
+    if (isDate(value)) {
+      if (codecDateFormat && dateFormat.getTimeZone().equals(LocaleUtil.getUserTimeZone())) {
+        String text = TextCodec.formatExcelDate(value, date1904, datePattern, dateFormat.getTimeZone());
+        if (text != null) {
+          return text;
+        }
+      }
+      return formatDate(DateUtil.getJavaDate(value, date1904));
+    }
+    return TextCodec.toText(value);
+  }
+
+  /**
+   * @param value date value
+   * @return text or {@link DateFormatRegisterer#ERROR_PATTERN} if format string not registered
+   */
+  public String formatDate(Date value) {
+    if (dateFormat == null) {
+      return DateFormatRegisterer.ERROR_PATTERN;
+    }
+    return dateFormat.format(value);
+  }
+
+  private static boolean isDateFormat(int formatIndex, String formatString) {
+    if (formatString == null || DateUtil.isInternalDateFormat(formatIndex)) {
+      return DateUtil.isADateFormat(formatIndex, formatString);
+    }
+
+    // the format string decides if not built-in date format
+    Boolean date = DATE_FORMAT_STRINGS.get(formatString);
+    if (date == null) {
+      date = DateUtil.isADateFormat(formatIndex, formatString);
+      if (DATE_FORMAT_STRINGS.size() < MAX_SHARED_FORMAT_STRINGS) {
+        DATE_FORMAT_STRINGS.put(formatString, date);
+      }
+    }
+    return date;
+  }
+
+  private boolean isCodecDateFormat(SimpleDateFormat dateFormat) {
+    NumberFormat numberFormat = dateFormat.getNumberFormat();
+    return dateFormat.getCalendar().getClass() == GregorianCalendar.class
+        && numberFormat instanceof DecimalFormat
+        && ((DecimalFormat) numberFormat).getDecimalFormatSymbols().getZeroDigit() == '0';
+  }
+}
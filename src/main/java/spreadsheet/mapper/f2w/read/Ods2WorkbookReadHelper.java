@@ -0,0 +1,96 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import spreadsheet.mapper.model.core.Workbook;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * <pre>
+ * ods (open document spreadsheet) to workbook reader, the content part (content.xml) is streamed by stax,
+ * see {@link OdsContentParser}, so the memory used is proportional to the read {@link Workbook}
+ * even the tables declare millions of repeated empty rows.
+ * the content part of file is read by random access, of input stream is inflated while the zip is read,
+ * of byte buffer is inflated from the buffer.
+ * the tables are in one part, so they are read one by one whatever {@link ReadOptions#getExecutorService()}.
+ * </pre>
+ */
+public class Ods2WorkbookReadHelper extends WorkbookReadHelperAdapter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Ods2WorkbookReadHelper.class);
+
+  private static final String CONTENT_ENTRY = "content.xml";
+
+  @Override
+  protected void read(File file, InputStream inputStream, ByteBuffer byteBuffer, Workbook excelWorkbook,
+                      RowCursorHandler rowCursorHandler, boolean padRows, ReadOptions readOptions) {
+
+    ZipFile zipFile = null;
+    InputStream contentInputStream = null;
+    try {
+
+      if (file != null ? file.length() == 0 : byteBuffer != null ? !byteBuffer.hasRemaining() : inputStream.available() == 0) {
+        return;
+      }
+
+      if (file != null) {
+        zipFile = new ZipFile(file);
+        ZipEntry contentEntry = zipFile.getEntry(CONTENT_ENTRY);
+        contentInputStream = contentEntry == null ? null : zipFile.getInputStream(contentEntry);
+      } else if (byteBuffer != null) {
+        contentInputStream = openContent(new ByteBufferZipEntrySource(byteBuffer));
+      } else {
+        contentInputStream = openContent(new ZipInputStream(inputStream));
+      }
+      if (contentInputStream == null) {
+        throw new ZipException("no " + CONTENT_ENTRY + " in ods");
+      }
+
+      new OdsContentParser(excelWorkbook, rowCursorHandler, padRows, readOptions).parse(contentInputStream);
+
+    } catch (Exception e) {
+      LOGGER.error(ExceptionUtils.getStackTrace(e));
+      throw new WorkbookReadException(e);
+    } finally {
+
+      IOUtils.closeQuietly(contentInputStream);
+      IOUtils.closeQuietly(zipFile);
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
+  private InputStream openContent(ByteBufferZipEntrySource zipEntrySource) throws Exception {
+    Enumeration<? extends ZipEntry> entries = zipEntrySource.getEntries();
+    while (entries.hasMoreElements()) {
+      ZipEntry entry = entries.nextElement();
+      if (CONTENT_ENTRY.equals(entry.getName())) {
+        return zipEntrySource.getInputStream(entry);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the zip input stream positioned at content entry, null if not found
+   */
+  private InputStream openContent(ZipInputStream zipInputStream) throws Exception {
+    ZipEntry entry;
+    while ((entry = zipInputStream.getNextEntry()) != null) {
+      if (CONTENT_ENTRY.equals(entry.getName())) {
+        return zipInputStream;
+      }
+    }
+    zipInputStream.close();
+    return null;
+  }
+}
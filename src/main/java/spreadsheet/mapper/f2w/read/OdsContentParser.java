@@ -0,0 +1,424 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.poi.util.StaxHelper;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.core.Workbook;
+import spreadsheet.mapper.utils.TextCodec;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <pre>
+ * stax parser of ods content part (content.xml), all tables of the spreadsheet are in it,
+ * the requested tables are read as sheets and assembled into rows by {@link SheetAssembler}, the others are skipped.
+ * repeated rows and cells (table:number-rows-repeated, table:number-columns-repeated) are expanded lazily:
+ * 1. empty repeated cells only move the column number, empty repeated rows only move the row number,
+ * so the trailing empty rows and cells (usually repeated to the sheet end) are never pushed.
+ * 2. a row with values is kept as runs of same value, and pushed once for each repeated row,
+ * so no cell is allocated for the repeats.
+ * cell value read:
+ * 1. float, percentage and currency are the number value, same as the number of {@link Excel2WorkbookReadHelper}.
+ * 2. date is yyyy-MM-dd, or yyyy-MM-dd HH:mm:ss if it has time, the date format of style is not read.
+ * 3. time is HH:mm:ss of the duration value.
+ * 4. boolean is true or false.
+ * 5. string and others are the text of paragraphs joined by line feed, annotations not included.
+ * blank value is read as null like other readers.
+ * if {@link ReadOptions#isFillMergedRegions()}, the anchor value of spanned cell is filled to its covered cells.
+ * </pre>
+ */
+public class OdsContentParser {
+
+  private static final String TABLE_NAMESPACE = "urn:oasis:names:tc:opendocument:xmlns:table:1.0";
+
+  private static final String OFFICE_NAMESPACE = "urn:oasis:names:tc:opendocument:xmlns:office:1.0";
+
+  private static final String TEXT_NAMESPACE = "urn:oasis:names:tc:opendocument:xmlns:text:1.0";
+
+  private Workbook workbook;
+
+  private RowCursorHandler rowCursorHandler;
+
+  private boolean padRows;
+
+  private ReadOptions readOptions;
+
+  private XMLStreamReader reader;
+
+  private StringBuilder buffer = new StringBuilder(64);
+
+  /*===============
+    table state
+   ================*/
+  private SheetAssembler sheetAssembler;
+
+  // 0-based number of next row
+  private int rowNum;
+
+  // runs of cells with value in current row
+  private int runSize;
+
+  private int[] runFirstCols = new int[16];
+
+  private int[] runColCounts = new int[16];
+
+  private String[] runValues = new String[16];
+
+  // spanned cells whose covered cells are being filled
+  private List<SpannedCell> spannedCells = new ArrayList<>();
+
+  /**
+   * @param workbook         the requested tables are added to as sheets
+   * @param rowCursorHandler {@link RowCursorHandler}
+   * @param padRows          see {@link SheetAssembler}
+   * @param readOptions      {@link ReadOptions}
+   */
+  public OdsContentParser(Workbook workbook, RowCursorHandler rowCursorHandler, boolean padRows, ReadOptions readOptions) {
+    this.workbook = workbook;
+    this.rowCursorHandler = rowCursorHandler;
+    this.padRows = padRows;
+    this.readOptions = readOptions;
+  }
+
+  /**
+   * @param inputStream content part, not closed
+   * @throws XMLStreamException not well formed
+   */
+  public void parse(InputStream inputStream) throws XMLStreamException {
+    reader = StaxHelper.newXMLInputFactory().createXMLStreamReader(inputStream);
+    try {
+      int tableIndex = 0;
+      while (reader.hasNext()) {
+        if (reader.next() == XMLStreamConstants.START_ELEMENT && isElement(TABLE_NAMESPACE, "table")) {
+
+          tableIndex++;
+          String tableName = reader.getAttributeValue(TABLE_NAMESPACE, "name");
+          if (readOptions.isSheetRequested(tableIndex, tableName)) {
+            parseTable(readOptions.createSheet(tableName));
+          } else {
+            skipElement();
+          }
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  private void parseTable(Sheet sheet) throws XMLStreamException {
+    workbook.addSheet(sheet);
+    sheetAssembler = new SheetAssembler(sheet, rowCursorHandler, padRows, readOptions);
+    rowNum = 0;
+    spannedCells.clear();
+
+    sheetAssembler.startSheet();
+    // the rows can be in header rows, row groups and rows elements
+    int depth = 1;
+    while (depth > 0 && !sheetAssembler.isFinished()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        if (isElement(TABLE_NAMESPACE, "table-row")) {
+          parseRow();
+        } else if (isElement(TABLE_NAMESPACE, "table-row-group") || isElement(TABLE_NAMESPACE, "table-header-rows")
+            || isElement(TABLE_NAMESPACE, "table-rows")) {
+          depth++;
+        } else {
+          skipElement();
+        }
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+    if (depth > 0) {
+      // max rows reached
+      skipElements(depth);
+    }
+    sheetAssembler.endSheet();
+  }
+
+  private void parseRow() throws XMLStreamException {
+    int rowsRepeated = getRepeated("number-rows-repeated");
+    runSize = 0;
+
+    int colNum = 0;
+    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+      boolean covered = isElement(TABLE_NAMESPACE, "covered-table-cell");
+      if (!covered && !isElement(TABLE_NAMESPACE, "table-cell")) {
+        skipElement();
+        continue;
+      }
+
+      int colsRepeated = getRepeated("number-columns-repeated");
+      int colsSpanned = getRepeated("number-columns-spanned");
+      int rowsSpanned = getRepeated("number-rows-spanned");
+      String value = parseCellValue();
+
+      if (readOptions.isFillMergedRegions()) {
+        if (covered && value == null) {
+          value = getSpannedValue(colNum);
+        } else if (value != null && (colsSpanned > 1 || rowsSpanned > 1)) {
+          spannedCells.add(new SpannedCell(rowNum + rowsSpanned - 1, colNum, colNum + colsSpanned - 1, value));
+        }
+      }
+      if (value != null) {
+        addRun(colNum, colsRepeated, value);
+      }
+      colNum = (int) Math.min((long) colNum + colsRepeated, Integer.MAX_VALUE);
+    }
+
+    if (runSize > 0) {
+      pushRows(rowsRepeated);
+    }
+    rowNum = (int) Math.min((long) rowNum + rowsRepeated, Integer.MAX_VALUE);
+
+    if (!spannedCells.isEmpty()) {
+      removeEndedSpannedCells();
+    }
+  }
+
+  private void pushRows(int rowsRepeated) {
+    for (int i = 0; i < rowsRepeated && !sheetAssembler.isFinished(); i++) {
+      sheetAssembler.startRow(rowNum + i);
+      for (int run = 0; run < runSize; run++) {
+        int lastCol = runFirstCols[run] + runColCounts[run];
+        for (int col = runFirstCols[run]; col < lastCol; col++) {
+          if (sheetAssembler.isColumnRequested(col)) {
+            sheetAssembler.cell(col, runValues[run]);
+          }
+        }
+      }
+      sheetAssembler.endRow();
+    }
+  }
+
+  private void addRun(int firstCol, int colCount, String value) {
+    if (runSize == runFirstCols.length) {
+      runFirstCols = Arrays.copyOf(runFirstCols, runSize * 2);
+      runColCounts = Arrays.copyOf(runColCounts, runSize * 2);
+      runValues = Arrays.copyOf(runValues, runSize * 2);
+    }
+    runFirstCols[runSize] = firstCol;
+    runColCounts[runSize] = colCount;
+    runValues[runSize] = value;
+    runSize++;
+  }
+
+  /**
+   * reader at start of cell, moved to end of cell
+   *
+   * @return value of cell, null if blank
+   */
+  private String parseCellValue() throws XMLStreamException {
+    String valueType = reader.getAttributeValue(OFFICE_NAMESPACE, "value-type");
+    String value = null;
+    if ("float".equals(valueType) || "percentage".equals(valueType) || "currency".equals(valueType)) {
+      String number = reader.getAttributeValue(OFFICE_NAMESPACE, "value");
+      value = number == null ? null : TextCodec.toText(Double.parseDouble(number));
+    } else if ("date".equals(valueType)) {
+      value = toDateText(reader.getAttributeValue(OFFICE_NAMESPACE, "date-value"));
+    } else if ("time".equals(valueType)) {
+      value = toTimeText(reader.getAttributeValue(OFFICE_NAMESPACE, "time-value"));
+    } else if ("boolean".equals(valueType)) {
+      String bool = reader.getAttributeValue(OFFICE_NAMESPACE, "boolean-value");
+      value = bool == null ? null : CellValueUtils.toBooleanText(Boolean.parseBoolean(bool));
+    } else if ("string".equals(valueType)) {
+      value = reader.getAttributeValue(OFFICE_NAMESPACE, "string-value");
+    }
+
+    if (value != null) {
+      skipElement();
+      return CellValueUtils.toStringText(value);
+    }
+    return CellValueUtils.toStringText(parseText());
+  }
+
+  /**
+   * reader at start of cell, moved to end of cell
+   *
+   * @return text of paragraphs joined by line feed
+   */
+  private String parseText() throws XMLStreamException {
+    buffer.setLength(0);
+    int paragraphs = 0;
+    int paragraphDepth = 0;
+    int depth = 1;
+    while (depth > 0) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+
+        if (isElement(OFFICE_NAMESPACE, "annotation")) {
+          skipElement();
+          continue;
+        }
+        depth++;
+        if (paragraphDepth > 0) {
+          paragraphDepth++;
+          appendTextElement();
+        } else if (isElement(TEXT_NAMESPACE, "p") || isElement(TEXT_NAMESPACE, "h")) {
+          if (paragraphs++ > 0) {
+            buffer.append('\n');
+          }
+          paragraphDepth = 1;
+        }
+
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+        if (paragraphDepth > 0) {
+          paragraphDepth--;
+        }
+      } else if (paragraphDepth > 0 && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+          || event == XMLStreamConstants.SPACE)) {
+        buffer.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+      }
+    }
+    return paragraphs == 0 ? null : buffer.toString();
+  }
+
+  /**
+   * the white space elements in paragraph, the other elements (like span) only hold text
+   */
+  private void appendTextElement() {
+    if (!TEXT_NAMESPACE.equals(reader.getNamespaceURI())) {
+      return;
+    }
+    String localName = reader.getLocalName();
+    if ("s".equals(localName)) {
+      String count = reader.getAttributeValue(TEXT_NAMESPACE, "c");
+      for (int i = count == null ? 1 : Integer.parseInt(count); i > 0; i--) {
+        buffer.append(' ');
+      }
+    } else if ("tab".equals(localName)) {
+      buffer.append('\t');
+    } else if ("line-break".equals(localName)) {
+      buffer.append('\n');
+    }
+  }
+
+  /**
+   * @param dateValue like 2017-03-22 or 2017-03-22T10:11:12.5
+   * @return yyyy-MM-dd or yyyy-MM-dd HH:mm:ss
+   */
+  private String toDateText(String dateValue) {
+    if (dateValue == null) {
+      return null;
+    }
+    int timeStart = dateValue.indexOf('T');
+    if (timeStart < 0) {
+      return dateValue;
+    }
+    // seconds fraction and time zone dropped
+    int timeEnd = Math.min(dateValue.length(), timeStart + 9);
+    return dateValue.substring(0, timeStart) + ' ' + dateValue.substring(timeStart + 1, timeEnd);
+  }
+
+  /**
+   * @param timeValue duration like PT10H11M12S, hours can be more than 24
+   * @return HH:mm:ss, the value if not a duration of hours, minutes and seconds
+   */
+  private String toTimeText(String timeValue) {
+    if (timeValue == null || !timeValue.startsWith("PT")) {
+      return timeValue;
+    }
+
+    long[] fields = new long[3];
+    int start = 2;
+    for (int i = 2; i < timeValue.length(); i++) {
+      char c = timeValue.charAt(i);
+      int field = c == 'H' ? 0 : c == 'M' ? 1 : c == 'S' ? 2 : -1;
+      if (field < 0) {
+        continue;
+      }
+      String number = timeValue.substring(start, i);
+      int fraction = number.indexOf('.');
+      try {
+        fields[field] = Long.parseLong(fraction < 0 ? number : number.substring(0, fraction));
+      } catch (NumberFormatException e) {
+        return timeValue;
+      }
+      start = i + 1;
+    }
+
+    buffer.setLength(0);
+    appendTwoDigits(fields[0]).append(':');
+    appendTwoDigits(fields[1]).append(':');
+    appendTwoDigits(fields[2]);
+    return buffer.toString();
+  }
+
+  private StringBuilder appendTwoDigits(long value) {
+    if (value < 10) {
+      buffer.append('0');
+    }
+    return buffer.append(value);
+  }
+
+  private String getSpannedValue(int colNum) {
+    for (SpannedCell spannedCell : spannedCells) {
+      if (spannedCell.firstCol <= colNum && colNum <= spannedCell.lastCol) {
+        return spannedCell.value;
+      }
+    }
+    return null;
+  }
+
+  private void removeEndedSpannedCells() {
+    for (int i = spannedCells.size() - 1; i >= 0; i--) {
+      if (spannedCells.get(i).lastRow < rowNum) {
+        spannedCells.remove(i);
+      }
+    }
+  }
+
+  private int getRepeated(String attributeName) {
+    String repeated = reader.getAttributeValue(TABLE_NAMESPACE, attributeName);
+    return repeated == null ? 1 : Math.max(1, Integer.parseInt(repeated));
+  }
+
+  private boolean isElement(String namespace, String localName) {
+    return localName.equals(reader.getLocalName()) && namespace.equals(reader.getNamespaceURI());
+  }
+
+  /**
+   * reader at start of element, moved to end of element
+   */
+  private void skipElement() throws XMLStreamException {
+    skipElements(1);
+  }
+
+  private void skipElements(int depth) throws XMLStreamException {
+    while (depth > 0) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
+
+  /**
+   * a cell spans rows or columns, its covered cells are after it in document order
+   */
+  private static class SpannedCell {
+
+    private int lastRow;
+
+    private int firstCol;
+
+    private int lastCol;
+
+    private String value;
+
+    private SpannedCell(int lastRow, int firstCol, int lastCol, String value) {
+      this.lastRow = lastRow;
+      this.firstCol = firstCol;
+      this.lastCol = lastCol;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+
+/**
+ * all strings held in heap by {@link ReadOnlySharedStringsTable}
+ */
+public class ReadOnlySharedStrings implements SharedStrings {
+
+  private ReadOnlySharedStringsTable sharedStringsTable;
+
+  public ReadOnlySharedStrings(ReadOnlySharedStringsTable sharedStringsTable) {
+    this.sharedStringsTable = sharedStringsTable;
+  }
+
+  @Override
+  public int getCount() {
+    return sharedStringsTable.getItems().size();
+  }
+
+  @Override
+  public String getEntryAt(int index) {
+    return sharedStringsTable.getEntryAt(index);
+  }
+}
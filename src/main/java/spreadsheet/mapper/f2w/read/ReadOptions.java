@@ -0,0 +1,334 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.lang3.StringUtils;
+import spreadsheet.mapper.model.core.ColumnarSheet;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.core.SheetBean;
+import spreadsheet.mapper.model.meta.FieldMeta;
+import spreadsheet.mapper.model.meta.SheetMeta;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * <pre>
+ * options of {@link WorkbookReadHelperAdapter}.
+ * sheets: only the sheets matched by name or index (1-based, the position in file) are read,
+ * the others are skipped and not added to read workbook, read all sheets if none supplied.
+ * columns: only the cell values of supplied columns (1-based) are read, read all columns if none supplied.
+ * the other cells of data rows are read as empty cells and the cells after the last supplied column are dropped,
+ * so the column index of read cells are same as in file. header rows are always read intact.
+ * executorService: sheets of xlsx are parsed concurrently on it when read to {@link spreadsheet.mapper.model.core.Workbook},
+ * the workbook is assembled in sheet order, the executor service is not shutdown after read.
+ * mapSharedStrings: xlsx shared strings are kept in memory mapped temp files instead of heap, see {@link MappedSharedStrings}.
+ * usedRange: the sheet extent is detected from cell values instead of the rows and cells exist in file,
+ * so rows and cells only have style (formatted to the end of sheet) are not read and trailing empty rows are dropped,
+ * the column size declared in file (dimension) is ignored, so the rows pushed to handler are padded to the used column size of rows before.
+ * the empty rows between rows with value are kept.
+ * startRow, maxRows: of every sheet only the rows from start row (1-based, the row index in file) are read,
+ * and the sheet parsing stops once max rows read, used to preview or read by page (next start row is last read row index + 1).
+ * the cell values of rows not read are not resolved. the rows pushed to handler and the rows collected to
+ * {@link spreadsheet.mapper.model.core.Workbook} keep their index in file, the collected sheet begins at start row
+ * (see {@link SheetBean#getFirstRowIndex()}), so a page is processed and validated by the sheet meta of template as a full read.
+ * valueDictionary: equal cell values of one column share one string instance, until the column distinct values exceed the cap,
+ * see {@link ColumnValueDictionary}, 0 is disabled.
+ * the value of not requested columns is not read, so they are not counted in used range.
+ * columnarSheets: the sheets read are {@link ColumnarSheet}, values are stored column by column instead of row and cell objects,
+ * used to keep large workbook in memory.
+ * fillMergedRegions: the value of merged region (the value of top left cell) is read as the value of every cell of region,
+ * instead of null of the other cells, see {@link MergedRegionIndex}. the merged regions are declared after cells in xlsx, xls and xlsb,
+ * so the sheet is scanned once more for them before read.
+ * formula cells are read as the cached result stored in file (the value when the file last calculated and saved).
+ * evaluateFormulas: formulas are evaluated by one {@link org.apache.poi.ss.usermodel.FormulaEvaluator} shared by the sheets of workbook,
+ * the formulas can not be evaluated are read as cached result. only {@link Excel2WorkbookReadHelper} evaluates,
+ * the streaming readers always read cached result.
+ * </pre>
+ */
+public class ReadOptions {
+
+  private Set<String> sheetNames = new HashSet<>();
+
+  private Set<Integer> sheetIndexes = new HashSet<>();
+
+  private Set<Integer> columnIndexes = new HashSet<>();
+
+  // requested flag by column index, checked for every cell
+  private boolean[] requestedColumns = new boolean[0];
+
+  private int maxColumnIndex;
+
+  private int headerRowCount;
+
+  private boolean mapSharedStrings;
+
+  private ExecutorService executorService;
+
+  private boolean usedRange;
+
+  private int startRow = 1;
+
+  // 0 is no limit
+  private int maxRows;
+
+  // 0 is disabled
+  private int valueDictionaryCap;
+
+  private boolean columnarSheets;
+
+  private boolean fillMergedRegions;
+
+  private boolean evaluateFormulas;
+
+  public Set<String> getSheetNames() {
+    return sheetNames;
+  }
+
+  public Set<Integer> getSheetIndexes() {
+    return sheetIndexes;
+  }
+
+  public Set<Integer> getColumnIndexes() {
+    return columnIndexes;
+  }
+
+  public int getHeaderRowCount() {
+    return headerRowCount;
+  }
+
+  public boolean isMapSharedStrings() {
+    return mapSharedStrings;
+  }
+
+  public ExecutorService getExecutorService() {
+    return executorService;
+  }
+
+  public boolean isUsedRange() {
+    return usedRange;
+  }
+
+  public int getStartRow() {
+    return startRow;
+  }
+
+  public int getMaxRows() {
+    return maxRows;
+  }
+
+  public int getValueDictionaryCap() {
+    return valueDictionaryCap;
+  }
+
+  public boolean isColumnarSheets() {
+    return columnarSheets;
+  }
+
+  public boolean isFillMergedRegions() {
+    return fillMergedRegions;
+  }
+
+  public boolean isEvaluateFormulas() {
+    return evaluateFormulas;
+  }
+
+  /**
+   * @return copy of options, changes of copy do not change this
+   */
+  public ReadOptions copy() {
+    ReadOptions copy = new ReadOptions();
+    copy.sheetNames.addAll(sheetNames);
+    copy.sheetIndexes.addAll(sheetIndexes);
+    copy.columnIndexes.addAll(columnIndexes);
+    copy.requestedColumns = requestedColumns.clone();
+    copy.maxColumnIndex = maxColumnIndex;
+    copy.headerRowCount = headerRowCount;
+    copy.mapSharedStrings = mapSharedStrings;
+    copy.executorService = executorService;
+    copy.usedRange = usedRange;
+    copy.startRow = startRow;
+    copy.maxRows = maxRows;
+    copy.valueDictionaryCap = valueDictionaryCap;
+    copy.columnarSheets = columnarSheets;
+    copy.fillMergedRegions = fillMergedRegions;
+    copy.evaluateFormulas = evaluateFormulas;
+    return copy;
+  }
+
+  public ReadOptions sheets(String... sheetNames) {
+    if (sheetNames == null) {
+      return this;
+    }
+    Collections.addAll(this.sheetNames, sheetNames);
+    return this;
+  }
+
+  public ReadOptions sheets(Integer... sheetIndexes) {
+    if (sheetIndexes == null) {
+      return this;
+    }
+    Collections.addAll(this.sheetIndexes, sheetIndexes);
+    return this;
+  }
+
+  public ReadOptions columns(Integer... columnIndexes) {
+    if (columnIndexes == null) {
+      return this;
+    }
+    for (Integer columnIndex : columnIndexes) {
+      if (columnIndex == null || columnIndex < 1) {
+        throw new IllegalArgumentException("column index must be greater than 0");
+      }
+      this.columnIndexes.add(columnIndex);
+      maxColumnIndex = Math.max(maxColumnIndex, columnIndex);
+
+      if (columnIndex >= requestedColumns.length) {
+        requestedColumns = Arrays.copyOf(requestedColumns, columnIndex + 1);
+      }
+      requestedColumns[columnIndex] = true;
+    }
+    return this;
+  }
+
+  /**
+   * read columns of field metas, the rows before data start row are header rows
+   *
+   * @param sheetMeta {@link SheetMeta}
+   * @return {@link ReadOptions}
+   */
+  public ReadOptions columns(SheetMeta sheetMeta) {
+    if (sheetMeta == null) {
+      return this;
+    }
+    for (FieldMeta fieldMeta : sheetMeta.getFieldMetas()) {
+      columns(fieldMeta.getColumnIndex());
+    }
+    return headerRows(Math.max(headerRowCount, sheetMeta.getDataStartRowIndex() - 1));
+  }
+
+  /**
+   * @param headerRowCount the first rows count which are read intact
+   * @return {@link ReadOptions}
+   */
+  public ReadOptions headerRows(int headerRowCount) {
+    if (headerRowCount < 0) {
+      throw new IllegalArgumentException("header row count can not be negative");
+    }
+    this.headerRowCount = headerRowCount;
+    return this;
+  }
+
+  public ReadOptions mapSharedStrings(boolean mapSharedStrings) {
+    this.mapSharedStrings = mapSharedStrings;
+    return this;
+  }
+
+  public ReadOptions executorService(ExecutorService executorService) {
+    this.executorService = executorService;
+    return this;
+  }
+
+  public ReadOptions usedRange(boolean usedRange) {
+    this.usedRange = usedRange;
+    return this;
+  }
+
+  /**
+   * @param startRow 1-based row index in file, the rows before it are skipped
+   * @return {@link ReadOptions}
+   */
+  public ReadOptions startRow(int startRow) {
+    if (startRow < 1) {
+      throw new IllegalArgumentException("start row must be greater than 0");
+    }
+    this.startRow = startRow;
+    return this;
+  }
+
+  /**
+   * @param maxRows max rows read of every sheet, 0 is no limit
+   * @return {@link ReadOptions}
+   */
+  public ReadOptions maxRows(int maxRows) {
+    if (maxRows < 0) {
+      throw new IllegalArgumentException("max rows can not be negative");
+    }
+    this.maxRows = maxRows;
+    return this;
+  }
+
+  /**
+   * @param cardinalityCap max distinct values of one column kept in dictionary, 0 is disabled
+   * @return {@link ReadOptions}
+   */
+  public ReadOptions valueDictionary(int cardinalityCap) {
+    if (cardinalityCap < 0) {
+      throw new IllegalArgumentException("cardinality cap can not be negative");
+    }
+    this.valueDictionaryCap = cardinalityCap;
+    return this;
+  }
+
+  public ReadOptions columnarSheets(boolean columnarSheets) {
+    this.columnarSheets = columnarSheets;
+    return this;
+  }
+
+  public ReadOptions fillMergedRegions(boolean fillMergedRegions) {
+    this.fillMergedRegions = fillMergedRegions;
+    return this;
+  }
+
+  public ReadOptions evaluateFormulas(boolean evaluateFormulas) {
+    this.evaluateFormulas = evaluateFormulas;
+    return this;
+  }
+
+  /**
+   * @param rowIndex    1-based
+   * @param columnIndex 1-based
+   * @return true if the cell value should be read
+   */
+  public boolean isColumnRequested(int rowIndex, int columnIndex) {
+    if (columnIndexes.isEmpty() || rowIndex <= headerRowCount) {
+      return true;
+    }
+    return columnIndex < requestedColumns.length && requestedColumns[columnIndex];
+  }
+
+  /**
+   * @param rowIndex   1-based
+   * @param columnSize cells size of row in file
+   * @return cells size of row read
+   */
+  public int getColumnSize(int rowIndex, int columnSize) {
+    if (columnIndexes.isEmpty() || rowIndex <= headerRowCount) {
+      return columnSize;
+    }
+    return Math.min(columnSize, maxColumnIndex);
+  }
+
+  /**
+   * @param sheetIndex 1-based position of sheet in file
+   * @param sheetName  sheet name in file
+   * @return true if the sheet should be read
+   */
+  public boolean isSheetRequested(int sheetIndex, String sheetName) {
+    if (sheetNames.isEmpty() && sheetIndexes.isEmpty()) {
+      return true;
+    }
+    return sheetIndexes.contains(sheetIndex) || (sheetName != null && sheetNames.contains(sheetName));
+  }
+
+  /**
+   * @param sheetName sheet name in file, blank is no name
+   * @return sheet to read into, its first row index is start row
+   */
+  public Sheet createSheet(String sheetName) {
+    String name = StringUtils.isBlank(sheetName) ? null : sheetName;
+    // the rows are pushed from start row, so the collected rows keep their index in file
+    return columnarSheets ? new ColumnarSheet(name, startRow) : new SheetBean(name, startRow);
+  }
+}
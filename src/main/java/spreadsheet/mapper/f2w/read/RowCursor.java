@@ -0,0 +1,44 @@
+package spreadsheet.mapper.f2w.read;
+
+import spreadsheet.mapper.model.core.Row;
+import spreadsheet.mapper.model.core.Sheet;
+
+/**
+ * <pre>
+ * flyweight of row, one cursor instance (and its cell value slots) is reused for all rows of a read,
+ * so it is only valid inside {@link RowCursorHandler#onRow(RowCursor)},
+ * copy out the values needed or use {@link #toRow()} if need keep the row.
+ * </pre>
+ */
+public interface RowCursor {
+
+  /**
+   * @return the sheet of current row
+   */
+  Sheet getSheet();
+
+  /**
+   * @return current row index 1-based
+   */
+  int getIndex();
+
+  /**
+   * @return cells size of current row
+   */
+  int sizeOfCells();
+
+  /**
+   * get cell value by column index
+   *
+   * @param columnIndex 1-based
+   * @return cell value
+   */
+  String getValue(int columnIndex);
+
+  /**
+   * copy current row to a new {@link Row}, the sheet not hold the row
+   *
+   * @return {@link Row}
+   */
+  Row toRow();
+}
@@ -0,0 +1,95 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import spreadsheet.mapper.model.core.CellBean;
+import spreadsheet.mapper.model.core.Row;
+import spreadsheet.mapper.model.core.RowBean;
+import spreadsheet.mapper.model.core.Sheet;
+
+import java.util.Arrays;
+
+public class RowCursorBean implements RowCursor {
+
+  private Sheet sheet;
+
+  private int index;
+
+  private String[] values = new String[16];
+
+  // cells size has value (include empty value)
+  private int size;
+
+  private int paddedSize;
+
+  @Override
+  public Sheet getSheet() {
+    return sheet;
+  }
+
+  @Override
+  public int getIndex() {
+    return index;
+  }
+
+  @Override
+  public int sizeOfCells() {
+    return Math.max(size, paddedSize);
+  }
+
+  @Override
+  public String getValue(int columnIndex) {
+    if (columnIndex < 1 || columnIndex > sizeOfCells()) {
+      throw new IllegalArgumentException("column index out of bounds");
+    }
+    return columnIndex > size ? null : values[columnIndex - 1];
+  }
+
+  @Override
+  public Row toRow() {
+    Row row = new RowBean(sheet, index);
+    for (int i = 1; i <= sizeOfCells(); i++) {
+      row.addCell(new CellBean(getValue(i)));
+    }
+    return row;
+  }
+
+  @Override
+  public String toString() {
+    return new ToStringBuilder(this)
+        .append("index", index)
+        .toString();
+  }
+
+  /**
+   * reset cursor to a new row
+   *
+   * @param sheet the sheet of row
+   * @param index 1-based
+   */
+  void reset(Sheet sheet, int index) {
+    Arrays.fill(values, 0, size, null);
+    this.sheet = sheet;
+    this.index = index;
+    this.size = 0;
+    this.paddedSize = 0;
+  }
+
+  /**
+   * @param colNum 0-based
+   * @param value  cell value
+   */
+  void setValue(int colNum, String value) {
+    if (colNum >= values.length) {
+      values = Arrays.copyOf(values, Math.max(values.length * 2, colNum + 1));
+    }
+    values[colNum] = value;
+    size = Math.max(size, colNum + 1);
+  }
+
+  /**
+   * @param paddedSize pad cells size of row to
+   */
+  void setPaddedSize(int paddedSize) {
+    this.paddedSize = paddedSize;
+  }
+}
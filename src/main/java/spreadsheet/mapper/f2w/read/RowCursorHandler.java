@@ -0,0 +1,36 @@
+package spreadsheet.mapper.f2w.read;
+
+import spreadsheet.mapper.model.core.Sheet;
+
+/**
+ * <pre>
+ * handler of rows read one by one through a reused {@link RowCursor},
+ * no row and cell objects are created when reading, consumers copy out only what they need.
+ * </pre>
+ */
+public interface RowCursorHandler {
+
+  /**
+   * before first row of the sheet
+   *
+   * @param sheet {@link Sheet} without rows
+   */
+  void onSheetStart(Sheet sheet);
+
+  /**
+   * <pre>
+   * one row parsed, missing rows (not exists in file) are pushed as empty rows.
+   * the cursor is reused after this method return.
+   * </pre>
+   *
+   * @param rowCursor {@link RowCursor}
+   */
+  void onRow(RowCursor rowCursor);
+
+  /**
+   * after last row of the sheet
+   *
+   * @param sheet {@link Sheet} without rows
+   */
+  void onSheetEnd(Sheet sheet);
+}
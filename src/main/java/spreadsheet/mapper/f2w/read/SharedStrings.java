@@ -0,0 +1,18 @@
+package spreadsheet.mapper.f2w.read;
+
+/**
+ * shared strings table of xlsx (xl/sharedStrings.xml), used by xlsx event read path
+ */
+public interface SharedStrings {
+
+  /**
+   * @return count of unique strings
+   */
+  int getCount();
+
+  /**
+   * @param index 0-based, the value of cell with type s
+   * @return string at index
+   */
+  String getEntryAt(int index);
+}
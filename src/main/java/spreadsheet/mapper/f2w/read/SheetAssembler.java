@@ -0,0 +1,318 @@
+package spreadsheet.mapper.f2w.read;
+
+import spreadsheet.mapper.model.core.Sheet;
+
+import java.util.Arrays;
+
+/**
+ * <pre>
+ * assemble parsed cell values into a reused {@link RowCursor} and push it to {@link RowCursorHandler}, used by read helpers.
+ * missing rows and missing cells (not exists in file) are filled with empty row and empty cell.
+ * cell values of columns not requested by {@link ReadOptions} are dropped.
+ * if {@link ReadOptions#isUsedRange()} the rows without value are held until a row with value comes,
+ * so trailing empty rows are never pushed, and the column size only counts the cells with value.
+ * the rows out of {@link ReadOptions#getStartRow()} and {@link ReadOptions#getMaxRows()} are not pushed,
+ * parsers check {@link #isFinished()} to stop parsing.
+ * cell values are canonicalized by {@link ColumnValueDictionary} if {@link ReadOptions#getValueDictionaryCap()} set.
+ * if {@link ReadOptions#isFillMergedRegions()} and {@link #mergedRegions(MergedRegionIndex)} supplied,
+ * the anchor (top left) value of merged region is filled to the other cells of region when the row pushed,
+ * the anchor values are always read even the anchor cell is not requested, and the rows of region after the last row in file are pushed.
+ * </pre>
+ */
+public class SheetAssembler {
+
+  private Sheet sheet;
+
+  private RowCursorHandler rowCursorHandler;
+
+  private boolean padRows;
+
+  private ReadOptions readOptions;
+
+  private RowCursorBean rowCursor = new RowCursorBean();
+
+  // used to push the held empty rows without touching the current row
+  private RowCursorBean emptyRowCursor = new RowCursorBean();
+
+  private boolean rowOpen;
+
+  private boolean rowHasValue;
+
+  // 1-based index of last pushed (or skipped) row
+  private int pushedRowIndex;
+
+  private int readRowCount;
+
+  private ColumnValueDictionary columnValueDictionary;
+
+  /*===============
+    merged regions
+   ================*/
+  private MergedRegionIndex mergedRegionIndex;
+
+  // by region id
+  private String[] anchorValues;
+
+  // regions before it are activated, the region ids are in first row order
+  private int nextRegion;
+
+  // regions cross the rows pushed
+  private int[] activeRegions;
+
+  private int activeRegionSize;
+
+  private int lastRowNum = -1;
+
+  private int maxColNum;
+
+  /**
+   * @param sheet            the sheet of rows
+   * @param rowCursorHandler {@link RowCursorHandler}
+   * @param padRows          true pad pushed rows to the column size declared in file (if has) or max column size of rows before
+   * @param readOptions      {@link ReadOptions}
+   */
+  public SheetAssembler(Sheet sheet, RowCursorHandler rowCursorHandler, boolean padRows, ReadOptions readOptions) {
+    this.sheet = sheet;
+    this.rowCursorHandler = rowCursorHandler;
+    this.padRows = padRows;
+    this.readOptions = readOptions;
+    if (readOptions.getValueDictionaryCap() > 0) {
+      this.columnValueDictionary = new ColumnValueDictionary(readOptions.getValueDictionaryCap());
+    }
+  }
+
+  /**
+   * start the sheet
+   */
+  public void startSheet() {
+    rowCursorHandler.onSheetStart(sheet);
+  }
+
+  /**
+   * supply merged regions of sheet before the first row, ignored if not {@link ReadOptions#isFillMergedRegions()}
+   *
+   * @param mergedRegionIndex {@link MergedRegionIndex}
+   */
+  public void mergedRegions(MergedRegionIndex mergedRegionIndex) {
+    if (!readOptions.isFillMergedRegions() || mergedRegionIndex.size() == 0) {
+      return;
+    }
+    this.mergedRegionIndex = mergedRegionIndex;
+    this.anchorValues = new String[mergedRegionIndex.size()];
+    this.activeRegions = new int[16];
+  }
+
+  /**
+   * column size declared in file, like xlsx dimension
+   *
+   * @param colNum column size
+   */
+  public void dimension(int colNum) {
+    if (readOptions.isUsedRange()) {
+      return;
+    }
+    maxColNum = Math.max(maxColNum, colNum);
+  }
+
+  /**
+   * start a new row, the rows between last row and this row will be pushed as empty rows
+   *
+   * @param rowNum 0-based row number in file
+   */
+  public void startRow(int rowNum) {
+    if (rowOpen) {
+      endRow();
+    }
+
+    int index = Math.max(rowNum, lastRowNum + 1);
+    while (lastRowNum + 1 < index) {
+      lastRowNum++;
+      rowCursor.reset(sheet, lastRowNum + 1);
+      rowHasValue = false;
+      pushRow();
+    }
+
+    rowHasValue = false;
+    lastRowNum = index;
+    rowCursor.reset(sheet, index + 1);
+    rowOpen = true;
+  }
+
+  /**
+   * parsers check this before resolve cell value, the value of not requested column is dropped
+   *
+   * @param colNum 0-based column number in file
+   * @return true if the cell value of current row at column is requested
+   */
+  public boolean isColumnRequested(int colNum) {
+    return isCellRead(colNum) || (mergedRegionIndex != null && mergedRegionIndex.isAnchor(lastRowNum, colNum));
+  }
+
+  /**
+   * @return true if max rows of {@link ReadOptions} read, the rest of sheet need not be parsed
+   */
+  public boolean isFinished() {
+    return readOptions.getMaxRows() > 0 && readRowCount >= readOptions.getMaxRows();
+  }
+
+  /**
+   * add cell value to current row
+   *
+   * @param colNum 0-based column number in file
+   * @param value  cell value
+   */
+  public void cell(int colNum, String value) {
+    if (!rowOpen) {
+      throw new WorkbookReadException("cell at column[" + colNum + "] out of row");
+    }
+
+    if (!readOptions.isUsedRange()) {
+      maxColNum = Math.max(maxColNum, colNum + 1);
+    }
+    if (value != null) {
+      value = columnValueDictionary == null ? value : columnValueDictionary.canonicalize(colNum, value);
+      if (mergedRegionIndex != null) {
+        keepAnchorValue(colNum, value);
+      }
+    }
+    if (!isCellRead(colNum)) {
+      return;
+    }
+
+    if (value != null) {
+      rowCursor.setValue(colNum, value);
+      maxColNum = Math.max(maxColNum, colNum + 1);
+      rowHasValue = true;
+    } else if (!readOptions.isUsedRange()) {
+      // empty cell counts in row size, but not in used range
+      rowCursor.setValue(colNum, null);
+    }
+  }
+
+  /**
+   * end current row and push it
+   */
+  public void endRow() {
+    if (!rowOpen) {
+      return;
+    }
+
+    pushRow();
+    rowOpen = false;
+  }
+
+  /**
+   * end the sheet
+   */
+  public void endSheet() {
+    endRow();
+
+    if (mergedRegionIndex != null) {
+      // the rows of regions after last row in file
+      int lastFilledRowNum = getLastFilledRowNum();
+      while (lastRowNum < lastFilledRowNum && !isFinished()) {
+        startRow(lastRowNum + 1);
+        endRow();
+      }
+    }
+
+    rowCursorHandler.onSheetEnd(sheet);
+  }
+
+  private void pushRow() {
+    if (mergedRegionIndex != null) {
+      fillMergedRegions(rowCursor);
+    }
+
+    if (readOptions.isUsedRange()) {
+      if (!rowHasValue) {
+        // held, pushed before next row with value
+        return;
+      }
+
+      while (pushedRowIndex + 1 < rowCursor.getIndex()) {
+        emptyRowCursor.reset(sheet, pushedRowIndex + 1);
+        pushRow(emptyRowCursor);
+      }
+    }
+
+    pushRow(rowCursor);
+  }
+
+  private void pushRow(RowCursorBean cursor) {
+    pushedRowIndex = cursor.getIndex();
+    if (!isRowRequested(cursor.getIndex())) {
+      return;
+    }
+
+    if (padRows) {
+      cursor.setPaddedSize(readOptions.getColumnSize(cursor.getIndex(), maxColNum));
+    }
+
+    rowCursorHandler.onRow(cursor);
+    readRowCount++;
+  }
+
+  /**
+   * fill anchor values to the cells of active regions, the rows are pushed in order so regions are activated in order
+   */
+  private void fillMergedRegions(RowCursorBean cursor) {
+    int rowNum = cursor.getIndex() - 1;
+    while (nextRegion < mergedRegionIndex.size() && mergedRegionIndex.getFirstRow(nextRegion) <= rowNum) {
+      if (activeRegionSize == activeRegions.length) {
+        activeRegions = Arrays.copyOf(activeRegions, activeRegionSize * 2);
+      }
+      activeRegions[activeRegionSize++] = nextRegion++;
+    }
+
+    boolean rowRequested = isRowRequested(cursor.getIndex());
+    int activeSize = 0;
+    for (int i = 0; i < activeRegionSize; i++) {
+      int id = activeRegions[i];
+      if (mergedRegionIndex.getLastRow(id) < rowNum) {
+        // region ended
+        continue;
+      }
+      activeRegions[activeSize++] = id;
+
+      String value = anchorValues[id];
+      if (!rowRequested || value == null) {
+        continue;
+      }
+      int firstCol = mergedRegionIndex.getFirstRow(id) == rowNum ? mergedRegionIndex.getFirstCol(id) + 1 : mergedRegionIndex.getFirstCol(id);
+      for (int colNum = firstCol; colNum <= mergedRegionIndex.getLastCol(id); colNum++) {
+        if (readOptions.isColumnRequested(cursor.getIndex(), colNum + 1)) {
+          cursor.setValue(colNum, value);
+          maxColNum = Math.max(maxColNum, colNum + 1);
+          rowHasValue = true;
+        }
+      }
+    }
+    activeRegionSize = activeSize;
+  }
+
+  private int getLastFilledRowNum() {
+    int lastFilledRowNum = -1;
+    for (int id = 0; id < anchorValues.length; id++) {
+      if (anchorValues[id] != null) {
+        lastFilledRowNum = Math.max(lastFilledRowNum, mergedRegionIndex.getLastRow(id));
+      }
+    }
+    return lastFilledRowNum;
+  }
+
+  private void keepAnchorValue(int colNum, String value) {
+    int id = mergedRegionIndex.find(lastRowNum, colNum);
+    if (id >= 0 && mergedRegionIndex.getFirstRow(id) == lastRowNum && mergedRegionIndex.getFirstCol(id) == colNum) {
+      anchorValues[id] = value;
+    }
+  }
+
+  private boolean isCellRead(int colNum) {
+    return isRowRequested(lastRowNum + 1) && readOptions.isColumnRequested(lastRowNum + 1, colNum + 1);
+  }
+
+  private boolean isRowRequested(int rowIndex) {
+    return rowIndex >= readOptions.getStartRow() && !isFinished();
+  }
+}
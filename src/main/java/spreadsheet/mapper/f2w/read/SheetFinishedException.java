@@ -0,0 +1,15 @@
+package spreadsheet.mapper.f2w.read;
+
+/**
+ * <pre>
+ * thrown by parsers to stop parsing a sheet when {@link SheetAssembler#isFinished()},
+ * it's caught by read helpers and never thrown out of them.
+ * no stack trace is filled, it's a signal not an error.
+ * </pre>
+ */
+class SheetFinishedException extends RuntimeException {
+
+  SheetFinishedException() {
+    super("sheet finished", null, false, false);
+  }
+}
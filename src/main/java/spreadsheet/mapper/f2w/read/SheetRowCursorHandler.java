@@ -0,0 +1,30 @@
+package spreadsheet.mapper.f2w.read;
+
+import spreadsheet.mapper.model.core.Sheet;
+
+/**
+ * {@link RowCursorHandler} push {@link RowCursor#toRow()} to {@link SheetRowHandler}
+ */
+public class SheetRowCursorHandler implements RowCursorHandler {
+
+  private SheetRowHandler sheetRowHandler;
+
+  public SheetRowCursorHandler(SheetRowHandler sheetRowHandler) {
+    this.sheetRowHandler = sheetRowHandler;
+  }
+
+  @Override
+  public void onSheetStart(Sheet sheet) {
+    sheetRowHandler.onSheetStart(sheet);
+  }
+
+  @Override
+  public void onRow(RowCursor rowCursor) {
+    sheetRowHandler.onRow(rowCursor.toRow());
+  }
+
+  @Override
+  public void onSheetEnd(Sheet sheet) {
+    sheetRowHandler.onSheetEnd(sheet);
+  }
+}
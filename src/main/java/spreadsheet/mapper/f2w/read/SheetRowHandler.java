@@ -0,0 +1,38 @@
+package spreadsheet.mapper.f2w.read;
+
+import spreadsheet.mapper.model.core.Row;
+import spreadsheet.mapper.model.core.Sheet;
+
+/**
+ * <pre>
+ * handler of rows read one by one, rows are pushed to handler as soon as parsed,
+ * the sheet not hold the rows, so rows can be garbage collected after handled.
+ * </pre>
+ */
+public interface SheetRowHandler {
+
+  /**
+   * before first row of the sheet
+   *
+   * @param sheet {@link Sheet} without rows
+   */
+  void onSheetStart(Sheet sheet);
+
+  /**
+   * <pre>
+   * one row parsed, missing rows (not exists in file) are pushed as empty rows.
+   * {@link Row#getSheet()} is the started sheet, but the sheet not hold this row.
+   * cells of row are padded to the column size declared in file (if has), or max column size of rows before.
+   * </pre>
+   *
+   * @param row {@link Row}
+   */
+  void onRow(Row row);
+
+  /**
+   * after last row of the sheet
+   *
+   * @param sheet {@link Sheet} without rows
+   */
+  void onSheetEnd(Sheet sheet);
+}
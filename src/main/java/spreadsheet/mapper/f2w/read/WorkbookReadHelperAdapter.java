@@ -0,0 +1,163 @@
+package spreadsheet.mapper.f2w.read;
+
+import spreadsheet.mapper.model.core.Workbook;
+import spreadsheet.mapper.model.core.WorkbookBean;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * <pre>
+ * workbook read helper adapter, the read helpers of file format extends this and only implement
+ * {@link #read(File, InputStream, ByteBuffer, Workbook, RowCursorHandler, boolean, ReadOptions)},
+ * the read of file, byte buffer and the row handlers are delegated to it.
+ * the read options are passed to every read, so one helper can read many files concurrently.
+ * </pre>
+ */
+public abstract class WorkbookReadHelperAdapter implements WorkbookReadHelper {
+
+  private ReadOptions readOptions = new ReadOptions();
+
+  /**
+   * @param readOptions {@link ReadOptions}
+   * @return {@link WorkbookReadHelperAdapter}
+   */
+  public WorkbookReadHelperAdapter readOptions(ReadOptions readOptions) {
+    if (readOptions == null) {
+      throw new IllegalArgumentException("read options can not be null");
+    }
+    this.readOptions = readOptions;
+    return this;
+  }
+
+  /**
+   * @return {@link ReadOptions} of reads
+   */
+  public ReadOptions getReadOptions() {
+    return readOptions;
+  }
+
+  @Override
+  public Workbook read(InputStream inputStream) {
+    return collect(null, inputStream, null, readOptions);
+  }
+
+  /**
+   * read supplied stream and push rows to supplied handler one by one,
+   * the read rows not hold by anyone after handled.
+   *
+   * @param inputStream     auto close
+   * @param sheetRowHandler {@link SheetRowHandler}
+   */
+  public void read(InputStream inputStream, SheetRowHandler sheetRowHandler) {
+    read(null, inputStream, null, new WorkbookBean(), new SheetRowCursorHandler(sheetRowHandler), true, readOptions);
+  }
+
+  /**
+   * read supplied stream and push rows to supplied handler through one reused {@link RowCursor},
+   * no row and cell objects are created.
+   *
+   * @param inputStream      auto close
+   * @param rowCursorHandler {@link RowCursorHandler}
+   */
+  public void read(InputStream inputStream, RowCursorHandler rowCursorHandler) {
+    read(null, inputStream, null, new WorkbookBean(), rowCursorHandler, true, readOptions);
+  }
+
+  /**
+   * read supplied file to {@link Workbook}, the file is opened with random access and not buffered in memory
+   *
+   * @param file not modified
+   * @return {@link Workbook}
+   */
+  public Workbook read(File file) {
+    return collect(file, null, null, readOptions);
+  }
+
+  /**
+   * @param path not modified
+   * @return {@link Workbook}
+   * @see #read(File)
+   */
+  public Workbook read(Path path) {
+    return read(path.toFile());
+  }
+
+  /**
+   * @param file            not modified
+   * @param sheetRowHandler {@link SheetRowHandler}
+   * @see #read(File)
+   * @see #read(InputStream, SheetRowHandler)
+   */
+  public void read(File file, SheetRowHandler sheetRowHandler) {
+    read(file, null, null, new WorkbookBean(), new SheetRowCursorHandler(sheetRowHandler), true, readOptions);
+  }
+
+  /**
+   * @param file             not modified
+   * @param rowCursorHandler {@link RowCursorHandler}
+   * @see #read(File)
+   * @see #read(InputStream, RowCursorHandler)
+   */
+  public void read(File file, RowCursorHandler rowCursorHandler) {
+    read(file, null, null, new WorkbookBean(), rowCursorHandler, true, readOptions);
+  }
+
+  /**
+   * read supplied bytes (from position to limit) to {@link Workbook}, the zip or ole2 container is opened over the buffer,
+   * the bytes are not copied (a byte array can be read by {@link ByteBuffer#wrap(byte[])}).
+   * the position of buffer is not changed, the buffer must not be changed until read.
+   *
+   * @param byteBuffer heap or direct buffer
+   * @return {@link Workbook}
+   */
+  public Workbook read(ByteBuffer byteBuffer) {
+    return collect(null, null, byteBuffer, readOptions);
+  }
+
+  /**
+   * @param byteBuffer      heap or direct buffer
+   * @param sheetRowHandler {@link SheetRowHandler}
+   * @see #read(ByteBuffer)
+   * @see #read(InputStream, SheetRowHandler)
+   */
+  public void read(ByteBuffer byteBuffer, SheetRowHandler sheetRowHandler) {
+    read(null, null, byteBuffer, new WorkbookBean(), new SheetRowCursorHandler(sheetRowHandler), true, readOptions);
+  }
+
+  /**
+   * @param byteBuffer       heap or direct buffer
+   * @param rowCursorHandler {@link RowCursorHandler}
+   * @see #read(ByteBuffer)
+   * @see #read(InputStream, RowCursorHandler)
+   */
+  public void read(ByteBuffer byteBuffer, RowCursorHandler rowCursorHandler) {
+    read(null, null, byteBuffer, new WorkbookBean(), rowCursorHandler, true, readOptions);
+  }
+
+  /**
+   * read the supplied one of file, input stream and byte buffer to {@link Workbook} by supplied read options
+   */
+  Workbook collect(File file, InputStream inputStream, ByteBuffer byteBuffer, ReadOptions readOptions) {
+    Workbook excelWorkbook = new WorkbookBean();
+    read(file, inputStream, byteBuffer, excelWorkbook, new SheetRowCursorHandler(new CollectingSheetRowHandler(readOptions)), false, readOptions);
+    return excelWorkbook;
+  }
+
+  /**
+   * read from the supplied one of file, input stream and byte buffer
+   *
+   * @param file             null if not read from file
+   * @param inputStream      null if not read from input stream, auto close
+   * @param byteBuffer       null if not read from byte buffer
+   * @param excelWorkbook    the read sheets are added to
+   * @param rowCursorHandler {@link RowCursorHandler}
+   * @param padRows          false if the rows are collected into workbook (padded by the collecting handler),
+   *                         the sheets of collected workbook can be read concurrently
+   * @param readOptions      {@link ReadOptions} of this read
+   */
+  protected abstract void read(File file, InputStream inputStream, ByteBuffer byteBuffer, Workbook excelWorkbook,
+                               RowCursorHandler rowCursorHandler, boolean padRows, ReadOptions readOptions);
+}
@@ -0,0 +1,158 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.model.InternalWorkbook;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.MergeCellsRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import spreadsheet.mapper.model.core.Workbook;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <pre>
+ * xls to workbook reader using poi event model ({@link HSSFEventFactory}),
+ * records are processed one by one, the hssf object model will not be created.
+ * the cell value read is same as {@link Excel2WorkbookReadHelper}.
+ * </pre>
+ */
+public class Xls2WorkbookReadHelper extends WorkbookReadHelperAdapter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Xls2WorkbookReadHelper.class);
+
+  @Override
+  protected void read(File file, InputStream inputStream, ByteBuffer byteBuffer, Workbook excelWorkbook,
+                      RowCursorHandler rowCursorHandler, boolean padRows, ReadOptions readOptions) {
+
+    NPOIFSFileSystem fileSystem = null;
+    try {
+
+      if (file != null ? file.length() == 0 : byteBuffer != null ? !byteBuffer.hasRemaining() : inputStream.available() == 0) {
+        return;
+      }
+
+      // blocks of file system are read by random access, byte buffer compound file is read in place,
+      // the input stream file system is buffered in memory
+      ByteBufferCompoundFile compoundFile = null;
+      if (file != null) {
+        fileSystem = new NPOIFSFileSystem(file, true);
+      } else if (byteBuffer != null) {
+        compoundFile = new ByteBufferCompoundFile(byteBuffer);
+      } else {
+        fileSystem = new NPOIFSFileSystem(inputStream);
+      }
+
+      XlsRecordListener recordListener = new XlsRecordListener(excelWorkbook, rowCursorHandler, padRows, readOptions);
+      if (readOptions.isFillMergedRegions()) {
+        recordListener.setMergedRegions(readMergedRegions(fileSystem, compoundFile));
+      }
+
+      HSSFRequest request = new HSSFRequest();
+      recordListener.register(request);
+
+      try {
+        processWorkbookEvents(request, fileSystem, compoundFile);
+      } catch (SheetFinishedException e) {
+        // rows limit of last requested sheet reached, the rest of workbook stream is not processed
+      }
+
+    } catch (Exception e) {
+      LOGGER.error(ExceptionUtils.getStackTrace(e));
+      throw new WorkbookReadException(e);
+    } finally {
+
+      if (fileSystem != null) {
+        try {
+          fileSystem.close();
+        } catch (IOException e) {
+          LOGGER.error(ExceptionUtils.getStackTrace(e));
+        }
+      }
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
+  /**
+   * merge cells records are after cell records of sheet, so the workbook stream is processed once more for them
+   */
+  private List<MergedRegionIndex> readMergedRegions(NPOIFSFileSystem fileSystem, ByteBufferCompoundFile compoundFile) throws IOException {
+    MergeCellsListener mergeCellsListener = new MergeCellsListener();
+
+    HSSFRequest request = new HSSFRequest();
+    request.addListener(mergeCellsListener, BOFRecord.sid);
+    request.addListener(mergeCellsListener, EOFRecord.sid);
+    request.addListener(mergeCellsListener, MergeCellsRecord.sid);
+    processWorkbookEvents(request, fileSystem, compoundFile);
+
+    return mergeCellsListener.mergedRegions;
+  }
+
+  /**
+   * process the workbook stream of file system if supplied else of compound file
+   */
+  private void processWorkbookEvents(HSSFRequest request, NPOIFSFileSystem fileSystem, ByteBufferCompoundFile compoundFile) throws IOException {
+    if (fileSystem != null) {
+      new HSSFEventFactory().processWorkbookEvents(request, fileSystem.getRoot());
+      return;
+    }
+
+    // same stream names as poi
+    InputStream workbookStream = compoundFile.openStream(InternalWorkbook.WORKBOOK_DIR_ENTRY_NAMES);
+    try {
+      new HSSFEventFactory().processEvents(request, workbookStream);
+    } finally {
+      workbookStream.close();
+    }
+  }
+
+  /**
+   * collect merged regions of sheets in file order
+   */
+  private static class MergeCellsListener implements HSSFListener {
+
+    private List<MergedRegionIndex> mergedRegions = new ArrayList<>();
+
+    private int bofDepth;
+
+    @Override
+    public void processRecord(Record record) {
+      switch (record.getSid()) {
+        case BOFRecord.sid:
+          if (bofDepth == 0 && ((BOFRecord) record).getType() != BOFRecord.TYPE_WORKBOOK) {
+            mergedRegions.add(new MergedRegionIndex());
+          }
+          bofDepth++;
+          break;
+        case EOFRecord.sid:
+          bofDepth--;
+          break;
+        case MergeCellsRecord.sid:
+          if (bofDepth == 1 && !mergedRegions.isEmpty()) {
+            MergeCellsRecord mergeCellsRecord = (MergeCellsRecord) record;
+            MergedRegionIndex mergedRegionIndex = mergedRegions.get(mergedRegions.size() - 1);
+            for (int i = 0; i < mergeCellsRecord.getNumAreas(); i++) {
+              CellRangeAddress region = mergeCellsRecord.getAreaAt(i);
+              mergedRegionIndex.add(region.getFirstRow(), region.getLastRow(), region.getFirstColumn(), region.getLastColumn());
+            }
+          }
+          break;
+        default:
+          break;
+      }
+    }
+  }
+}
@@ -0,0 +1,295 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.MissingRecordAwareHSSFListener;
+import org.apache.poi.hssf.eventusermodel.dummyrecord.LastCellOfRowDummyRecord;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.DimensionsRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.ss.usermodel.CellType;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.core.Workbook;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <pre>
+ * hssf record listener of xls workbook stream,
+ * resolve cell value same as {@link Excel2WorkbookReadHelper} and assemble into rows by {@link SheetAssembler}.
+ * formula cells are read as their cached result, the string result is in the string record after the formula record.
+ * </pre>
+ */
+public class XlsRecordListener implements HSSFListener {
+
+  private Workbook workbook;
+
+  private RowCursorHandler rowCursorHandler;
+
+  private boolean padRows;
+
+  private ReadOptions readOptions;
+
+  private FormatTrackingHSSFListener formatListener;
+
+  private List<BoundSheetRecord> boundSheetRecords = new ArrayList<>();
+
+  private BoundSheetRecord[] orderedBoundSheetRecords;
+
+  private SSTRecord sstRecord;
+
+  private CellStyleCache cellStyleCache = new CellStyleCache();
+
+  private boolean date1904;
+
+  private List<MergedRegionIndex> mergedRegions;
+
+  /*===============
+    parse state
+   ================*/
+  // nested bof depth, embedded charts have their own bof/eof inside sheet
+  private int bofDepth;
+
+  private int sheetCount;
+
+  private SheetAssembler sheetAssembler;
+
+  private int rowNum = -1;
+
+  private int lastRowNum = -1;
+
+  // column of formula cell whose string result is in the next string record, -1 if none
+  private int pendingStringColNum = -1;
+
+  /**
+   * @param workbook         sheets read add to
+   * @param rowCursorHandler {@link RowCursorHandler}
+   * @param padRows          see {@link SheetAssembler#SheetAssembler(Sheet, RowCursorHandler, boolean, ReadOptions)}
+   * @param readOptions      {@link ReadOptions}
+   */
+  public XlsRecordListener(Workbook workbook, RowCursorHandler rowCursorHandler, boolean padRows, ReadOptions readOptions) {
+    this.workbook = workbook;
+    this.rowCursorHandler = rowCursorHandler;
+    this.padRows = padRows;
+    this.readOptions = readOptions;
+    this.formatListener = new FormatTrackingHSSFListener(this);
+  }
+
+  /**
+   * @param mergedRegions merged regions of sheets in file order, see {@link SheetAssembler#mergedRegions(MergedRegionIndex)}
+   */
+  public void setMergedRegions(List<MergedRegionIndex> mergedRegions) {
+    this.mergedRegions = mergedRegions;
+  }
+
+  /**
+   * register this listener to supplied request
+   *
+   * @param request {@link HSSFRequest}
+   */
+  public void register(HSSFRequest request) {
+    request.addListenerForAllRecords(new MissingRecordAwareHSSFListener(formatListener));
+  }
+
+  @Override
+  public void processRecord(Record record) {
+    switch (record.getSid()) {
+      case BOFRecord.sid:
+        if (bofDepth == 0 && ((BOFRecord) record).getType() != BOFRecord.TYPE_WORKBOOK) {
+          startSheet();
+        }
+        bofDepth++;
+        break;
+      case EOFRecord.sid:
+        bofDepth--;
+        if (bofDepth == 0 && sheetAssembler != null) {
+          endSheet();
+        }
+        break;
+      case BoundSheetRecord.sid:
+        boundSheetRecords.add((BoundSheetRecord) record);
+        break;
+      case SSTRecord.sid:
+        sstRecord = (SSTRecord) record;
+        break;
+      case DateWindow1904Record.sid:
+        date1904 = ((DateWindow1904Record) record).getWindowing() == 1;
+        break;
+      case DimensionsRecord.sid:
+        if (sheetAssembler != null && bofDepth == 1) {
+          // last col of dimensions record is last column number + 1
+          sheetAssembler.dimension(((DimensionsRecord) record).getLastCol());
+        }
+        break;
+      case RowRecord.sid:
+        if (sheetAssembler != null && bofDepth == 1) {
+          lastRowNum = Math.max(lastRowNum, ((RowRecord) record).getRowNumber());
+        }
+        break;
+      case StringRecord.sid:
+        if (sheetAssembler != null && bofDepth == 1 && pendingStringColNum >= 0) {
+          sheetAssembler.cell(pendingStringColNum, CellValueUtils.toStringText(((StringRecord) record).getString()));
+          pendingStringColNum = -1;
+        }
+        break;
+      default:
+        if (sheetAssembler != null && bofDepth == 1) {
+          processCellRecord(record);
+          if (sheetAssembler.isFinished()) {
+            finishSheet();
+          }
+        }
+        break;
+    }
+  }
+
+  private void startSheet() {
+    if (orderedBoundSheetRecords == null) {
+      orderedBoundSheetRecords = BoundSheetRecord.orderByBofPosition(boundSheetRecords);
+    }
+
+    String sheetName = sheetCount < orderedBoundSheetRecords.length ? orderedBoundSheetRecords[sheetCount].getSheetname() : null;
+    sheetCount++;
+
+    if (!readOptions.isSheetRequested(sheetCount, sheetName)) {
+      // records of unrequested sheet are ignored until its eof
+      return;
+    }
+
+    Sheet sheet = readOptions.createSheet(sheetName);
+    workbook.addSheet(sheet);
+
+    sheetAssembler = new SheetAssembler(sheet, rowCursorHandler, padRows, readOptions);
+    if (mergedRegions != null && sheetCount <= mergedRegions.size()) {
+      sheetAssembler.mergedRegions(mergedRegions.get(sheetCount - 1));
+    }
+    sheetAssembler.startSheet();
+    rowNum = -1;
+    lastRowNum = -1;
+  }
+
+  private void endSheet() {
+    // rows only have row record but no cells
+    if (lastRowNum > rowNum) {
+      sheetAssembler.startRow(lastRowNum);
+      sheetAssembler.endRow();
+    }
+
+    sheetAssembler.endSheet();
+    sheetAssembler = null;
+  }
+
+  /**
+   * rows limit reached, the rest records of sheet are ignored,
+   * and the workbook stream is stopped by {@link SheetFinishedException} if no requested sheet after
+   */
+  private void finishSheet() {
+    sheetAssembler.endSheet();
+    sheetAssembler = null;
+
+    for (int i = sheetCount; i < orderedBoundSheetRecords.length; i++) {
+      if (readOptions.isSheetRequested(i + 1, orderedBoundSheetRecords[i].getSheetname())) {
+        return;
+      }
+    }
+    throw new SheetFinishedException();
+  }
+
+  private void processCellRecord(Record record) {
+    if (record instanceof LastCellOfRowDummyRecord) {
+
+      int lastCellRowNum = ((LastCellOfRowDummyRecord) record).getRow();
+      if (lastCellRowNum >= 0) {
+        ensureRow(lastCellRowNum);
+        sheetAssembler.endRow();
+      }
+      return;
+    }
+
+    if (!(record instanceof CellValueRecordInterface)) {
+      return;
+    }
+
+    CellValueRecordInterface cellRecord = (CellValueRecordInterface) record;
+    ensureRow(cellRecord.getRow());
+    int colNum = cellRecord.getColumn();
+    boolean columnRequested = sheetAssembler.isColumnRequested(colNum);
+
+    if (columnRequested && record instanceof FormulaRecord && ((FormulaRecord) record).hasCachedResultString()) {
+      // the string result is in string record after
+      pendingStringColNum = colNum;
+      return;
+    }
+    sheetAssembler.cell(colNum, columnRequested ? resolveValue(record) : null);
+  }
+
+  private void ensureRow(int cellRowNum) {
+    if (cellRowNum != rowNum) {
+      sheetAssembler.startRow(cellRowNum);
+      rowNum = cellRowNum;
+    }
+  }
+
+  private String resolveValue(Record record) {
+    switch (record.getSid()) {
+      case LabelSSTRecord.sid:
+        return CellValueUtils.toStringText(sstRecord.getString(((LabelSSTRecord) record).getSSTIndex()).getString());
+      case LabelRecord.sid:
+        return CellValueUtils.toStringText(((LabelRecord) record).getValue());
+      case NumberRecord.sid:
+        NumberRecord numberRecord = (NumberRecord) record;
+        return getNumericCellFormat(numberRecord).format(numberRecord.getValue(), date1904);
+      case BoolErrRecord.sid:
+        BoolErrRecord boolErrRecord = (BoolErrRecord) record;
+        return boolErrRecord.isBoolean() ? CellValueUtils.toBooleanText(boolErrRecord.getBooleanValue()) : null;
+      case FormulaRecord.sid:
+        return resolveFormulaValue((FormulaRecord) record);
+      default:
+        // blank
+        return null;
+    }
+  }
+
+  /**
+   * cached result of formula, string result is resolved from string record.
+   * the formula record of poi 3.17 only has the int code of cached result type, so it is mapped by the deprecated {@link CellType#forInt(int)}
+   */
+  @SuppressWarnings("deprecation")
+  private String resolveFormulaValue(FormulaRecord formulaRecord) {
+    switch (CellType.forInt(formulaRecord.getCachedResultType())) {
+      case NUMERIC:
+        return getNumericCellFormat(formulaRecord).format(formulaRecord.getValue(), date1904);
+      case BOOLEAN:
+        return CellValueUtils.toBooleanText(formulaRecord.getCachedBooleanValue());
+      default:
+        // blank, error
+        return null;
+    }
+  }
+
+  private NumericCellFormat getNumericCellFormat(CellValueRecordInterface cellRecord) {
+    // extended format (cell style) index
+    int styleIndex = cellRecord.getXFIndex() & 0xFFFF;
+
+    NumericCellFormat numericCellFormat = cellStyleCache.get(styleIndex);
+    if (numericCellFormat == null) {
+      numericCellFormat = new NumericCellFormat(formatListener.getFormatIndex(cellRecord), formatListener.getFormatString(cellRecord));
+      cellStyleCache.put(styleIndex, numericCellFormat);
+    }
+    return numericCellFormat;
+  }
+}
@@ -0,0 +1,221 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.util.LittleEndian;
+import org.apache.poi.xssf.binary.XSSFBParser;
+import org.apache.poi.xssf.binary.XSSFBRecordType;
+import org.apache.poi.xssf.binary.XSSFBRelation;
+import org.apache.poi.xssf.binary.XSSFBSharedStringsTable;
+import org.apache.poi.xssf.binary.XSSFBUtils;
+import org.apache.poi.xssf.eventusermodel.XSSFBReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.core.Workbook;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * <pre>
+ * xlsb (binary workbook) to workbook reader using poi binary record parser ({@link XSSFBReader}, {@link XSSFBParser}),
+ * records are processed one by one, the memory used is proportional to the read {@link Workbook}.
+ * the cell value read is same as {@link Excel2WorkbookReadHelper}.
+ * </pre>
+ */
+public class Xlsb2WorkbookReadHelper extends WorkbookReadHelperAdapter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Xlsb2WorkbookReadHelper.class);
+
+  @Override
+  protected void read(File file, InputStream inputStream, ByteBuffer byteBuffer, Workbook excelWorkbook,
+                      RowCursorHandler rowCursorHandler, boolean padRows, ReadOptions readOptions) {
+
+    OPCPackage opcPackage = null;
+    try {
+
+      if (file != null ? file.length() == 0 : byteBuffer != null ? !byteBuffer.hasRemaining() : inputStream.available() == 0) {
+        return;
+      }
+
+      // zip entries of file package are read by random access, byte buffer package is read in place,
+      // the input stream package is buffered in memory
+      if (file != null) {
+        opcPackage = OPCPackage.open(file, PackageAccess.READ);
+      } else if (byteBuffer != null) {
+        opcPackage = OPCPackage.open(new ByteBufferZipEntrySource(byteBuffer));
+      } else {
+        opcPackage = OPCPackage.open(inputStream);
+      }
+
+      XSSFBReader xssfbReader = new XSSFBReader(opcPackage);
+      SharedStrings sharedStrings = new XlsbSharedStrings(new XSSFBSharedStringsTable(opcPackage));
+      XlsbStylesTable stylesTable = createStylesTable(opcPackage);
+      CellStyleCache cellStyleCache = new CellStyleCache();
+
+      WorkbookPartParser workbookPart = new WorkbookPartParser(xssfbReader.getWorkbookData());
+      try {
+        workbookPart.parse();
+      } finally {
+        IOUtils.closeQuietly(workbookPart.inputStream);
+      }
+
+      for (int i = 0; i < workbookPart.sheetNames.size(); i++) {
+
+        String sheetName = workbookPart.sheetNames.get(i);
+        if (!readOptions.isSheetRequested(i + 1, sheetName)) {
+          // sheet part of unrequested sheet is never opened
+          continue;
+        }
+
+        Sheet excelSheet = readOptions.createSheet(sheetName);
+        excelWorkbook.addSheet(excelSheet);
+
+        SheetAssembler sheetAssembler = new SheetAssembler(excelSheet, rowCursorHandler, padRows, readOptions);
+        if (readOptions.isFillMergedRegions()) {
+          sheetAssembler.mergedRegions(readMergedRegions(xssfbReader, workbookPart.sheetRelationIds.get(i)));
+        }
+        sheetAssembler.startSheet();
+
+        InputStream sheetInputStream = xssfbReader.getSheet(workbookPart.sheetRelationIds.get(i));
+        try {
+          new XlsbSheetParser(sheetInputStream, sheetAssembler, sharedStrings, stylesTable, cellStyleCache, workbookPart.date1904).parse();
+        } catch (SheetFinishedException e) {
+          // rows limit reached, the rest of sheet part is not parsed
+        } finally {
+          IOUtils.closeQuietly(sheetInputStream);
+        }
+        sheetAssembler.endSheet();
+      }
+
+    } catch (Exception e) {
+      LOGGER.error(ExceptionUtils.getStackTrace(e));
+      throw new WorkbookReadException(e);
+    } finally {
+
+      if (opcPackage != null) {
+        // read only, discard any change
+        opcPackage.revert();
+      }
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
+  private XlsbStylesTable createStylesTable(OPCPackage opcPackage) throws Exception {
+    List<PackagePart> parts = opcPackage.getPartsByContentType(XSSFBRelation.STYLES_BINARY.getContentType());
+    if (parts.isEmpty()) {
+      return null;
+    }
+
+    InputStream stylesInputStream = parts.get(0).getInputStream();
+    try {
+      return new XlsbStylesTable(stylesInputStream);
+    } finally {
+      IOUtils.closeQuietly(stylesInputStream);
+    }
+  }
+
+  private MergedRegionIndex readMergedRegions(XSSFBReader xssfbReader, String sheetRelationId) throws Exception {
+    InputStream sheetInputStream = xssfbReader.getSheet(sheetRelationId);
+    try {
+      MergeCellParser mergeCellParser = new MergeCellParser(sheetInputStream);
+      mergeCellParser.parse();
+      return mergeCellParser.mergedRegionIndex;
+    } finally {
+      IOUtils.closeQuietly(sheetInputStream);
+    }
+  }
+
+  /**
+   * record parser of workbook part (xl/workbook.bin), collect date1904 and sheets in file order
+   */
+  private static class WorkbookPartParser extends XSSFBParser {
+
+    // not defined in XSSFBRecordType
+    private static final int BRT_WB_PROP = 153;
+
+    private static final Charset UTF_16LE = Charset.forName("UTF-16LE");
+
+    private InputStream inputStream;
+
+    private boolean date1904;
+
+    private List<String> sheetNames = new ArrayList<>();
+
+    private List<String> sheetRelationIds = new ArrayList<>();
+
+    private WorkbookPartParser(InputStream inputStream) {
+      super(inputStream);
+      this.inputStream = inputStream;
+    }
+
+    @Override
+    public void handleRecord(int recordType, byte[] data) {
+      if (recordType == BRT_WB_PROP) {
+        // flags(4 bytes), bit 0 is f1904
+        date1904 = (LittleEndian.getUInt(data, 0) & 0x01) != 0;
+        return;
+      }
+
+      if (XSSFBRecordType.lookup(recordType) == XSSFBRecordType.BrtBundleSh) {
+        // hsState(4 bytes), iTabID(4 bytes), strRelID(nullable wide string), strName(wide string)
+        int offset = 8;
+
+        long relationIdLength = LittleEndian.getUInt(data, offset);
+        offset += 4;
+        String relationId = null;
+        if (relationIdLength != 0xFFFFFFFFL) {
+          relationId = new String(data, offset, (int) relationIdLength * 2, UTF_16LE);
+          offset += (int) relationIdLength * 2;
+        }
+
+        StringBuilder sheetName = new StringBuilder();
+        XSSFBUtils.readXLWideString(data, offset, sheetName);
+
+        sheetRelationIds.add(relationId);
+        sheetNames.add(sheetName.toString());
+      }
+    }
+  }
+
+  /**
+   * record parser of sheet part, collect merged regions (after sheet data)
+   */
+  private static class MergeCellParser extends XSSFBParser {
+
+    // not defined in XSSFBRecordType
+    private static final int BRT_MERGE_CELL = 176;
+
+    private static final BitSet RECORDS = new BitSet();
+
+    static {
+      RECORDS.set(BRT_MERGE_CELL);
+    }
+
+    private MergedRegionIndex mergedRegionIndex = new MergedRegionIndex();
+
+    private MergeCellParser(InputStream inputStream) {
+      // the other records are skipped without handled
+      super(inputStream, RECORDS);
+    }
+
+    @Override
+    public void handleRecord(int recordType, byte[] data) {
+      if (recordType == BRT_MERGE_CELL) {
+        // rwFirst, rwLast, colFirst, colLast (4 bytes each)
+        mergedRegionIndex.add(
+            (int) LittleEndian.getUInt(data, 0), (int) LittleEndian.getUInt(data, 4),
+            (int) LittleEndian.getUInt(data, 8), (int) LittleEndian.getUInt(data, 12));
+      }
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.poi.xssf.binary.XSSFBSharedStringsTable;
+
+/**
+ * all strings held in heap by {@link XSSFBSharedStringsTable}
+ */
+public class XlsbSharedStrings implements SharedStrings {
+
+  private XSSFBSharedStringsTable sharedStringsTable;
+
+  public XlsbSharedStrings(XSSFBSharedStringsTable sharedStringsTable) {
+    this.sharedStringsTable = sharedStringsTable;
+  }
+
+  @Override
+  public int getCount() {
+    return sharedStringsTable.getItems().size();
+  }
+
+  @Override
+  public String getEntryAt(int index) {
+    return sharedStringsTable.getEntryAt(index);
+  }
+}
@@ -0,0 +1,146 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.poi.util.LittleEndian;
+import org.apache.poi.xssf.binary.XSSFBParser;
+import org.apache.poi.xssf.binary.XSSFBRecordType;
+import org.apache.poi.xssf.binary.XSSFBUtils;
+
+import java.io.InputStream;
+
+/**
+ * <pre>
+ * record parser of xlsb sheet part (xl/worksheets/sheetN.bin),
+ * resolve cell value same as {@link Excel2WorkbookReadHelper} and assemble into rows by {@link SheetAssembler}.
+ * formula cells are read as their cached result, which is stored before the formula in formula records.
+ * </pre>
+ */
+public class XlsbSheetParser extends XSSFBParser {
+
+  // cell record: column(4 bytes), style index(3 bytes), flags(1 byte), then value
+  private static final int CELL_VALUE_OFFSET = 8;
+
+  private SheetAssembler sheetAssembler;
+
+  private SharedStrings sharedStrings;
+
+  private XlsbStylesTable stylesTable;
+
+  private CellStyleCache cellStyleCache;
+
+  private boolean date1904;
+
+  private StringBuilder buffer = new StringBuilder(64);
+
+  /**
+   * @param inputStream    sheet part
+   * @param sheetAssembler {@link SheetAssembler}
+   * @param sharedStrings  {@link SharedStrings}
+   * @param stylesTable    {@link XlsbStylesTable}
+   * @param cellStyleCache {@link CellStyleCache}
+   * @param date1904       if workbook using 1904 date windowing
+   */
+  public XlsbSheetParser(InputStream inputStream, SheetAssembler sheetAssembler, SharedStrings sharedStrings,
+                         XlsbStylesTable stylesTable, CellStyleCache cellStyleCache, boolean date1904) {
+    super(inputStream);
+    this.sheetAssembler = sheetAssembler;
+    this.sharedStrings = sharedStrings;
+    this.stylesTable = stylesTable;
+    this.cellStyleCache = cellStyleCache;
+    this.date1904 = date1904;
+  }
+
+  @Override
+  public void handleRecord(int recordType, byte[] data) {
+    XSSFBRecordType type = XSSFBRecordType.lookup(recordType);
+    switch (type) {
+      case BrtWsDim:
+        // rwFirst, rwLast, colFirst, colLast (4 bytes each)
+        int lastColNum = LittleEndian.getInt(data, 12);
+        if (lastColNum >= 0) {
+          sheetAssembler.dimension(lastColNum + 1);
+        }
+        break;
+      case BrtRowHdr:
+        sheetAssembler.startRow((int) LittleEndian.getUInt(data, 0));
+        if (sheetAssembler.isFinished()) {
+          throw new SheetFinishedException();
+        }
+        break;
+      case BrtCellBlank:
+      case BrtCellRk:
+      case BrtCellError:
+      case BrtCellBool:
+      case BrtCellReal:
+      case BrtCellSt:
+      case BrtCellIsst:
+      case BrtCellRString:
+      case BrtFmlaString:
+      case BrtFmlaNum:
+      case BrtFmlaBool:
+      case BrtFmlaError:
+        int colNum = (int) LittleEndian.getUInt(data, 0);
+        sheetAssembler.cell(colNum, sheetAssembler.isColumnRequested(colNum) ? resolveValue(type, data) : null);
+        break;
+      default:
+        break;
+    }
+  }
+
+  private String resolveValue(XSSFBRecordType type, byte[] data) {
+    switch (type) {
+      case BrtCellRk:
+        return getNumericCellFormat(data).format(toRkNumber(LittleEndian.getInt(data, CELL_VALUE_OFFSET)), date1904);
+      case BrtCellReal:
+      case BrtFmlaNum:
+        return getNumericCellFormat(data).format(LittleEndian.getDouble(data, CELL_VALUE_OFFSET), date1904);
+      case BrtCellBool:
+      case BrtFmlaBool:
+        return CellValueUtils.toBooleanText(data[CELL_VALUE_OFFSET] != 0);
+      case BrtCellSt:
+      case BrtFmlaString:
+        return CellValueUtils.toStringText(readString(data, CELL_VALUE_OFFSET));
+      case BrtCellRString:
+        // rich string flags(1 byte) before string
+        return CellValueUtils.toStringText(readString(data, CELL_VALUE_OFFSET + 1));
+      case BrtCellIsst:
+        return CellValueUtils.toStringText(sharedStrings.getEntryAt((int) LittleEndian.getUInt(data, CELL_VALUE_OFFSET)));
+      default:
+        // blank, error
+        return null;
+    }
+  }
+
+  private NumericCellFormat getNumericCellFormat(byte[] data) {
+    // 24 bits style index
+    int styleIndex = (data[4] & 0xFF) | (data[5] & 0xFF) << 8 | (data[6] & 0xFF) << 16;
+
+    NumericCellFormat numericCellFormat = cellStyleCache.get(styleIndex);
+    if (numericCellFormat == null) {
+      numericCellFormat = stylesTable == null ?
+          new NumericCellFormat(0, null) :
+          new NumericCellFormat(stylesTable.getFormatIndex(styleIndex), stylesTable.getFormatString(styleIndex));
+      cellStyleCache.put(styleIndex, numericCellFormat);
+    }
+    return numericCellFormat;
+  }
+
+  private String readString(byte[] data, int offset) {
+    buffer.setLength(0);
+    XSSFBUtils.readXLWideString(data, offset, buffer);
+    return buffer.toString();
+  }
+
+  /**
+   * @param rk rk number: bit 0 value divided by 100, bit 1 value is integer, the other 30 bits are value
+   * @return numeric value
+   */
+  static double toRkNumber(int rk) {
+    double value;
+    if ((rk & 0x02) != 0) {
+      value = rk >> 2;
+    } else {
+      value = Double.longBitsToDouble(((long) (rk & 0xFFFFFFFC)) << 32);
+    }
+    return (rk & 0x01) != 0 ? value / 100 : value;
+  }
+}
@@ -0,0 +1,92 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.util.LittleEndian;
+import org.apache.poi.xssf.binary.XSSFBParser;
+import org.apache.poi.xssf.binary.XSSFBRecordType;
+import org.apache.poi.xssf.binary.XSSFBUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <pre>
+ * number formats of cell styles from xlsb styles part (xl/styles.bin),
+ * only the format of cell xf is read, that is what cell value resolving needs.
+ * </pre>
+ */
+public class XlsbStylesTable extends XSSFBParser {
+
+  // format id by cell xf index
+  private List<Integer> cellXfFormatIds = new ArrayList<>();
+
+  // custom format string by format id
+  private Map<Integer, String> formatStrings = new HashMap<>();
+
+  private boolean cellXfsOpen;
+
+  private StringBuilder buffer = new StringBuilder();
+
+  /**
+   * @param inputStream styles part, parsed at once
+   * @throws IOException io exception
+   */
+  public XlsbStylesTable(InputStream inputStream) throws IOException {
+    super(inputStream);
+    parse();
+  }
+
+  /**
+   * @param styleIndex cell xf index
+   * @return format index
+   */
+  public int getFormatIndex(int styleIndex) {
+    if (styleIndex < 0 || styleIndex >= cellXfFormatIds.size()) {
+      return 0;
+    }
+    return cellXfFormatIds.get(styleIndex);
+  }
+
+  /**
+   * @param styleIndex cell xf index
+   * @return format string, custom format or build in format
+   */
+  public String getFormatString(int styleIndex) {
+    int formatIndex = getFormatIndex(styleIndex);
+
+    String formatString = formatStrings.get(formatIndex);
+    if (formatString != null) {
+      return formatString;
+    }
+    return BuiltinFormats.getBuiltinFormat(formatIndex);
+  }
+
+  @Override
+  public void handleRecord(int recordType, byte[] data) {
+    switch (XSSFBRecordType.lookup(recordType)) {
+      case BrtBeginCellXFs:
+        cellXfsOpen = true;
+        break;
+      case BrtEndCellXFs:
+        cellXfsOpen = false;
+        break;
+      case BrtXf:
+        if (cellXfsOpen) {
+          // ixfeParent(2 bytes), iFmt(2 bytes)
+          cellXfFormatIds.add(LittleEndian.getUShort(data, 2));
+        }
+        break;
+      case BrtFmt:
+        buffer.setLength(0);
+        XSSFBUtils.readXLWideString(data, 2, buffer);
+        formatStrings.put(LittleEndian.getUShort(data, 0), buffer.toString());
+        break;
+      default:
+        break;
+    }
+  }
+}
@@ -0,0 +1,285 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.core.Workbook;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * <pre>
+ * xlsx to workbook reader using poi event model ({@link XSSFReader} and sax),
+ * the xlsx dom will not be created, so the memory used is proportional to the read {@link Workbook}.
+ * the cell value read is same as {@link Excel2WorkbookReadHelper}.
+ * </pre>
+ */
+public class Xlsx2WorkbookReadHelper extends WorkbookReadHelperAdapter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Xlsx2WorkbookReadHelper.class);
+
+  @Override
+  protected void read(File file, InputStream inputStream, ByteBuffer byteBuffer, Workbook excelWorkbook,
+                      RowCursorHandler rowCursorHandler, boolean padRows, ReadOptions readOptions) {
+
+    OPCPackage opcPackage = null;
+    SharedStrings sharedStrings = null;
+    try {
+
+      if (file != null ? file.length() == 0 : byteBuffer != null ? !byteBuffer.hasRemaining() : inputStream.available() == 0) {
+        return;
+      }
+
+      // zip entries of file package are read by random access, byte buffer package is read in place,
+      // the input stream package is buffered in memory
+      if (file != null) {
+        opcPackage = OPCPackage.open(file, PackageAccess.READ);
+      } else if (byteBuffer != null) {
+        opcPackage = OPCPackage.open(new ByteBufferZipEntrySource(byteBuffer));
+      } else {
+        opcPackage = OPCPackage.open(inputStream);
+      }
+
+      XSSFReader xssfReader = new XSSFReader(opcPackage);
+      sharedStrings = createSharedStrings(opcPackage, readOptions.isMapSharedStrings());
+      StylesTable stylesTable = xssfReader.getStylesTable();
+      WorkbookPartHandler workbookPart = parseWorkbookPart(xssfReader);
+
+      List<SheetReader> sheetReaders = new ArrayList<>();
+      for (int i = 0; i < workbookPart.sheetNames.size(); i++) {
+
+        String sheetName = workbookPart.sheetNames.get(i);
+        if (!readOptions.isSheetRequested(i + 1, sheetName)) {
+          // sheet part of unrequested sheet is never opened
+          continue;
+        }
+
+        Sheet excelSheet = readOptions.createSheet(sheetName);
+        excelWorkbook.addSheet(excelSheet);
+
+        sheetReaders.add(new SheetReader(
+            xssfReader, workbookPart.sheetRelationIds.get(i),
+            new SheetAssembler(excelSheet, rowCursorHandler, padRows, readOptions),
+            sharedStrings, stylesTable, workbookPart.date1904, readOptions.isFillMergedRegions()
+        ));
+      }
+
+      // the rows pushed to handler are in order, only the collected sheets are read concurrently
+      ExecutorService executorService = padRows ? null : readOptions.getExecutorService();
+      if (executorService == null || sheetReaders.size() < 2) {
+
+        CellStyleCache cellStyleCache = new CellStyleCache();
+        for (SheetReader sheetReader : sheetReaders) {
+          sheetReader.read(cellStyleCache);
+        }
+
+      } else {
+
+        readConcurrently(sheetReaders, executorService);
+      }
+
+    } catch (Exception e) {
+      LOGGER.error(ExceptionUtils.getStackTrace(e));
+      throw new WorkbookReadException(e);
+    } finally {
+
+      if (sharedStrings instanceof Closeable) {
+        IOUtils.closeQuietly((Closeable) sharedStrings);
+      }
+      if (opcPackage != null) {
+        // read only, discard any change
+        opcPackage.revert();
+      }
+      IOUtils.closeQuietly(inputStream);
+    }
+  }
+
+  private void readConcurrently(List<SheetReader> sheetReaders, ExecutorService executorService) throws Exception {
+    List<Future<Void>> futures = new ArrayList<>();
+    for (final SheetReader sheetReader : sheetReaders) {
+      futures.add(executorService.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          // cell style cache is not thread safe, one for each sheet
+          sheetReader.read(new CellStyleCache());
+          return null;
+        }
+      }));
+    }
+
+    try {
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof Exception ? (Exception) cause : e;
+    } finally {
+      for (Future<Void> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  private SharedStrings createSharedStrings(OPCPackage opcPackage, boolean mapSharedStrings) throws Exception {
+    if (!mapSharedStrings) {
+      // phonetic runs are not part of cell value, same as usermodel
+      return new ReadOnlySharedStrings(new ReadOnlySharedStringsTable(opcPackage, false));
+    }
+
+    List<PackagePart> parts = opcPackage.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+    InputStream sharedStringsInputStream = parts.isEmpty() ? null : parts.get(0).getInputStream();
+    return new MappedSharedStrings(sharedStringsInputStream, MappedSharedStrings.DEFAULT_CACHE_SIZE);
+  }
+
+  private WorkbookPartHandler parseWorkbookPart(XSSFReader xssfReader) throws Exception {
+    WorkbookPartHandler workbookPartHandler = new WorkbookPartHandler();
+
+    InputStream workbookInputStream = xssfReader.getWorkbookData();
+    try {
+      parse(workbookInputStream, workbookPartHandler);
+    } finally {
+      IOUtils.closeQuietly(workbookInputStream);
+    }
+
+    return workbookPartHandler;
+  }
+
+  private static void parse(InputStream inputStream, ContentHandler contentHandler) throws Exception {
+    XMLReader xmlReader = SAXHelper.newXMLReader();
+    xmlReader.setContentHandler(contentHandler);
+    xmlReader.parse(new InputSource(inputStream));
+  }
+
+  /**
+   * sax handler of workbook part (xl/workbook.xml), collect date1904 and sheets in file order
+   */
+  private static class WorkbookPartHandler extends DefaultHandler {
+
+    private static final String RELATIONSHIPS_NAMESPACE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private boolean date1904;
+
+    private List<String> sheetNames = new ArrayList<>();
+
+    private List<String> sheetRelationIds = new ArrayList<>();
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+      if ("workbookPr".equals(localName)) {
+
+        String value = attributes.getValue("date1904");
+        date1904 = "1".equals(value) || "true".equalsIgnoreCase(value);
+
+      } else if ("sheet".equals(localName)) {
+
+        sheetNames.add(attributes.getValue("name"));
+        sheetRelationIds.add(attributes.getValue(RELATIONSHIPS_NAMESPACE, "id"));
+      }
+    }
+  }
+
+  /**
+   * sax handler of sheet part, collect merged regions (mergeCells after sheetData)
+   */
+  private static class MergeCellsHandler extends DefaultHandler {
+
+    private MergedRegionIndex mergedRegionIndex = new MergedRegionIndex();
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+      if ("mergeCell".equals(localName)) {
+
+        CellRangeAddress region = CellRangeAddress.valueOf(attributes.getValue("ref"));
+        mergedRegionIndex.add(region.getFirstRow(), region.getLastRow(), region.getFirstColumn(), region.getLastColumn());
+      }
+    }
+  }
+
+  /**
+   * parse one sheet part, the sheets are independent so can be parsed concurrently
+   */
+  private static class SheetReader {
+
+    private XSSFReader xssfReader;
+
+    private String sheetRelationId;
+
+    private SheetAssembler sheetAssembler;
+
+    private SharedStrings sharedStrings;
+
+    private StylesTable stylesTable;
+
+    private boolean date1904;
+
+    private boolean fillMergedRegions;
+
+    private SheetReader(XSSFReader xssfReader, String sheetRelationId, SheetAssembler sheetAssembler,
+                        SharedStrings sharedStrings, StylesTable stylesTable, boolean date1904, boolean fillMergedRegions) {
+      this.xssfReader = xssfReader;
+      this.sheetRelationId = sheetRelationId;
+      this.sheetAssembler = sheetAssembler;
+      this.sharedStrings = sharedStrings;
+      this.stylesTable = stylesTable;
+      this.date1904 = date1904;
+      this.fillMergedRegions = fillMergedRegions;
+    }
+
+    private void read(CellStyleCache cellStyleCache) throws Exception {
+      if (fillMergedRegions) {
+        sheetAssembler.mergedRegions(readMergedRegions());
+      }
+      sheetAssembler.startSheet();
+
+      InputStream sheetInputStream = xssfReader.getSheet(sheetRelationId);
+      try {
+        parse(sheetInputStream, new XlsxSheetContentHandler(sheetAssembler, sharedStrings, stylesTable, cellStyleCache, date1904));
+      } catch (SheetFinishedException e) {
+        // rows limit reached, the rest of sheet part is not parsed
+      } finally {
+        IOUtils.closeQuietly(sheetInputStream);
+      }
+
+      sheetAssembler.endSheet();
+    }
+
+    private MergedRegionIndex readMergedRegions() throws Exception {
+      MergeCellsHandler mergeCellsHandler = new MergeCellsHandler();
+
+      InputStream sheetInputStream = xssfReader.getSheet(sheetRelationId);
+      try {
+        parse(sheetInputStream, mergeCellsHandler);
+      } finally {
+        IOUtils.closeQuietly(sheetInputStream);
+      }
+
+      return mergeCellsHandler.mergedRegionIndex;
+    }
+  }
+}
@@ -0,0 +1,198 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * <pre>
+ * sax handler of xlsx sheet part (xl/worksheets/sheetN.xml),
+ * resolve cell value same as {@link Excel2WorkbookReadHelper} and assemble into rows by {@link SheetAssembler}.
+ * parsing is stopped by {@link SheetFinishedException} when {@link SheetAssembler#isFinished()}.
+ * formula cells are read as their cached result (v element, typed by t attribute like other cells).
+ * </pre>
+ */
+public class XlsxSheetContentHandler extends DefaultHandler {
+
+  private SheetAssembler sheetAssembler;
+
+  private SharedStrings sharedStrings;
+
+  private StylesTable stylesTable;
+
+  private CellStyleCache cellStyleCache;
+
+  private boolean date1904;
+
+  /*===============
+    parse state
+   ================*/
+  private int rowNum = -1;
+
+  private int colNum = -1;
+
+  private String cellType;
+
+  private int styleIndex;
+
+  private boolean columnRequested;
+
+  private boolean valueOpen;
+
+  private boolean inlineStringOpen;
+
+  private boolean textOpen;
+
+  private boolean phoneticOpen;
+
+  private StringBuilder value = new StringBuilder(64);
+
+  public XlsxSheetContentHandler(SheetAssembler sheetAssembler, SharedStrings sharedStrings, StylesTable stylesTable, CellStyleCache cellStyleCache, boolean date1904) {
+    this.sheetAssembler = sheetAssembler;
+    this.sharedStrings = sharedStrings;
+    this.stylesTable = stylesTable;
+    this.cellStyleCache = cellStyleCache;
+    this.date1904 = date1904;
+  }
+
+  @Override
+  public void startElement(String uri, String localName, String qName, Attributes attributes) {
+    switch (localName) {
+      case "dimension":
+        String ref = attributes.getValue("ref");
+        if (ref != null) {
+          sheetAssembler.dimension(getColNum(ref.substring(ref.indexOf(':') + 1)) + 1);
+        }
+        break;
+      case "row":
+        String rowReference = attributes.getValue("r");
+        rowNum = rowReference == null ? rowNum + 1 : Integer.parseInt(rowReference) - 1;
+        colNum = -1;
+        sheetAssembler.startRow(rowNum);
+        break;
+      case "c":
+        String cellReference = attributes.getValue("r");
+        colNum = cellReference == null ? colNum + 1 : getColNum(cellReference);
+        cellType = attributes.getValue("t");
+        String style = attributes.getValue("s");
+        styleIndex = style == null ? 0 : Integer.parseInt(style);
+        columnRequested = sheetAssembler.isColumnRequested(colNum);
+        value.setLength(0);
+        break;
+      case "v":
+        valueOpen = true;
+        break;
+      case "is":
+        inlineStringOpen = true;
+        break;
+      case "t":
+        textOpen = inlineStringOpen;
+        break;
+      case "rPh":
+        phoneticOpen = true;
+        break;
+      default:
+        break;
+    }
+  }
+
+  @Override
+  public void endElement(String uri, String localName, String qName) {
+    switch (localName) {
+      case "row":
+        sheetAssembler.endRow();
+        if (sheetAssembler.isFinished()) {
+          throw new SheetFinishedException();
+        }
+        break;
+      case "c":
+        sheetAssembler.cell(colNum, columnRequested ? resolveValue() : null);
+        break;
+      case "v":
+        valueOpen = false;
+        break;
+      case "is":
+        inlineStringOpen = false;
+        break;
+      case "t":
+        textOpen = false;
+        break;
+      case "rPh":
+        phoneticOpen = false;
+        break;
+      default:
+        break;
+    }
+  }
+
+  @Override
+  public void characters(char[] ch, int start, int length) {
+    if (columnRequested && (valueOpen || (textOpen && !phoneticOpen))) {
+      value.append(ch, start, length);
+    }
+  }
+
+  private String resolveValue() {
+    if ("s".equals(cellType)) {
+
+      if (value.length() == 0) {
+        return null;
+      }
+      return CellValueUtils.toStringText(sharedStrings.getEntryAt(Integer.parseInt(value.toString())));
+
+    } else if ("inlineStr".equals(cellType) || "str".equals(cellType) || "d".equals(cellType)) {
+
+      return CellValueUtils.toStringText(value.toString());
+
+    } else if ("b".equals(cellType)) {
+
+      return value.length() == 0 ? null : CellValueUtils.toBooleanText("1".equals(value.toString()));
+
+    } else if ("e".equals(cellType)) {
+
+      return null;
+
+    }
+
+    // numeric, blank if no value
+    if (value.length() == 0) {
+      return null;
+    }
+
+    return getNumericCellFormat().format(Double.parseDouble(value.toString()), date1904);
+  }
+
+  private NumericCellFormat getNumericCellFormat() {
+    NumericCellFormat numericCellFormat = cellStyleCache.get(styleIndex);
+    if (numericCellFormat != null) {
+      return numericCellFormat;
+    }
+
+    if (stylesTable == null || stylesTable.getNumCellStyles() == 0) {
+      numericCellFormat = new NumericCellFormat(0, null);
+    } else {
+      XSSFCellStyle cellStyle = stylesTable.getStyleAt(styleIndex);
+      numericCellFormat = new NumericCellFormat(cellStyle.getDataFormat(), cellStyle.getDataFormatString());
+    }
+
+    cellStyleCache.put(styleIndex, numericCellFormat);
+    return numericCellFormat;
+  }
+
+  /**
+   * @param cellReference like: A1, AB12
+   * @return 0-based column number
+   */
+  static int getColNum(String cellReference) {
+    int colNum = 0;
+    for (int i = 0; i < cellReference.length(); i++) {
+      char ch = cellReference.charAt(i);
+      if (ch < 'A' || ch > 'Z') {
+        break;
+      }
+      colNum = colNum * 26 + (ch - 'A' + 1);
+    }
+    return colNum - 1;
+  }
+}
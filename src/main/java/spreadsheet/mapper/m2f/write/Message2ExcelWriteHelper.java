@@ -1,7 +1,12 @@
 package spreadsheet.mapper.m2f.write;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.poi.POIXMLDocument;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.poifs.filesystem.OfficeXmlFileException;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
@@ -14,6 +19,8 @@ import spreadsheet.mapper.m2f.write.strategy.SingleTextBoxInSheetStrategy;
 import spreadsheet.mapper.model.msg.Message;
 import spreadsheet.mapper.w2f.write.WorkbookWriteException;
 
+import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -23,11 +30,12 @@ import java.util.HashMap;
 import java.util.Map;
 
 /**
- * message to excel writer decorator
+ * message to excel writer decorator,
+ * the workbook is closed after write, call {@link #close()} if not written
  * <p>
  * Created by hanwen on 2017/1/3.
  */
-public class Message2ExcelWriteHelper implements MessageWriteHelper {
+public class Message2ExcelWriteHelper implements MessageWriteHelper, Closeable {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(Message2ExcelWriteHelper.class);
 
@@ -35,6 +43,10 @@ public class Message2ExcelWriteHelper implements MessageWriteHelper {
 
   private Workbook workbook;
 
+  private boolean revertPackage;
+
+  private boolean closed;
+
   {
     addMessageWriteStrategy(new SingleCommentInCellStrategy());
     addMessageWriteStrategy(new SingleTextBoxInSheetStrategy());
@@ -72,6 +84,31 @@ public class Message2ExcelWriteHelper implements MessageWriteHelper {
     }
   }
 
+  /**
+   * this will copy a excel workbook from supplied file to write messages,
+   * the file is opened with random access, messages are only written to the output stream,
+   * the package of xlsx is writable to add messages, it is reverted instead of saved on close
+   *
+   * @param file not modified
+   */
+  public Message2ExcelWriteHelper(File file) {
+    try {
+      workbook = WorkbookFactory.create(new NPOIFSFileSystem(file, true));
+    } catch (OfficeXmlFileException e) {
+      try {
+        // read only package rejects the parts of messages, the changes are reverted on close instead of saved to file
+        workbook = new XSSFWorkbook(OPCPackage.open(file, PackageAccess.READ_WRITE));
+        revertPackage = true;
+      } catch (Exception ex) {
+        LOGGER.error(ExceptionUtils.getStackTrace(ex));
+        throw new WorkbookReadException(ex);
+      }
+    } catch (Exception e) {
+      LOGGER.error(ExceptionUtils.getStackTrace(e));
+      throw new WorkbookReadException(e);
+    }
+  }
+
   @Override
   public MessageWriteHelper addMessageWriteStrategy(MessageWriteStrategy messageWriteStrategy) {
     if (messageWriteStrategy == null) {
@@ -89,6 +126,10 @@ public class Message2ExcelWriteHelper implements MessageWriteHelper {
 
   @Override
   public void write(Collection<Message> messages, OutputStream outputStream) {
+    if (closed) {
+      throw new WorkbookWriteException("message write helper is closed");
+    }
+
     Map<String, Collection<Message>> messageWriteStrategyMap = buildMessageWriteStrategyMap(messages);
     for (String writeStrategy : messageWriteStrategyMap.keySet()) {
       MessageWriteStrategy messageWriteStrategy = strategy2writeStrategy.get(writeStrategy);
@@ -105,12 +146,29 @@ public class Message2ExcelWriteHelper implements MessageWriteHelper {
       LOGGER.error(ExceptionUtils.getStackTrace(e));
       throw new WorkbookWriteException(e);
     } finally {
+      close();
+    }
+  }
 
-      try {
+  /**
+   * release the workbook, the package opened from file is reverted so the file is not modified
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+
+    try {
+      if (revertPackage) {
+        // close of file package saves changes to the file
+        ((POIXMLDocument) workbook).getPackage().revert();
+      } else {
         workbook.close();
-      } catch (IOException e) {
-        LOGGER.error(ExceptionUtils.getStackTrace(e));
       }
+    } catch (IOException e) {
+      LOGGER.error(ExceptionUtils.getStackTrace(e));
     }
   }
 
@@ -127,7 +127,7 @@ public class SingleCommentInCellStrategy implements MessageWriteStrategy {
     anchor.setRow2(rowIndex - 1 + comment.getLength());
 
     // Create the comment and set the text
-    Drawing drawing = sheet.createDrawingPatriarch();
+    Drawing<?> drawing = sheet.createDrawingPatriarch();
     org.apache.poi.ss.usermodel.Comment poiComment = drawing.createCellComment(anchor);
     RichTextString str = factory.createRichTextString(comment.getMessage());
     poiComment.setString(str);
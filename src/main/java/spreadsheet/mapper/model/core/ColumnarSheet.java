@@ -0,0 +1,322 @@
+package spreadsheet.mapper.model.core;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <pre>
+ * sheet stores values column by column, for keeping large sheet in memory.
+ * every column is an int array of value ids, the ids refer to a string pool shared by all columns of this sheet,
+ * same values are pooled once, id 0 is null value.
+ * the index of pooled values is only needed while loading, {@link #compact()} drops it after the sheet loaded
+ * (the readers do it at sheet end), so a high cardinality column does not keep an index entry per distinct value.
+ * no row or cell objects are kept, the {@link Row} and {@link Cell} got from this sheet are views created on access,
+ * they read (and {@link Row#addCell(Cell)} writes) the columns of this sheet, so do not hold them for long.
+ * the supplied row of {@link #addRow(Row)} is copied, it is not held by this sheet and not changed.
+ * the rows list and cells list are read only, add rows and cells by {@link #addRow(Row)} and {@link Row#addCell(Cell)}.
+ * the columns are stored by row position (1-based order of added rows), the row index is position from first row index.
+ * </pre>
+ */
+public class ColumnarSheet extends SheetBean {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  /*===============
+    value pool
+   ================*/
+  private String[] values = new String[INITIAL_CAPACITY];
+
+  // value -> id, null is not pooled, null after compact
+  private Map<String, Integer> valueIds = new HashMap<>();
+
+  private int sizeOfValues = 1;
+
+  /*===============
+    columns
+   ================*/
+  // column -> value id of rows, grows lazily, the rows after length are null
+  private int[][] columns = new int[INITIAL_CAPACITY][];
+
+  private int[] rowSizes = new int[INITIAL_CAPACITY];
+
+  private int sizeOfRows;
+
+  public ColumnarSheet() {
+    // default constructor
+  }
+
+  public ColumnarSheet(String name) {
+    super(name);
+  }
+
+  /**
+   * @param name          name of sheet, null if no name
+   * @param firstRowIndex 1-based index of the first row added
+   */
+  public ColumnarSheet(String name, int firstRowIndex) {
+    super(name, firstRowIndex);
+  }
+
+  @Override
+  public List<Row> getRows() {
+    return new AbstractList<Row>() {
+      @Override
+      public Row get(int index) {
+        return getRow(getFirstRowIndex() + index);
+      }
+
+      @Override
+      public int size() {
+        return sizeOfRows;
+      }
+    };
+  }
+
+  @Override
+  public int sizeOfRows() {
+    return sizeOfRows;
+  }
+
+  @Override
+  public Row getRow(int rowIndex) {
+    return new ColumnarRow(getPosition(rowIndex));
+  }
+
+  @Override
+  public boolean addRow(Row row) {
+    if (sizeOfRows == rowSizes.length) {
+      rowSizes = Arrays.copyOf(rowSizes, Math.max(rowSizes.length * 2, INITIAL_CAPACITY));
+    }
+    int position = ++sizeOfRows;
+    for (int i = 1; i <= row.sizeOfCells(); i++) {
+      addValue(position, row.getCell(i).getValue());
+    }
+    return true;
+  }
+
+  /**
+   * read value without creating views
+   *
+   * @param rowIndex    1-based
+   * @param columnIndex 1-based
+   * @return cell value
+   */
+  public String getValue(int rowIndex, int columnIndex) {
+    int position = getPosition(rowIndex);
+    if (columnIndex < 1 || columnIndex > rowSizes[position - 1]) {
+      throw new IllegalArgumentException("column index out of bounds");
+    }
+    if (columnIndex > columns.length) {
+      return null;
+    }
+    int[] column = columns[columnIndex - 1];
+    return column == null || position > column.length ? null : values[column[position - 1]];
+  }
+
+  /**
+   * @return distinct values count of this sheet (values added after {@link #compact()} are counted by each), null excluded
+   */
+  public int sizeOfValues() {
+    return sizeOfValues - 1;
+  }
+
+  /**
+   * drop the index of pooled values and trim the storage to the rows and values of this sheet,
+   * the values added after are still stored, but not pooled
+   */
+  public void compact() {
+    valueIds = null;
+    values = Arrays.copyOf(values, sizeOfValues);
+    rowSizes = Arrays.copyOf(rowSizes, sizeOfRows);
+    for (int i = 0; i < columns.length; i++) {
+      if (columns[i] != null && columns[i].length > sizeOfRows) {
+        columns[i] = Arrays.copyOf(columns[i], sizeOfRows);
+      }
+    }
+  }
+
+  /**
+   * @param rowIndex row index from first row index
+   * @return 1-based position of row in columns
+   */
+  private int getPosition(int rowIndex) {
+    int position = rowIndex - getFirstRowIndex() + 1;
+    if (position < 1 || position > sizeOfRows) {
+      throw new IllegalArgumentException("row index out of bounds");
+    }
+    return position;
+  }
+
+  private int sizeOfCells(int position) {
+    return rowSizes[position - 1];
+  }
+
+  private void addValue(int position, String value) {
+    int columnIndex = ++rowSizes[position - 1];
+    if (value == null) {
+      // value id of new cell is 0 already
+      return;
+    }
+
+    if (columnIndex > columns.length) {
+      columns = Arrays.copyOf(columns, Math.max(columns.length * 2, columnIndex));
+    }
+    int[] column = columns[columnIndex - 1];
+    if (column == null) {
+      column = new int[Math.max(rowSizes.length, position)];
+    } else if (position > column.length) {
+      column = Arrays.copyOf(column, Math.max(rowSizes.length, position));
+    }
+    column[position - 1] = getValueId(value);
+    columns[columnIndex - 1] = column;
+  }
+
+  private int getValueId(String value) {
+    Integer valueId = valueIds == null ? null : valueIds.get(value);
+    if (valueId != null) {
+      return valueId;
+    }
+
+    if (sizeOfValues == values.length) {
+      values = Arrays.copyOf(values, Math.max(values.length * 2, INITIAL_CAPACITY));
+    }
+    values[sizeOfValues] = value;
+    if (valueIds != null) {
+      valueIds.put(value, sizeOfValues);
+    }
+    return sizeOfValues++;
+  }
+
+  /**
+   * row view of this sheet
+   */
+  private class ColumnarRow implements Row {
+
+    private int position;
+
+    private ColumnarRow(int position) {
+      this.position = position;
+    }
+
+    @Override
+    public int getIndex() {
+      return getFirstRowIndex() + position - 1;
+    }
+
+    @Override
+    public List<Cell> getCells() {
+      return new AbstractList<Cell>() {
+        @Override
+        public Cell get(int index) {
+          return getCell(index + 1);
+        }
+
+        @Override
+        public int size() {
+          return sizeOfCells();
+        }
+      };
+    }
+
+    @Override
+    public int sizeOfCells() {
+      return ColumnarSheet.this.sizeOfCells(position);
+    }
+
+    @Override
+    public Cell getCell(int columnIndex) {
+      if (columnIndex < 1 || columnIndex > sizeOfCells()) {
+        throw new IllegalArgumentException("column index out of bounds");
+      }
+      return new ColumnarCell(this, columnIndex);
+    }
+
+    @Override
+    public boolean addCell(Cell cell) {
+      addValue(position, cell.getValue());
+      return true;
+    }
+
+    @Override
+    public Cell getFirstCell() {
+      if (sizeOfCells() == 0) {
+        return null;
+      }
+      return getCell(1);
+    }
+
+    @Override
+    public Sheet getSheet() {
+      return ColumnarSheet.this;
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+          .append("index", getIndex())
+          .toString();
+    }
+  }
+
+  /**
+   * cell view of this sheet
+   */
+  private class ColumnarCell implements Cell {
+
+    private ColumnarRow row;
+
+    private int index;
+
+    private ColumnarCell(ColumnarRow row, int index) {
+      this.row = row;
+      this.index = index;
+    }
+
+    @Override
+    public String getValue() {
+      return ColumnarSheet.this.getValue(row.getIndex(), index);
+    }
+
+    @Override
+    public int getIndex() {
+      return index;
+    }
+
+    @Override
+    public Row getRow() {
+      return row;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (obj == null || obj.getClass() != getClass()) {
+        return false;
+      }
+      ColumnarCell cell = (ColumnarCell) obj;
+      return Objects.equals(index, cell.index) &&
+          Objects.equals(getValue(), cell.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(index, getValue());
+    }
+
+    @Override
+    public String toString() {
+      return new ToStringBuilder(this)
+          .append("value", getValue())
+          .append("index", index)
+          .toString();
+    }
+  }
+}
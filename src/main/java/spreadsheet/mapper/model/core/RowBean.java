@@ -16,6 +16,24 @@ public class RowBean implements Row {
 
   private Sheet sheet;
 
+  public RowBean() {
+    // default constructor
+  }
+
+  /**
+   * <pre>
+   * row of supplied sheet at supplied index, but the sheet not hold this row,
+   * used when read rows one by one and the rows no need keep in sheet.
+   * </pre>
+   *
+   * @param sheet the sheet of this
+   * @param index 1-based
+   */
+  public RowBean(Sheet sheet, int index) {
+    this.sheet = sheet;
+    this.index = index;
+  }
+
   @Override
   public int getIndex() {
     return index;
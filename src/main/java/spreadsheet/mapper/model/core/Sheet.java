@@ -35,7 +35,7 @@ public interface Sheet extends Serializable {
   /**
    * get row by row index
    *
-   * @param rowIndex 1-based
+   * @param rowIndex 1-based, from the index of first row
    * @return row
    */
   Row getRow(int rowIndex);
@@ -6,6 +6,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
+ * <pre>
+ * the rows of sheet are indexed from first row index, 1 by default.
+ * the sheet read from a start row (see {@link spreadsheet.mapper.f2w.read.ReadOptions#startRow(int)})
+ * begins at the start row, so the rows keep their index in file.
+ * </pre>
  * Created by hanwen on 15-12-16.
  */
 public class SheetBean implements Sheet {
@@ -14,6 +19,8 @@ public class SheetBean implements Sheet {
 
   private String name;
 
+  private int firstRowIndex = 1;
+
   private List<Row> rows = new ArrayList<>();
 
   private Workbook workbook;
@@ -26,6 +33,18 @@ public class SheetBean implements Sheet {
     this.name = name;
   }
 
+  /**
+   * @param name          name of sheet, null if no name
+   * @param firstRowIndex 1-based index of the first row added
+   */
+  public SheetBean(String name, int firstRowIndex) {
+    if (firstRowIndex < 1) {
+      throw new IllegalArgumentException("first row index must be greater than 0");
+    }
+    this.name = name;
+    this.firstRowIndex = firstRowIndex;
+  }
+
   @Override
   public int getIndex() {
     return index;
@@ -36,6 +55,13 @@ public class SheetBean implements Sheet {
     return name;
   }
 
+  /**
+   * @return 1-based index of the first row
+   */
+  public int getFirstRowIndex() {
+    return firstRowIndex;
+  }
+
   @Override
   public List<Row> getRows() {
     return rows;
@@ -48,25 +74,25 @@ public class SheetBean implements Sheet {
 
   @Override
   public Row getRow(int rowIndex) {
-    if (rowIndex < 1 || rowIndex > sizeOfRows()) {
+    if (rowIndex < firstRowIndex || rowIndex >= firstRowIndex + sizeOfRows()) {
       throw new IllegalArgumentException("row index out of bounds");
     }
     if (sizeOfRows() == 0) {
       return null;
     }
-    return rows.get(rowIndex - 1);
+    return rows.get(rowIndex - firstRowIndex);
   }
 
   @Override
   public boolean addRow(Row row) {
     ((RowBean) row).setSheet(this);
-    ((RowBean) row).setIndex(sizeOfRows() + 1);
+    ((RowBean) row).setIndex(firstRowIndex + sizeOfRows());
     return rows.add(row);
   }
 
   @Override
   public Row getFirstRow() {
-    return getRow(1);
+    return getRow(firstRowIndex);
   }
 
   @Override
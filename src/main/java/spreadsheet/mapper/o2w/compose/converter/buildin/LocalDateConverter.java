@@ -10,6 +10,7 @@ import spreadsheet.mapper.model.core.Cell;
 import spreadsheet.mapper.model.meta.FieldMeta;
 import spreadsheet.mapper.o2w.compose.WorkbookComposeException;
 import spreadsheet.mapper.o2w.compose.converter.FieldConverterAdapter;
+import spreadsheet.mapper.utils.TextCodec;
 
 /**
  * local date text value with supplied pattern converter
@@ -42,7 +43,7 @@ public class LocalDateConverter<T> extends FieldConverterAdapter<T, LocalDateCon
         return null;
       }
 
-      return ((LocalDate) value).toString(pattern);
+      return TextCodec.print((LocalDate) value, pattern);
 
     } catch (NestedNullException e) {
       LOGGER.debug("{} is null", fieldMeta.getName());
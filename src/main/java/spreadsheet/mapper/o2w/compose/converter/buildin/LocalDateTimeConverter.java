@@ -10,6 +10,7 @@ import spreadsheet.mapper.model.core.Cell;
 import spreadsheet.mapper.model.meta.FieldMeta;
 import spreadsheet.mapper.o2w.compose.WorkbookComposeException;
 import spreadsheet.mapper.o2w.compose.converter.FieldConverterAdapter;
+import spreadsheet.mapper.utils.TextCodec;
 
 /**
  * local date time text value with supplied pattern converter
@@ -41,7 +42,7 @@ public class LocalDateTimeConverter<T> extends FieldConverterAdapter<T, LocalDat
       if (!(value instanceof LocalDateTime)) {
         return null;
       }
-      return ((LocalDateTime) value).toString(pattern);
+      return TextCodec.print((LocalDateTime) value, pattern);
 
     } catch (NestedNullException e) {
       LOGGER.debug("{} is null", fieldMeta.getName());
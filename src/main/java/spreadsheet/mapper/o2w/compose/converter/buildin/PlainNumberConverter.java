@@ -9,6 +9,7 @@ import spreadsheet.mapper.model.core.Cell;
 import spreadsheet.mapper.model.meta.FieldMeta;
 import spreadsheet.mapper.o2w.compose.WorkbookComposeException;
 import spreadsheet.mapper.o2w.compose.converter.FieldConverterAdapter;
+import spreadsheet.mapper.utils.TextCodec;
 
 import java.math.BigDecimal;
 
@@ -39,9 +40,9 @@ public class PlainNumberConverter<T> extends FieldConverterAdapter<T, PlainNumbe
       if (value instanceof BigDecimal) {
         return ((BigDecimal) value).stripTrailingZeros().toPlainString();
       } else if (value instanceof Double) {
-        return BigDecimal.valueOf((Double) value).stripTrailingZeros().toPlainString();
+        return TextCodec.toPlainText((Double) value);
       } else if (value instanceof Float) {
-        return new BigDecimal(Float.toString((Float) value)).stripTrailingZeros().toPlainString();
+        return TextCodec.toPlainText((Float) value);
       }
       return value.toString();
 
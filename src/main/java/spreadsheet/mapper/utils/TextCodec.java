@@ -0,0 +1,426 @@
+package spreadsheet.mapper.utils;
+
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.chrono.ISOChronology;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <pre>
+ * number and date to text codec shared by readers and converters.
+ * the common values are written directly without {@link BigDecimal}, {@link java.util.Calendar} or formatter:
+ * 1. integral numbers less than 10^15.
+ * 2. numbers of at most 4 decimals (like 12.5, 0.25) less than 10^11.
+ * 3. dates of fixed number patterns (like yyyy-MM-dd HH:mm:ss), the patterns of text fields (like MMM, EEE) are not fixed.
+ * the other values fall back to the original way, so the text is always the same as the original way.
+ * </pre>
+ */
+public class TextCodec {
+
+  private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+  private static final double MAX_INTEGRAL = 1e15;
+
+  private static final double MAX_DECIMAL = 1e11;
+
+  // all integers less than it are floats, the shortest text of them is the integer
+  private static final float MAX_INTEGRAL_FLOAT = 1 << 24;
+
+  private static final double[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000};
+
+  // day 1 of 1900 date windowing is 1900-01-01, of 1904 date windowing is 1904-01-02
+  private static final long EPOCH_DAY_1900 = -25567;
+
+  private static final long EPOCH_DAY_1904 = -24107;
+
+  // 10000-01-01 of 1900 date windowing, excel dates are before it
+  private static final double MAX_EXCEL_DATE = 2958466;
+
+  private static final ConcurrentMap<String, DatePattern> DATE_PATTERNS = new ConcurrentHashMap<>();
+
+  private TextCodec() {
+    // default constructor
+  }
+
+  /**
+   * @param value number
+   * @return same as {@link NumberToTextConverter#toText(double)}
+   */
+  public static String toText(double value) {
+    String text = toShortText(value);
+    return text != null ? text : NumberToTextConverter.toText(value);
+  }
+
+  /**
+   * @param value number
+   * @return same as {@link BigDecimal#valueOf(double)} stripTrailingZeros toPlainString
+   */
+  public static String toPlainText(double value) {
+    if (value == 0) {
+      // negative zero is zero of big decimal
+      return "0";
+    }
+    String text = toShortText(value);
+    return text != null ? text : BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+  }
+
+  /**
+   * @param value number
+   * @return same as {@link BigDecimal} of {@link Float#toString(float)} stripTrailingZeros toPlainString
+   */
+  public static String toPlainText(float value) {
+    if (value == 0) {
+      return "0";
+    }
+    // float decimals are not the decimals of double
+    long integral = (long) value;
+    if (integral == value && Math.abs(value) < MAX_INTEGRAL_FLOAT) {
+      return Long.toString(integral);
+    }
+    return new BigDecimal(Float.toString(value)).stripTrailingZeros().toPlainString();
+  }
+
+  /**
+   * @param value   local date
+   * @param pattern joda pattern
+   * @return same as {@link LocalDate#toString(String)}
+   */
+  public static String print(LocalDate value, String pattern) {
+    DatePattern datePattern = getDatePattern(pattern);
+    if (datePattern == null || datePattern.timeFields || !(value.getChronology() instanceof ISOChronology)) {
+      return value.toString(pattern);
+    }
+    String text = datePattern.format(value.getYear(), value.getMonthOfYear(), value.getDayOfMonth(), 0, 0, 0, 0);
+    return text != null ? text : value.toString(pattern);
+  }
+
+  /**
+   * @param value   local date time
+   * @param pattern joda pattern
+   * @return same as {@link LocalDateTime#toString(String)}
+   */
+  public static String print(LocalDateTime value, String pattern) {
+    DatePattern datePattern = getDatePattern(pattern);
+    if (datePattern == null || !(value.getChronology() instanceof ISOChronology)) {
+      return value.toString(pattern);
+    }
+    String text = datePattern.format(
+        value.getYear(), value.getMonthOfYear(), value.getDayOfMonth(),
+        value.getHourOfDay(), value.getMinuteOfHour(), value.getSecondOfMinute(), value.getMillisOfSecond());
+    return text != null ? text : value.toString(pattern);
+  }
+
+  /**
+   * <pre>
+   * format excel date without calendar, the time zone is the zone of the date read by poi and formatted,
+   * the fields are the fields of gregorian calendar and the digits are ascii digits.
+   * null if the date can not be formatted directly (like the time skipped by daylight saving time),
+   * then format the date got by {@link org.apache.poi.ss.usermodel.DateUtil#getJavaDate(double, boolean)}.
+   * </pre>
+   *
+   * @param value    excel date
+   * @param date1904 if workbook using 1904 date windowing
+   * @param pattern  simple date format pattern
+   * @param timeZone time zone
+   * @return text or null
+   */
+  public static String formatExcelDate(double value, boolean date1904, String pattern, TimeZone timeZone) {
+    DatePattern datePattern = getDatePattern(pattern);
+    if (datePattern == null || !(value >= 0 && value < MAX_EXCEL_DATE)) {
+      return null;
+    }
+
+    // same as DateUtil#setCalendar, the 1900-02-29 of excel is 1900-03-01
+    int wholeDays = (int) Math.floor(value);
+    int millisInDay = (int) ((value - wholeDays) * DAY_MILLIS + 0.5);
+    long epochDay;
+    if (date1904) {
+      epochDay = EPOCH_DAY_1904 + wholeDays;
+    } else {
+      epochDay = EPOCH_DAY_1900 + wholeDays - (wholeDays < 61 ? 1 : 2);
+    }
+
+    long localMillis = epochDay * DAY_MILLIS + millisInDay;
+    if (!isLocalTime(localMillis, timeZone)) {
+      return null;
+    }
+
+    epochDay = floorDiv(localMillis, DAY_MILLIS);
+    int millisOfDay = (int) (localMillis - epochDay * DAY_MILLIS);
+
+    // civil from days, days of 400 years cycle starts from 0000-03-01
+    long days = epochDay + 719468;
+    long era = floorDiv(days, 146097);
+    int dayOfEra = (int) (days - era * 146097);
+    int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    int monthFromMarch = (5 * dayOfYear + 2) / 153;
+    int day = dayOfYear - (153 * monthFromMarch + 2) / 5 + 1;
+    int month = monthFromMarch < 10 ? monthFromMarch + 3 : monthFromMarch - 9;
+    int year = (int) (era * 400 + yearOfEra + (month <= 2 ? 1 : 0));
+
+    return datePattern.format(year, month, day,
+        millisOfDay / 3600000, millisOfDay / 60000 % 60, millisOfDay / 1000 % 60, millisOfDay % 1000);
+  }
+
+  private static long floorDiv(long dividend, long divisor) {
+    long quotient = dividend / divisor;
+    return dividend % divisor < 0 ? quotient - 1 : quotient;
+  }
+
+  /**
+   * @return true if the local time exists in time zone (not skipped by daylight saving time or zone offset change)
+   */
+  private static boolean isLocalTime(long localMillis, TimeZone timeZone) {
+    long utcMillis = localMillis - timeZone.getOffset(localMillis - timeZone.getRawOffset());
+    if (utcMillis + timeZone.getOffset(utcMillis) == localMillis) {
+      return true;
+    }
+    utcMillis = localMillis - timeZone.getOffset(utcMillis);
+    return utcMillis + timeZone.getOffset(utcMillis) == localMillis;
+  }
+
+  /**
+   * @return text of integral or short decimal, null if not
+   */
+  private static String toShortText(double value) {
+    if (!(value > -MAX_INTEGRAL && value < MAX_INTEGRAL)) {
+      // NaN and infinity included
+      return null;
+    }
+
+    long integral = (long) value;
+    if (integral == value) {
+      // negative zero is -0 of poi
+      return integral == 0 && Double.doubleToRawLongBits(value) != 0 ? null : Long.toString(integral);
+    }
+    if (!(value > -MAX_DECIMAL && value < MAX_DECIMAL)) {
+      return null;
+    }
+
+    for (int scale = 1; scale < POWERS_OF_TEN.length; scale++) {
+      double power = POWERS_OF_TEN[scale];
+      long scaled = Math.round(value * power);
+      // the double nearest to the decimal is the value, so the decimal is the shortest text of value
+      if (scaled / power == value) {
+        return toDecimalText(scaled, scale);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param scaled decimal * 10^scale, not ends with 0
+   * @param scale  decimals count
+   * @return decimal text
+   */
+  private static String toDecimalText(long scaled, int scale) {
+    char[] chars = new char[20];
+    int position = chars.length;
+    long remaining = Math.abs(scaled);
+
+    for (int i = 0; i < scale; i++) {
+      chars[--position] = (char) ('0' + remaining % 10);
+      remaining /= 10;
+    }
+    chars[--position] = '.';
+    do {
+      chars[--position] = (char) ('0' + remaining % 10);
+      remaining /= 10;
+    } while (remaining > 0);
+    if (scaled < 0) {
+      chars[--position] = '-';
+    }
+
+    return new String(chars, position, chars.length - position);
+  }
+
+  /**
+   * @return compiled pattern, null if not fixed
+   */
+  private static DatePattern getDatePattern(String pattern) {
+    if (pattern == null) {
+      return null;
+    }
+
+    DatePattern datePattern = DATE_PATTERNS.get(pattern);
+    if (datePattern == null) {
+      datePattern = DatePattern.compile(pattern);
+      DATE_PATTERNS.putIfAbsent(pattern, datePattern);
+    }
+    return datePattern.fixed ? datePattern : null;
+  }
+
+  /**
+   * <pre>
+   * pattern of number fields and literals, the letters and quotes are the same of simple date format and joda:
+   * y (yy is two digits year), M, d, H, m, s (at most two letters) and SSS (millis of second).
+   * </pre>
+   */
+  private static class DatePattern {
+
+    private boolean fixed = true;
+
+    private boolean timeFields;
+
+    // field letter, 0 is literal
+    private char[] letters;
+
+    private int[] counts;
+
+    private String[] literals;
+
+    private int length;
+
+    private static DatePattern compile(String pattern) {
+      DatePattern datePattern = new DatePattern();
+      List<Character> letters = new ArrayList<>();
+      List<Integer> counts = new ArrayList<>();
+      List<String> literals = new ArrayList<>();
+
+      int i = 0;
+      while (i < pattern.length()) {
+        char c = pattern.charAt(i);
+
+        if (c == '\'') {
+          // quoted literal, '' is quote
+          StringBuilder literal = new StringBuilder();
+          if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+            literal.append('\'');
+            i += 2;
+          } else {
+            i++;
+            while (true) {
+              if (i >= pattern.length()) {
+                // unterminated quote
+                datePattern.fixed = false;
+                return datePattern;
+              }
+              char quoted = pattern.charAt(i);
+              if (quoted == '\'') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                  literal.append('\'');
+                  i += 2;
+                  continue;
+                }
+                i++;
+                break;
+              }
+              literal.append(quoted);
+              i++;
+            }
+          }
+          letters.add((char) 0);
+          counts.add(0);
+          literals.add(literal.toString());
+          continue;
+        }
+
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+          int count = 1;
+          while (i + count < pattern.length() && pattern.charAt(i + count) == c) {
+            count++;
+          }
+          if (!isFixedField(c, count)) {
+            datePattern.fixed = false;
+            return datePattern;
+          }
+          datePattern.timeFields |= c == 'H' || c == 'm' || c == 's' || c == 'S';
+          letters.add(c);
+          counts.add(count);
+          literals.add(null);
+          i += count;
+          continue;
+        }
+
+        letters.add((char) 0);
+        counts.add(0);
+        literals.add(String.valueOf(c));
+        i++;
+      }
+
+      datePattern.letters = new char[letters.size()];
+      datePattern.counts = new int[letters.size()];
+      datePattern.literals = literals.toArray(new String[literals.size()]);
+      for (int j = 0; j < letters.size(); j++) {
+        datePattern.letters[j] = letters.get(j);
+        datePattern.counts[j] = counts.get(j);
+        datePattern.length += letters.get(j) == 0 ? literals.get(j).length() : Math.max(counts.get(j), 4);
+      }
+      return datePattern;
+    }
+
+    private static boolean isFixedField(char letter, int count) {
+      switch (letter) {
+        case 'y':
+          return count <= 4;
+        case 'M':
+        case 'd':
+        case 'H':
+        case 'm':
+        case 's':
+          return count <= 2;
+        case 'S':
+          return count == 3;
+        default:
+          return false;
+      }
+    }
+
+    /**
+     * @return text, null if year is not of 4 digits at most
+     */
+    private String format(int year, int month, int day, int hour, int minute, int second, int millis) {
+      if (year < 1 || year > 9999) {
+        return null;
+      }
+
+      StringBuilder text = new StringBuilder(length);
+      for (int i = 0; i < letters.length; i++) {
+        switch (letters[i]) {
+          case 0:
+            text.append(literals[i]);
+            break;
+          case 'y':
+            appendPadded(text, counts[i] == 2 ? year % 100 : year, counts[i]);
+            break;
+          case 'M':
+            appendPadded(text, month, counts[i]);
+            break;
+          case 'd':
+            appendPadded(text, day, counts[i]);
+            break;
+          case 'H':
+            appendPadded(text, hour, counts[i]);
+            break;
+          case 'm':
+            appendPadded(text, minute, counts[i]);
+            break;
+          case 's':
+            appendPadded(text, second, counts[i]);
+            break;
+          default:
+            // S
+            appendPadded(text, millis, counts[i]);
+            break;
+        }
+      }
+      return text.toString();
+    }
+
+    private static void appendPadded(StringBuilder text, int value, int count) {
+      int digits = value < 10 ? 1 : value < 100 ? 2 : value < 1000 ? 3 : 4;
+      for (int i = digits; i < count; i++) {
+        text.append('0');
+      }
+      text.append(value);
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package spreadsheet.mapper.w2o;
+
+import org.apache.commons.lang3.StringUtils;
+import spreadsheet.mapper.model.core.Cell;
+import spreadsheet.mapper.model.core.Row;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.core.Workbook;
+import spreadsheet.mapper.model.meta.FieldMeta;
+import spreadsheet.mapper.model.meta.FieldMetaBean;
+import spreadsheet.mapper.model.meta.HeaderMetaBean;
+import spreadsheet.mapper.model.meta.SheetMeta;
+import spreadsheet.mapper.model.meta.SheetMetaBean;
+import spreadsheet.mapper.model.meta.WorkbookMeta;
+import spreadsheet.mapper.model.meta.WorkbookMetaBean;
+
+/**
+ * <pre>
+ * workbook meta factory from the header rows (the first rows) of every sheet, the data rows are never visited.
+ * field name is the value of field name row (default is the last header row), column without field name is not a field,
+ * if field names duplicated the first column is the field.
+ * every non blank header row value of field column is a header meta of the field,
+ * data start row index is header row count + 1.
+ * </pre>
+ */
+public class HeaderWorkbookMetaFactory implements WorkbookMetaFactory {
+
+  private int headerRowCount;
+
+  private int fieldNameRowIndex;
+
+  /**
+   * @param headerRowCount header row count, the last header row is field name row
+   */
+  public HeaderWorkbookMetaFactory(int headerRowCount) {
+    this(headerRowCount, headerRowCount);
+  }
+
+  /**
+   * @param headerRowCount    header row count
+   * @param fieldNameRowIndex 1-based row index of field names, must be a header row
+   */
+  public HeaderWorkbookMetaFactory(int headerRowCount, int fieldNameRowIndex) {
+    if (fieldNameRowIndex < 1 || fieldNameRowIndex > headerRowCount) {
+      throw new IllegalArgumentException("field name row must be a header row");
+    }
+    this.headerRowCount = headerRowCount;
+    this.fieldNameRowIndex = fieldNameRowIndex;
+  }
+
+  public int getHeaderRowCount() {
+    return headerRowCount;
+  }
+
+  @Override
+  public WorkbookMeta create(Workbook workbook) {
+    WorkbookMeta workbookMeta = new WorkbookMetaBean();
+
+    for (Sheet sheet : workbook.getSheets()) {
+      workbookMeta.addSheetMeta(createSheetMeta(sheet));
+    }
+
+    return workbookMeta;
+  }
+
+  private SheetMeta createSheetMeta(Sheet sheet) {
+    SheetMeta sheetMeta = new SheetMetaBean(sheet.getName(), headerRowCount + 1);
+
+    if (sheet.sizeOfRows() < fieldNameRowIndex) {
+      return sheetMeta;
+    }
+
+    Row fieldNameRow = sheet.getRow(fieldNameRowIndex);
+    for (int i = 1; i <= fieldNameRow.sizeOfCells(); i++) {
+
+      String fieldName = fieldNameRow.getCell(i).getValue();
+      if (StringUtils.isBlank(fieldName) || sheetMeta.getFieldMeta(fieldName) != null) {
+        continue;
+      }
+
+      FieldMeta fieldMeta = new FieldMetaBean(fieldName, i);
+      for (int j = 1; j <= Math.min(headerRowCount, sheet.sizeOfRows()); j++) {
+
+        Row row = sheet.getRow(j);
+        Cell cell = i <= row.sizeOfCells() ? row.getCell(i) : null;
+        if (cell != null && StringUtils.isNotBlank(cell.getValue())) {
+          fieldMeta.addHeaderMeta(new HeaderMetaBean(j, cell.getValue()));
+        }
+      }
+      sheetMeta.addFieldMeta(fieldMeta);
+    }
+
+    return sheetMeta;
+  }
+}
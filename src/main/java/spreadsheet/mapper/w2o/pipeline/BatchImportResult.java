@@ -0,0 +1,74 @@
+package spreadsheet.mapper.w2o.pipeline;
+
+import spreadsheet.mapper.model.msg.Message;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <pre>
+ * result of one file of {@link BatchImporter}, the data is in row order.
+ * only the valid rows are processed, so the data is complete only if valid.
+ * a failed file (read error, process error) has the failure and no data.
+ * </pre>
+ */
+public class BatchImportResult<T> {
+
+  private File file;
+
+  private boolean valid;
+
+  private List<T> data;
+
+  private List<Message> errorMessages;
+
+  private Throwable failure;
+
+  public BatchImportResult(File file, boolean valid, List<T> data, List<Message> errorMessages) {
+    this.file = file;
+    this.valid = valid;
+    this.data = data;
+    this.errorMessages = errorMessages;
+  }
+
+  public BatchImportResult(File file, Throwable failure) {
+    this.file = file;
+    this.failure = failure;
+    this.data = Collections.emptyList();
+    this.errorMessages = Collections.emptyList();
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * @return true if file read and processed, whether valid or not
+   */
+  public boolean isSucceeded() {
+    return failure == null;
+  }
+
+  /**
+   * @return failure of file, null if succeeded
+   */
+  public Throwable getFailure() {
+    return failure;
+  }
+
+  /**
+   * @return true if succeeded and pass all validators
+   */
+  public boolean isValid() {
+    return valid;
+  }
+
+  public List<T> getData() {
+    return data;
+  }
+
+  public List<Message> getErrorMessages() {
+    return errorMessages;
+  }
+}
@@ -0,0 +1,201 @@
+package spreadsheet.mapper.w2o.pipeline;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import spreadsheet.mapper.f2w.read.RowCursor;
+import spreadsheet.mapper.f2w.read.RowCursorHandler;
+import spreadsheet.mapper.f2w.read.WorkbookReadHelperAdapter;
+import spreadsheet.mapper.model.core.Row;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.meta.SheetMeta;
+import spreadsheet.mapper.model.msg.Message;
+import spreadsheet.mapper.w2o.process.SheetProcessHelper;
+import spreadsheet.mapper.w2o.process.WorkbookProcessException;
+import spreadsheet.mapper.w2o.validation.SheetValidationHelper;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * <pre>
+ * import many files of same sheet meta concurrently, one file one task on executor service.
+ * the helpers are set up once and shared by all files instead of per file:
+ * 1. the workbook read helper reads all files, so it must keep no state of read in itself,
+ * the read helpers of this library hold the state by each read.
+ * 2. the sheet process helper processes all files, so the setters, object factory and listeners must be thread safe.
+ * 3. validators are stateful, so each file is validated by a new sheet validation helper of {@link SheetValidationHelperFactory}.
+ * the setters, the date format classification of cell styles and the compiled rules cache the class level data statically,
+ * so they are shared by the files too.
+ * rows of each file are validated in row order as {@link SheetPipeline}, the valid rows are processed after the file read.
+ * a file failed does not stop the others, its failure is in its result.
+ * the executor service is not shutdown after run.
+ * </pre>
+ */
+public class BatchImporter<T> {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BatchImporter.class);
+
+  private WorkbookReadHelperAdapter workbookReadHelper;
+
+  private ExecutorService executorService;
+
+  private SheetProcessHelper<T> sheetProcessHelper;
+
+  private SheetValidationHelperFactory sheetValidationHelperFactory;
+
+  /**
+   * @param workbookReadHelper {@link WorkbookReadHelperAdapter} reads all files
+   * @param executorService    files run on
+   */
+  public BatchImporter(WorkbookReadHelperAdapter workbookReadHelper, ExecutorService executorService) {
+    if (workbookReadHelper == null) {
+      throw new IllegalArgumentException("workbook read helper can not be null");
+    }
+    if (executorService == null) {
+      throw new IllegalArgumentException("executor service can not be null");
+    }
+    this.workbookReadHelper = workbookReadHelper;
+    this.executorService = executorService;
+  }
+
+  public BatchImporter<T> setSheetProcessHelper(SheetProcessHelper<T> sheetProcessHelper) {
+    if (sheetProcessHelper == null) {
+      throw new IllegalArgumentException("sheet process helper can not be null");
+    }
+    this.sheetProcessHelper = sheetProcessHelper;
+    return this;
+  }
+
+  /**
+   * @param sheetValidationHelperFactory rows are not validated if not set
+   * @return {@link BatchImporter}
+   */
+  public BatchImporter<T> setSheetValidationHelperFactory(SheetValidationHelperFactory sheetValidationHelperFactory) {
+    if (sheetValidationHelperFactory == null) {
+      throw new IllegalArgumentException("sheet validation helper factory can not be null");
+    }
+    this.sheetValidationHelperFactory = sheetValidationHelperFactory;
+    return this;
+  }
+
+  /**
+   * @param files     files to import
+   * @param sheetMeta the sheet of sheet index is read, the other sheets are ignored
+   * @return results of files in files order
+   */
+  public List<BatchImportResult<T>> run(Collection<File> files, SheetMeta sheetMeta) {
+    if (sheetProcessHelper == null) {
+      throw new WorkbookProcessException("set sheet process helper first");
+    }
+    if (files == null) {
+      throw new IllegalArgumentException("files can not be null");
+    }
+    if (sheetMeta == null) {
+      throw new IllegalArgumentException("sheet meta can not be null");
+    }
+
+    List<File> fileList = new ArrayList<>(files);
+    for (File file : fileList) {
+      if (file == null) {
+        throw new IllegalArgumentException("file can not be null");
+      }
+    }
+
+    List<Future<BatchImportResult<T>>> futures = new ArrayList<>(fileList.size());
+    for (File file : fileList) {
+      futures.add(executorService.submit(new FileImport(file, sheetMeta)));
+    }
+
+    List<BatchImportResult<T>> results = new ArrayList<>(futures.size());
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        results.add(futures.get(i).get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        for (Future<BatchImportResult<T>> future : futures) {
+          future.cancel(true);
+        }
+        throw new WorkbookProcessException(e);
+      } catch (ExecutionException e) {
+        // error not caught by the file import
+        results.add(new BatchImportResult<T>(fileList.get(i), e.getCause()));
+      }
+    }
+    return results;
+  }
+
+  /**
+   * import of one file, the state is only accessed by the thread running it
+   */
+  private class FileImport implements Callable<BatchImportResult<T>>, RowCursorHandler {
+
+    private File file;
+
+    private SheetMeta sheetMeta;
+
+    private SheetValidationHelper sheetValidationHelper;
+
+    private List<Row> validRows = new ArrayList<>();
+
+    private boolean inSheet;
+
+    private boolean sheetValid = true;
+
+    private boolean rowsValid = true;
+
+    private FileImport(File file, SheetMeta sheetMeta) {
+      this.file = file;
+      this.sheetMeta = sheetMeta;
+    }
+
+    @Override
+    public BatchImportResult<T> call() {
+      try {
+        sheetValidationHelper = sheetValidationHelperFactory == null ? null : sheetValidationHelperFactory.create();
+
+        workbookReadHelper.read(file, this);
+        List<T> data = sheetProcessHelper.processRows(validRows, sheetMeta);
+        List<Message> errorMessages = sheetValidationHelper == null ? new ArrayList<Message>() : sheetValidationHelper.getErrorMessages();
+
+        return new BatchImportResult<>(file, sheetValid && rowsValid, data, errorMessages);
+      } catch (RuntimeException e) {
+        LOGGER.error("import file[" + file.getPath() + "] failure: " + ExceptionUtils.getStackTrace(e));
+        return new BatchImportResult<>(file, e);
+      }
+    }
+
+    @Override
+    public void onSheetStart(Sheet sheet) {
+      inSheet = sheet.getIndex() == sheetMeta.getSheetIndex();
+      if (inSheet && sheetValidationHelper != null && !sheetValidationHelper.validSheet(sheet, sheetMeta)) {
+        sheetValid = false;
+      }
+    }
+
+    @Override
+    public void onRow(RowCursor rowCursor) {
+      if (!inSheet || !sheetValid) {
+        return;
+      }
+
+      Row row = rowCursor.toRow();
+      if (sheetValidationHelper == null || sheetValidationHelper.validRow(row, sheetMeta)) {
+        validRows.add(row);
+      } else {
+        rowsValid = false;
+      }
+    }
+
+    @Override
+    public void onSheetEnd(Sheet sheet) {
+      inSheet = false;
+    }
+  }
+}
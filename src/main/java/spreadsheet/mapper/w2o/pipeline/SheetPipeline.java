@@ -0,0 +1,406 @@
+package spreadsheet.mapper.w2o.pipeline;
+
+import spreadsheet.mapper.f2w.read.RowCursor;
+import spreadsheet.mapper.f2w.read.RowCursorHandler;
+import spreadsheet.mapper.f2w.read.WorkbookReadHelperAdapter;
+import spreadsheet.mapper.model.core.Row;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.meta.SheetMeta;
+import spreadsheet.mapper.model.msg.Message;
+import spreadsheet.mapper.w2o.process.SheetProcessHelper;
+import spreadsheet.mapper.w2o.process.WorkbookProcessException;
+import spreadsheet.mapper.w2o.validation.SheetValidationHelper;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <pre>
+ * pipelined read: the calling thread parses the file (producer), rows of the sheet of sheet meta are put into a bounded queue
+ * batch by batch, the consumers on executor service take the batches to valid and process.
+ * 1. back pressure: parsing blocks when queue is full.
+ * 2. batches are validated one by one in row order ({@link SheetValidationHelper#validRow(Row, SheetMeta)}),
+ * because some validators are stateful, the valid rows then processed ({@link SheetProcessHelper#processRows(List, SheetMeta)})
+ * concurrently if more than one consumer, so the setters, object factory and listeners must be thread safe in this case.
+ * 3. the result data is in row order whatever the consumers finish order.
+ * 4. error of parsing stops the consumers, error of consumers stops the parsing, the first error is thrown.
+ * sheet validators are validated at sheet start with the sheet without rows, the rows are ignored if sheet invalid.
+ * the {@link spreadsheet.mapper.w2o.process.listener.SheetProcessListener} is not called.
+ * the executor service is not shutdown after run.
+ * </pre>
+ */
+public class SheetPipeline<T> {
+
+  private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+  private WorkbookReadHelperAdapter workbookReadHelper;
+
+  private ExecutorService executorService;
+
+  private SheetProcessHelper<T> sheetProcessHelper;
+
+  private SheetValidationHelper sheetValidationHelper;
+
+  private int consumerCount = 1;
+
+  private int batchSize = 256;
+
+  private int queueCapacity = 16;
+
+  /**
+   * @param workbookReadHelper {@link WorkbookReadHelperAdapter}
+   * @param executorService    consumers run on, can run one consumer at least
+   */
+  public SheetPipeline(WorkbookReadHelperAdapter workbookReadHelper, ExecutorService executorService) {
+    if (workbookReadHelper == null) {
+      throw new IllegalArgumentException("workbook read helper can not be null");
+    }
+    if (executorService == null) {
+      throw new IllegalArgumentException("executor service can not be null");
+    }
+    this.workbookReadHelper = workbookReadHelper;
+    this.executorService = executorService;
+  }
+
+  public SheetPipeline<T> setSheetProcessHelper(SheetProcessHelper<T> sheetProcessHelper) {
+    if (sheetProcessHelper == null) {
+      throw new IllegalArgumentException("sheet process helper can not be null");
+    }
+    this.sheetProcessHelper = sheetProcessHelper;
+    return this;
+  }
+
+  /**
+   * @param sheetValidationHelper rows are not validated if not set
+   * @return {@link SheetPipeline}
+   */
+  public SheetPipeline<T> setSheetValidationHelper(SheetValidationHelper sheetValidationHelper) {
+    if (sheetValidationHelper == null) {
+      throw new IllegalArgumentException("sheet validation helper can not be null");
+    }
+    this.sheetValidationHelper = sheetValidationHelper;
+    return this;
+  }
+
+  public SheetPipeline<T> setConsumerCount(int consumerCount) {
+    if (consumerCount < 1) {
+      throw new IllegalArgumentException("consumer count must be greater than 0");
+    }
+    this.consumerCount = consumerCount;
+    return this;
+  }
+
+  public SheetPipeline<T> setBatchSize(int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batch size must be greater than 0");
+    }
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * @param queueCapacity max batches waiting for consumers
+   * @return {@link SheetPipeline}
+   */
+  public SheetPipeline<T> setQueueCapacity(int queueCapacity) {
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("queue capacity must be greater than 0");
+    }
+    this.queueCapacity = queueCapacity;
+    return this;
+  }
+
+  /**
+   * @param inputStream auto close
+   * @param sheetMeta   the sheet of sheet index is read, the other sheets are ignored
+   * @return {@link SheetPipelineResult}
+   */
+  public SheetPipelineResult<T> run(InputStream inputStream, SheetMeta sheetMeta) {
+    if (sheetProcessHelper == null) {
+      throw new WorkbookProcessException("set sheet process helper first");
+    }
+    if (sheetMeta == null) {
+      throw new IllegalArgumentException("sheet meta can not be null");
+    }
+
+    return new PipelineRun(sheetMeta).execute(inputStream);
+  }
+
+  private static class Batch {
+
+    private int sequence;
+
+    private List<Row> rows;
+
+    private Batch(int sequence, List<Row> rows) {
+      this.sequence = sequence;
+      this.rows = rows;
+    }
+  }
+
+  /**
+   * state of one run, the producer side fields are only accessed by the parsing thread
+   */
+  private class PipelineRun implements RowCursorHandler {
+
+    // no more batches, every consumer puts it back for the next consumer
+    private final Batch end = new Batch(-1, Collections.<Row>emptyList());
+
+    private SheetMeta sheetMeta;
+
+    private BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(queueCapacity);
+
+    private AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private ConcurrentMap<Integer, List<T>> results = new ConcurrentHashMap<>();
+
+    private volatile boolean sheetValid = true;
+
+    private volatile boolean rowsValid = true;
+
+    /*===============
+      validate turn
+     ================*/
+    private ReentrantLock validateLock = new ReentrantLock();
+
+    private Condition validateTurn = validateLock.newCondition();
+
+    private int validateSequence;
+
+    /*===============
+      producer state
+     ================*/
+    private boolean inSheet;
+
+    private List<Row> batchRows;
+
+    private int batchCount;
+
+    private PipelineRun(SheetMeta sheetMeta) {
+      this.sheetMeta = sheetMeta;
+      this.batchRows = new ArrayList<>(batchSize);
+    }
+
+    private SheetPipelineResult<T> execute(InputStream inputStream) {
+      List<Future<?>> consumers = new ArrayList<>(consumerCount);
+      for (int i = 0; i < consumerCount; i++) {
+        consumers.add(executorService.submit(new Runnable() {
+          @Override
+          public void run() {
+            consume();
+          }
+        }));
+      }
+
+      try {
+        workbookReadHelper.read(inputStream, this);
+      } catch (RuntimeException e) {
+        // the parsing error caused by consumer error is not the first
+        fail(e);
+      } finally {
+        putEnd(consumers);
+      }
+
+      for (Future<?> consumer : consumers) {
+        try {
+          consumer.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          fail(e);
+        } catch (ExecutionException e) {
+          fail(e.getCause());
+        }
+      }
+
+      Throwable throwable = failure.get();
+      if (throwable instanceof RuntimeException) {
+        throw (RuntimeException) throwable;
+      }
+      if (throwable instanceof Error) {
+        throw (Error) throwable;
+      }
+      if (throwable != null) {
+        throw new WorkbookProcessException(throwable);
+      }
+
+      List<T> data = new ArrayList<>();
+      for (int i = 0; i < batchCount; i++) {
+        data.addAll(results.get(i));
+      }
+      List<Message> errorMessages = sheetValidationHelper == null ? new ArrayList<Message>() : sheetValidationHelper.getErrorMessages();
+
+      return new SheetPipelineResult<>(sheetValid && rowsValid, data, errorMessages);
+    }
+
+    /*===============
+      producer
+     ================*/
+    @Override
+    public void onSheetStart(Sheet sheet) {
+      inSheet = sheet.getIndex() == sheetMeta.getSheetIndex();
+      if (inSheet && sheetValidationHelper != null && !sheetValidationHelper.validSheet(sheet, sheetMeta)) {
+        sheetValid = false;
+      }
+    }
+
+    @Override
+    public void onRow(RowCursor rowCursor) {
+      if (!inSheet || !sheetValid) {
+        return;
+      }
+
+      batchRows.add(rowCursor.toRow());
+      if (batchRows.size() >= batchSize) {
+        putBatch();
+      }
+    }
+
+    @Override
+    public void onSheetEnd(Sheet sheet) {
+      if (inSheet && !batchRows.isEmpty()) {
+        putBatch();
+      }
+      inSheet = false;
+    }
+
+    private void putBatch() {
+      Batch batch = new Batch(batchCount, batchRows);
+      try {
+        while (!queue.offer(batch, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+          checkFailure();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new WorkbookProcessException(e);
+      }
+      checkFailure();
+
+      batchCount++;
+      batchRows = new ArrayList<>(batchSize);
+    }
+
+    private void checkFailure() {
+      Throwable throwable = failure.get();
+      if (throwable != null) {
+        // stops the parsing
+        throw new WorkbookProcessException("pipeline consumer failed", throwable);
+      }
+    }
+
+    private void putEnd(List<Future<?>> consumers) {
+      try {
+        while (!queue.offer(end, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+          if (allDone(consumers)) {
+            // consumers stopped by error, no one takes
+            return;
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        fail(e);
+        for (Future<?> consumer : consumers) {
+          consumer.cancel(true);
+        }
+      }
+    }
+
+    private boolean allDone(List<Future<?>> consumers) {
+      for (Future<?> consumer : consumers) {
+        if (!consumer.isDone()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * set the first error and wake up consumers waiting for validate turn,
+     * the turn of a batch never comes if it is not produced or dropped by failure
+     */
+    private void fail(Throwable throwable) {
+      failure.compareAndSet(null, throwable);
+      signalValidateTurn();
+    }
+
+    private void signalValidateTurn() {
+      validateLock.lock();
+      try {
+        validateTurn.signalAll();
+      } finally {
+        validateLock.unlock();
+      }
+    }
+
+    /*===============
+      consumer
+     ================*/
+    private void consume() {
+      try {
+        while (true) {
+          Batch batch = queue.take();
+          if (batch == end) {
+            queue.offer(end);
+            return;
+          }
+          if (failure.get() != null) {
+            // the batch is dropped, consumers waiting for its validate turn must not wait any more
+            signalValidateTurn();
+            return;
+          }
+
+          List<Row> validRows = sheetValidationHelper == null ? batch.rows : validInTurn(batch);
+          if (validRows == null) {
+            return;
+          }
+          results.put(batch.sequence, sheetProcessHelper.processRows(validRows, sheetMeta));
+        }
+      } catch (Throwable e) {
+        fail(e);
+      }
+    }
+
+    /**
+     * @return valid rows of batch, null if failed by other consumer
+     */
+    private List<Row> validInTurn(Batch batch) throws InterruptedException {
+      validateLock.lock();
+      try {
+        while (validateSequence != batch.sequence && failure.get() == null) {
+          validateTurn.await();
+        }
+        if (failure.get() != null) {
+          validateTurn.signalAll();
+          return null;
+        }
+
+        List<Row> validRows = new ArrayList<>(batch.rows.size());
+        for (Row row : batch.rows) {
+          if (sheetValidationHelper.validRow(row, sheetMeta)) {
+            validRows.add(row);
+          } else {
+            rowsValid = false;
+          }
+        }
+
+        validateSequence++;
+        validateTurn.signalAll();
+        return validRows;
+      } finally {
+        validateLock.unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package spreadsheet.mapper.w2o.pipeline;
+
+import spreadsheet.mapper.model.msg.Message;
+
+import java.util.List;
+
+/**
+ * <pre>
+ * result of {@link SheetPipeline}, the data is in row order.
+ * only the valid rows are processed, so the data is complete only if valid.
+ * </pre>
+ */
+public class SheetPipelineResult<T> {
+
+  private boolean valid;
+
+  private List<T> data;
+
+  private List<Message> errorMessages;
+
+  public SheetPipelineResult(boolean valid, List<T> data, List<Message> errorMessages) {
+    this.valid = valid;
+    this.data = data;
+    this.errorMessages = errorMessages;
+  }
+
+  /**
+   * @return true if pass all validators
+   */
+  public boolean isValid() {
+    return valid;
+  }
+
+  public List<T> getData() {
+    return data;
+  }
+
+  public List<Message> getErrorMessages() {
+    return errorMessages;
+  }
+}
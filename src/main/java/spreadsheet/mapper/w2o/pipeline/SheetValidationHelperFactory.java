@@ -0,0 +1,17 @@
+package spreadsheet.mapper.w2o.pipeline;
+
+import spreadsheet.mapper.w2o.validation.SheetValidationHelper;
+
+/**
+ * <pre>
+ * sheet validation helper of one file, validators are stateful (like error messages and unique values),
+ * so each file of {@link BatchImporter} is validated by a new one.
+ * </pre>
+ */
+public interface SheetValidationHelperFactory {
+
+  /**
+   * @return new sheet validation helper with validators
+   */
+  SheetValidationHelper create();
+}
@@ -100,14 +100,30 @@ public class DefaultSheetProcessHelper<T> implements SheetProcessHelper<T> {
       throw new WorkbookProcessException("set object factory first");
     }
 
+    sheetProcessListener.before(sheet, sheetMeta);
+
+    List<T> dataOfSheet = processRows(sheet.getRows(), sheetMeta);
+
+    sheetProcessListener.after(dataOfSheet, sheet, sheetMeta);
+
+    return dataOfSheet;
+  }
+
+  @Override
+  public List<T> processRows(List<Row> rows, SheetMeta sheetMeta) {
+    if (objectFactory == null) {
+      throw new WorkbookProcessException("set object factory first");
+    }
+
     List<FieldMeta> fieldMetas = sheetMeta.getFieldMetas();
     Map<Integer, FieldMeta> columnIndex2fieldMeta = buildFieldMetaMap(fieldMetas);
 
-    List<T> dataOfSheet = new ArrayList<>();
-    sheetProcessListener.before(sheet, sheetMeta);
+    List<T> dataOfRows = new ArrayList<>(rows.size());
 
-    for (int i = sheetMeta.getDataStartRowIndex(); i <= sheet.sizeOfRows(); i++) {
-      Row row = sheet.getRow(i);
+    for (Row row : rows) {
+      if (row.getIndex() < sheetMeta.getDataStartRowIndex()) {
+        continue;
+      }
 
       T object = objectFactory.create(row, sheetMeta);
 
@@ -139,12 +155,10 @@ public class DefaultSheetProcessHelper<T> implements SheetProcessHelper<T> {
 
       rowProcessListener.after(object, row, sheetMeta);
 
-      dataOfSheet.add(object);
+      dataOfRows.add(object);
     }
 
-    sheetProcessListener.after(dataOfSheet, sheet, sheetMeta);
-
-    return dataOfSheet;
+    return dataOfRows;
   }
 
   private Map<Integer, FieldMeta> buildFieldMetaMap(List<FieldMeta> fieldMetas) {
@@ -1,5 +1,6 @@
 package spreadsheet.mapper.w2o.process;
 
+import spreadsheet.mapper.model.core.Row;
 import spreadsheet.mapper.model.core.Sheet;
 import spreadsheet.mapper.model.meta.SheetMeta;
 import spreadsheet.mapper.w2o.process.listener.CellProcessListener;
@@ -55,4 +56,14 @@ public interface SheetProcessHelper<T> {
    * @return list of data
    */
   List<T> process(Sheet sheet, SheetMeta sheetMeta);
+
+  /**
+   * process supplied rows without {@link SheetProcessListener}, the rows before data start row are skipped,
+   * used to process rows batch by batch
+   *
+   * @param rows      rows of sheet
+   * @param sheetMeta {@link SheetMeta}
+   * @return list of data, same order as rows
+   */
+  List<T> processRows(List<Row> rows, SheetMeta sheetMeta);
 }
@@ -18,17 +18,33 @@ import java.math.BigInteger;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.Calendar;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
- * using {@link BeanUtils#setProperty(Object, String, Object)}, this used as default setter
- * <p>
+ * <pre>
+ * using {@link BeanUtils#setProperty(Object, String, Object)}, this used as default setter.
+ * the default converters are registered by each setter, bean utils keeps converters per context class loader.
+ * the field types of classes are resolved once and shared by all setters. thread safe.
+ * </pre>
  * Created by hanwen on 15-12-18.
  */
 public class BeanUtilsSetter<T> implements Setter<T> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(BeanUtilsSetter.class);
 
+  // field type not found
+  private static final Class<?> NO_FIELD = Void.class;
+
+  // field name -> field type of class, the class loader of class is not retained
+  private static final ClassValue<ConcurrentMap<String, Class<?>>> FIELD_TYPES = new ClassValue<ConcurrentMap<String, Class<?>>>() {
+    @Override
+    protected ConcurrentMap<String, Class<?>> computeValue(Class<?> type) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
   {
     registerDefaultConverter();
   }
@@ -50,8 +66,21 @@ public class BeanUtilsSetter<T> implements Setter<T> {
   }
 
   private boolean lookup(T object, FieldMeta fieldMeta) {
-    Class fieldType = FieldUtils.getFieldType(object.getClass(), fieldMeta.getName().split("\\."));
-    return fieldType != null && ConvertUtils.lookup(fieldType) != null;
+    Class<?> fieldType = getFieldType(object.getClass(), fieldMeta.getName());
+    return fieldType != NO_FIELD && ConvertUtils.lookup(fieldType) != null;
+  }
+
+  private Class<?> getFieldType(Class<?> clazz, String fieldName) {
+    ConcurrentMap<String, Class<?>> fieldTypes = FIELD_TYPES.get(clazz);
+    Class<?> fieldType = fieldTypes.get(fieldName);
+    if (fieldType == null) {
+      fieldType = FieldUtils.getFieldType(clazz, fieldName.split("\\."));
+      if (fieldType == null) {
+        fieldType = NO_FIELD;
+      }
+      fieldTypes.put(fieldName, fieldType);
+    }
+    return fieldType;
   }
 
   private void registerDefaultConverter() {
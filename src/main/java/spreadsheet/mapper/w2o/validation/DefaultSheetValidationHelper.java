@@ -31,6 +31,9 @@ public class DefaultSheetValidationHelper implements SheetValidationHelper {
   // dependency validators one group corresponding multi validators
   private LinkedHashMap<String, List<DependencyValidator>> dependencyValidators = new LinkedHashMap<>();
 
+  // directed graph of dependency validators, built once until validators changed
+  private LinkedHashMap<String, LinkedHashSet<String>> vGraph;
+
   private List<Message> errorMessages = new ArrayList<>();
 
   @Override
@@ -65,6 +68,7 @@ public class DefaultSheetValidationHelper implements SheetValidationHelper {
       dependencyValidators.put(group, new ArrayList<DependencyValidator>());
     }
     dependencyValidators.get(group).add(dependencyValidator);
+    vGraph = null;
     return this;
   }
 
@@ -75,9 +79,6 @@ public class DefaultSheetValidationHelper implements SheetValidationHelper {
 
   @Override
   public boolean valid(Sheet sheet, SheetMeta sheetMeta) {
-    // check dependency of this sheet
-    checkValidatorGroupDependency();
-
     if (!validSheet(sheet, sheetMeta)) {
       return false;
     }
@@ -87,25 +88,39 @@ public class DefaultSheetValidationHelper implements SheetValidationHelper {
 
       if (!validRow(row, sheetMeta)) {
         result = false;
-        continue;
-      }
-
-      if (row.getIndex() >= sheetMeta.getDataStartRowIndex()) {
-        if (!validDataRow(row, sheetMeta)) {
-          result = false;
-        }
       }
     }
 
     return result;
   }
 
+  @Override
+  public boolean validSheet(Sheet sheet, SheetMeta sheetMeta) {
+    // check dependency of this sheet
+    checkValidatorGroupDependency();
+
+    return validBySheetValidators(sheet, sheetMeta);
+  }
+
+  @Override
+  public boolean validRow(Row row, SheetMeta sheetMeta) {
+    if (!validByRowValidators(row, sheetMeta)) {
+      return false;
+    }
+
+    if (row.getIndex() >= sheetMeta.getDataStartRowIndex()) {
+      return validDataRow(row, sheetMeta);
+    }
+
+    return true;
+  }
+
   /**
    * check if dependency correct
    */
   private void checkValidatorGroupDependency() {
 
-    LinkedHashMap<String, LinkedHashSet<String>> vGraph = DependencyEngineHelper.buildVGraph(dependencyValidators);
+    LinkedHashMap<String, LinkedHashSet<String>> vGraph = getVGraph();
     Set<String> allGroups = vGraph.keySet();
 
     for (Map.Entry<String, LinkedHashSet<String>> entry : vGraph.entrySet()) {
@@ -124,10 +139,17 @@ public class DefaultSheetValidationHelper implements SheetValidationHelper {
     }
   }
 
+  private LinkedHashMap<String, LinkedHashSet<String>> getVGraph() {
+    if (vGraph == null) {
+      vGraph = DependencyEngineHelper.buildVGraph(dependencyValidators);
+    }
+    return vGraph;
+  }
+
   /*=========================
    below is internal valid
    ==========================*/
-  private boolean validSheet(Sheet sheet, SheetMeta sheetMeta) {
+  private boolean validBySheetValidators(Sheet sheet, SheetMeta sheetMeta) {
     boolean result = true;
 
     for (SheetValidator validator : sheetValidators) {
@@ -147,7 +169,7 @@ public class DefaultSheetValidationHelper implements SheetValidationHelper {
     return result;
   }
 
-  private boolean validRow(Row row, SheetMeta sheetMeta) {
+  private boolean validByRowValidators(Row row, SheetMeta sheetMeta) {
     boolean result = true;
 
     for (RowValidator validator : rowValidators) {
@@ -173,7 +195,7 @@ public class DefaultSheetValidationHelper implements SheetValidationHelper {
   }
 
   private boolean validDataRow(Row row, SheetMeta sheetMeta) {
-    DependencyValidateEngine dependencyValidateEngine = new DependencyValidateEngine(dependencyValidators);
+    DependencyValidateEngine dependencyValidateEngine = new DependencyValidateEngine(dependencyValidators, getVGraph());
 
     boolean result = dependencyValidateEngine.valid(row, sheetMeta);
     errorMessages.addAll(dependencyValidateEngine.getErrorMessages());
@@ -1,5 +1,6 @@
 package spreadsheet.mapper.w2o.validation;
 
+import spreadsheet.mapper.model.core.Row;
 import spreadsheet.mapper.model.core.Sheet;
 import spreadsheet.mapper.model.meta.SheetMeta;
 import spreadsheet.mapper.model.msg.Message;
@@ -48,6 +49,25 @@ public interface SheetValidationHelper {
    */
   boolean valid(Sheet sheet, SheetMeta sheetMeta);
 
+  /**
+   * valid the sheet by {@link SheetValidator}s only, used with {@link #validRow(Row, SheetMeta)} to valid rows one by one
+   *
+   * @param sheet     {@link Sheet}
+   * @param sheetMeta {@link SheetMeta}
+   * @return true if pass all sheet validators
+   */
+  boolean validSheet(Sheet sheet, SheetMeta sheetMeta);
+
+  /**
+   * valid one row by {@link RowValidator}s, and by {@link DependencyValidator}s if it's data row.
+   * rows should be supplied in sheet order, some validators are stateful (like {@link spreadsheet.mapper.w2o.validation.validator.cell.buildin.UniqueValidator})
+   *
+   * @param row       {@link Row}
+   * @param sheetMeta {@link SheetMeta}
+   * @return true if pass all
+   */
+  boolean validRow(Row row, SheetMeta sheetMeta);
+
   /**
    * <pre>
    * message write strategy of {@link SheetValidator#getErrorMessage()} is {@link MessageWriteStrategies#TEXT_BOX}
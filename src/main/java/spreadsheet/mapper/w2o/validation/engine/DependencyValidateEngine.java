@@ -38,7 +38,15 @@ public class DependencyValidateEngine {
   private List<Message> errorMessages = new ArrayList<>();
 
   public DependencyValidateEngine(LinkedHashMap<String, List<DependencyValidator>> validatorMap) {
-    this.vGraph = DependencyEngineHelper.buildVGraph(validatorMap);
+    this(validatorMap, DependencyEngineHelper.buildVGraph(validatorMap));
+  }
+
+  /**
+   * @param validatorMap dependency validators
+   * @param vGraph       directed graph of validators built by {@link DependencyEngineHelper#buildVGraph(Map)}, not modified
+   */
+  public DependencyValidateEngine(LinkedHashMap<String, List<DependencyValidator>> validatorMap, LinkedHashMap<String, LinkedHashSet<String>> vGraph) {
+    this.vGraph = vGraph;
     for (String v : vGraph.keySet()) {
       visited.put(v, false);
       result.put(v, true);
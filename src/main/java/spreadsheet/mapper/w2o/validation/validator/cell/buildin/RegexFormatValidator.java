@@ -4,17 +4,30 @@ import spreadsheet.mapper.model.core.Cell;
 import spreadsheet.mapper.model.meta.FieldMeta;
 import spreadsheet.mapper.w2o.validation.validator.cell.CustomSingleCellValidatorAdapter;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
 /**
- * regex format validator
- * <p>
+ * <pre>
+ * regex format validator.
+ * the regex is compiled once and the compiled pattern is shared by the validators of same regex.
+ * </pre>
  * Created by hanwen on 2017/1/11.
  */
 public class RegexFormatValidator extends CustomSingleCellValidatorAdapter<RegexFormatValidator> {
 
-  private String regex;
+  private static final int MAX_SHARED_PATTERNS = 1024;
+
+  private static final ConcurrentMap<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
+  private Pattern pattern;
 
   public RegexFormatValidator regex(String regex) {
-    this.regex = regex;
+    if (regex == null) {
+      throw new IllegalArgumentException("regex can not be null");
+    }
+    this.pattern = compile(regex);
     return getThis();
   }
 
@@ -25,6 +38,17 @@ public class RegexFormatValidator extends CustomSingleCellValidatorAdapter<Regex
 
   @Override
   protected boolean customValid(Cell cell, FieldMeta fieldMeta) {
-    return cell.getValue().matches(regex);
+    return pattern.matcher(cell.getValue()).matches();
+  }
+
+  private static Pattern compile(String regex) {
+    Pattern pattern = PATTERNS.get(regex);
+    if (pattern == null) {
+      pattern = Pattern.compile(regex);
+      if (PATTERNS.size() < MAX_SHARED_PATTERNS) {
+        PATTERNS.put(regex, pattern);
+      }
+    }
+    return pattern;
   }
 }
@@ -34,6 +34,36 @@ public class AssertUtil {
 
   }
 
+  public static void assertWorkbookEquals(Workbook w1, Workbook w2) {
+
+    assertEquals(w1.sizeOfSheets(), w2.sizeOfSheets());
+
+    for (int i = 1; i <= w1.sizeOfSheets(); i++) {
+      assertSheetEquals(w1.getSheet(i), w2.getSheet(i));
+    }
+  }
+
+  public static void assertSheetEquals(Sheet s1, Sheet s2) {
+    assertEquals(s1.getIndex(), s2.getIndex());
+    assertEquals(s1.getName(), s2.getName());
+    assertEquals(s1.sizeOfRows(), s2.sizeOfRows());
+
+    // the rows of sheet read from start row begin at start row
+    for (int i = 0; i < s1.sizeOfRows(); i++) {
+      assertRowEquals(s1.getRows().get(i), s2.getRows().get(i));
+    }
+  }
+
+  public static void assertRowEquals(Row r1, Row r2) {
+    assertEquals(r1.getIndex(), r2.getIndex());
+    assertEquals(r1.sizeOfCells(), r2.sizeOfCells());
+
+    for (int i = 1; i <= r1.sizeOfCells(); i++) {
+      assertEquals(r1.getCell(i).getIndex(), r2.getCell(i).getIndex());
+      assertEquals(r1.getCell(i).getValue(), r2.getCell(i).getValue());
+    }
+  }
+
   public static void assertSheetEquals(Sheet sheet, boolean hasHeader) {
 
     assertEquals(sheet.sizeOfRows(), 3);
@@ -0,0 +1,163 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import spreadsheet.mapper.AssertUtil;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.core.Workbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test(dependsOnGroups = "Excel2WorkbookReaderTest")
+public class Auto2WorkbookReadHelperTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Auto2WorkbookReadHelperTest.class);
+
+  @BeforeClass
+  public void before() {
+    LOGGER.debug("-------------------starting test auto workbook read helper-------------------");
+  }
+
+  @Test
+  public void testRead() throws Exception {
+
+    byte[] xlsx = IOUtils.toByteArray(getClass().getResourceAsStream("test.xlsx"));
+    byte[] xls = IOUtils.toByteArray(getClass().getResourceAsStream("test.xls"));
+    byte[] xlsb = new Xlsb2WorkbookReadHelperTest().createXlsb();
+
+    assertEquals(Auto2WorkbookReadHelper.detect(xlsx), Auto2WorkbookReadHelper.Format.XLSX);
+    assertEquals(Auto2WorkbookReadHelper.detect(xls), Auto2WorkbookReadHelper.Format.XLS);
+    assertEquals(Auto2WorkbookReadHelper.detect(xlsb), Auto2WorkbookReadHelper.Format.XLSB);
+
+    AssertUtil.assertWorkbookEquals(
+        new Auto2WorkbookReadHelper().read(new UnmarkableInputStream(xlsx)),
+        new Xlsx2WorkbookReadHelper().read(new ByteArrayInputStream(xlsx)));
+    AssertUtil.assertWorkbookEquals(
+        new Auto2WorkbookReadHelper().read(new UnmarkableInputStream(xls)),
+        new Xls2WorkbookReadHelper().read(new ByteArrayInputStream(xls)));
+    AssertUtil.assertWorkbookEquals(
+        new Auto2WorkbookReadHelper().read(new ByteArrayInputStream(xlsb)),
+        new Xlsb2WorkbookReadHelper().read(new ByteArrayInputStream(xlsb)));
+  }
+
+  @Test
+  public void testReadByteBuffer() throws Exception {
+
+    byte[] xlsx = IOUtils.toByteArray(getClass().getResourceAsStream("test.xlsx"));
+    byte[] xlsb = new Xlsb2WorkbookReadHelperTest().createXlsb();
+    byte[] csv = "name,remark\na,12.5\n".getBytes(StandardCharsets.UTF_8);
+
+    Workbook workbook = new Xlsx2WorkbookReadHelper().read(new ByteArrayInputStream(xlsx));
+    AssertUtil.assertWorkbookEquals(new Auto2WorkbookReadHelper().read(ByteBuffer.wrap(xlsx)), workbook);
+    AssertUtil.assertWorkbookEquals(new Xlsx2WorkbookReadHelper().read(ByteBuffer.wrap(xlsx)), workbook);
+    AssertUtil.assertWorkbookEquals(new Excel2WorkbookReadHelper().read(ByteBuffer.wrap(xlsx)), new Excel2WorkbookReadHelper().read(new ByteArrayInputStream(xlsx)));
+
+    ByteBuffer directBuffer = ByteBuffer.allocateDirect(xlsb.length);
+    directBuffer.put(xlsb).flip();
+    AssertUtil.assertWorkbookEquals(new Auto2WorkbookReadHelper().read(directBuffer), new Xlsb2WorkbookReadHelper().read(new ByteArrayInputStream(xlsb)));
+    assertEquals(directBuffer.position(), 0);
+
+    AssertUtil.assertWorkbookEquals(new Auto2WorkbookReadHelper().read(ByteBuffer.wrap(csv)), new Auto2WorkbookReadHelper().read(new ByteArrayInputStream(csv)));
+    assertEquals(new Auto2WorkbookReadHelper().read(ByteBuffer.allocate(0)).sizeOfSheets(), 0);
+  }
+
+  @Test
+  public void testReadFile() throws Exception {
+
+    File file = File.createTempFile("test", ".bin");
+    file.deleteOnExit();
+    FileUtils.copyInputStreamToFile(getClass().getResourceAsStream("test.xlsx"), file);
+
+    AssertUtil.assertWorkbookEquals(new Auto2WorkbookReadHelper().read(file), new Xlsx2WorkbookReadHelper().read(file));
+
+    FileUtils.writeByteArrayToFile(file, new Xlsb2WorkbookReadHelperTest().createXlsb());
+
+    Workbook workbook = new Auto2WorkbookReadHelper().readOptions(new ReadOptions().sheets("lookup")).read(file);
+    assertEquals(workbook.sizeOfSheets(), 1);
+    assertEquals(workbook.getFirstSheet().getFirstRow().getCell(1).getValue(), "lookup");
+  }
+
+  @Test
+  public void testReadCsv() throws Exception {
+
+    String csv = "name;remark\n\"a;b\";12.5\n";
+    Sheet sheet = new Auto2WorkbookReadHelper().read(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))).getFirstSheet();
+
+    assertEquals(sheet.sizeOfRows(), 2);
+    assertEquals(sheet.getRow(2).getCell(1).getValue(), "a;b");
+    assertEquals(sheet.getRow(2).getCell(2).getValue(), "12.5");
+
+    assertEquals(Auto2WorkbookReadHelper.detectDelimiter("a\tb\t\"c,d\"".getBytes(StandardCharsets.UTF_8)), '\t');
+    assertEquals(Auto2WorkbookReadHelper.detectDelimiter("a|b|c\nd,e,f,g".getBytes(StandardCharsets.UTF_8)), '|');
+    assertEquals(Auto2WorkbookReadHelper.detectDelimiter("name".getBytes(StandardCharsets.UTF_8)), ',');
+  }
+
+  @Test
+  public void testReadEmpty() throws Exception {
+
+    assertEquals(new Auto2WorkbookReadHelper().read(new ByteArrayInputStream(new byte[0])).sizeOfSheets(), 0);
+  }
+
+  @Test(expectedExceptions = WorkbookReadException.class)
+  public void testUnsupported() throws Exception {
+
+    new Auto2WorkbookReadHelper().read(new ByteArrayInputStream(new byte[]{0x7F, 0x45, 0x4C, 0x46, 0, 0}));
+  }
+
+  @Test
+  public void testZipNotDetectedByHead() throws Exception {
+
+    // incompressible entry in front pushes the workbook part beyond the head
+    byte[] padding = new byte[128 * 1024];
+    new Random(0).nextBytes(padding);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+      zipOutputStream.putNextEntry(new ZipEntry("docProps/thumbnail.jpeg"));
+      zipOutputStream.write(padding);
+      zipOutputStream.closeEntry();
+      zipOutputStream.putNextEntry(new ZipEntry("xl/workbook.bin"));
+      zipOutputStream.closeEntry();
+    }
+    byte[] zip = outputStream.toByteArray();
+
+    assertNull(Auto2WorkbookReadHelper.detect(zip));
+    try {
+      new Auto2WorkbookReadHelper().read(new ByteArrayInputStream(zip));
+      fail("not detected zip is read as xlsx");
+    } catch (WorkbookReadException e) {
+      assertTrue(e.getMessage().contains("not detected"));
+    }
+  }
+
+  /**
+   * stream not supporting mark like network stream
+   */
+  private static class UnmarkableInputStream extends FilterInputStream {
+
+    private UnmarkableInputStream(byte[] bytes) {
+      super(new ByteArrayInputStream(bytes));
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class ByteBufferZipEntrySourceTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ByteBufferZipEntrySourceTest.class);
+
+  private static final int CENTRAL_SIGNATURE = 0x02014b50;
+
+  private byte[] bomb;
+
+  @BeforeClass
+  public void before() throws Exception {
+    LOGGER.debug("-------------------starting test byte buffer zip entry source-------------------");
+
+    // spaces deflate about 1000:1, far beyond the default min inflate ratio
+    StringBuilder content = new StringBuilder("<document>");
+    for (int i = 0; i < 10 * 1024 * 1024; i++) {
+      content.append(' ');
+    }
+    content.append("</document>");
+    bomb = createZip("content.xml", content.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testRead() throws Exception {
+
+    byte[] content = "<content/>".getBytes(StandardCharsets.UTF_8);
+    ByteBufferZipEntrySource zipEntrySource = new ByteBufferZipEntrySource(ByteBuffer.wrap(createZip("content.xml", content)));
+
+    ZipEntry entry = zipEntrySource.getEntries().nextElement();
+    assertEquals(entry.getName(), "content.xml");
+    try (InputStream inputStream = zipEntrySource.getInputStream(entry)) {
+      assertEquals(IOUtils.toByteArray(inputStream), content);
+    }
+  }
+
+  @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Zip bomb detected!.*")
+  public void testReadZipBomb() throws Exception {
+
+    ByteBufferZipEntrySource zipEntrySource = new ByteBufferZipEntrySource(ByteBuffer.wrap(bomb));
+    try (InputStream inputStream = zipEntrySource.getInputStream(zipEntrySource.getEntries().nextElement())) {
+      IOUtils.toByteArray(inputStream);
+    }
+  }
+
+  @Test
+  public void testReadZipBombWorkbook() throws Exception {
+
+    try {
+      new Ods2WorkbookReadHelper().read(ByteBuffer.wrap(bomb));
+      fail("zip bomb is read");
+    } catch (WorkbookReadException e) {
+      assertTrue(ExceptionUtils.getStackTrace(e).contains("Zip bomb detected!"));
+    }
+  }
+
+  @Test(expectedExceptions = ZipException.class, expectedExceptionsMessageRegExp = ".*larger than its declared size.*")
+  public void testReadLargerThanDeclared() throws Exception {
+
+    byte[] zip = createZip("content.xml", new byte[1024]);
+    ByteBuffer buffer = ByteBuffer.wrap(zip).order(ByteOrder.LITTLE_ENDIAN);
+    for (int i = zip.length - 4; i >= 0; i--) {
+      if (buffer.getInt(i) == CENTRAL_SIGNATURE) {
+        // the uncompressed size of central header
+        buffer.putInt(i + 24, 100);
+        break;
+      }
+    }
+
+    ByteBufferZipEntrySource zipEntrySource = new ByteBufferZipEntrySource(buffer);
+    try (InputStream inputStream = zipEntrySource.getInputStream(zipEntrySource.getEntries().nextElement())) {
+      IOUtils.toByteArray(inputStream);
+    }
+  }
+
+  private byte[] createZip(String name, byte[] content) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+      zipOutputStream.putNextEntry(new ZipEntry(name));
+      IOUtils.copy(new ByteArrayInputStream(content), zipOutputStream);
+      zipOutputStream.closeEntry();
+    }
+    return outputStream.toByteArray();
+  }
+}
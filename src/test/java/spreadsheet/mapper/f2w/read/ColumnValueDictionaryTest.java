@@ -0,0 +1,67 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import spreadsheet.mapper.model.core.Sheet;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+public class ColumnValueDictionaryTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ColumnValueDictionaryTest.class);
+
+  @BeforeClass
+  public void before() {
+    LOGGER.debug("-------------------starting test column value dictionary-------------------");
+  }
+
+  @Test
+  public void testCanonicalize() throws Exception {
+
+    ColumnValueDictionary dictionary = new ColumnValueDictionary(2);
+
+    String y = dictionary.canonicalize(0, new String("Y"));
+    assertSame(dictionary.canonicalize(0, new String("Y")), y);
+    assertNull(dictionary.canonicalize(0, null));
+
+    // per column
+    String otherY = new String("Y");
+    assertSame(dictionary.canonicalize(1, otherY), otherY);
+
+    // over cap, column falls back to plain values
+    dictionary.canonicalize(0, "N");
+    String unknown = new String("unknown");
+    assertSame(dictionary.canonicalize(0, unknown), unknown);
+    String anotherY = new String("Y");
+    assertSame(dictionary.canonicalize(0, anotherY), anotherY);
+  }
+
+  @Test
+  public void testRead() throws Exception {
+
+    StringBuilder csv = new StringBuilder("status,code\n");
+    for (int i = 0; i < 100; i++) {
+      csv.append(i % 2 == 0 ? "Y" : "N").append(",").append(i % 10).append("\n");
+    }
+    byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+    Sheet sheet = new Csv2WorkbookReadHelper().readOptions(new ReadOptions().valueDictionary(5)).read(new ByteArrayInputStream(bytes)).getFirstSheet();
+
+    assertEquals(sheet.getRow(2).getCell(1).getValue(), "Y");
+    assertSame(sheet.getRow(2).getCell(1).getValue(), sheet.getRow(100).getCell(1).getValue());
+    // code column has 10 distinct values
+    assertEquals(sheet.getRow(2).getCell(2).getValue(), sheet.getRow(12).getCell(2).getValue());
+    assertNotSame(sheet.getRow(2).getCell(2).getValue(), sheet.getRow(12).getCell(2).getValue());
+
+    Sheet plainSheet = new Csv2WorkbookReadHelper().read(new ByteArrayInputStream(bytes)).getFirstSheet();
+    assertNotSame(plainSheet.getRow(2).getCell(1).getValue(), plainSheet.getRow(100).getCell(1).getValue());
+  }
+}
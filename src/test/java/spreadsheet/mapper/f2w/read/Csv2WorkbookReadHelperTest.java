@@ -0,0 +1,217 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import spreadsheet.mapper.AssertUtil;
+import spreadsheet.mapper.model.core.Row;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.core.Workbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class Csv2WorkbookReadHelperTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Csv2WorkbookReadHelperTest.class);
+
+  private static final String CSV = "\uFEFFname,remark,amount\r\n"
+      + "hanwen,\"a, \"\"quoted\"\"\r\nline\",12.5\r\n"
+      + "中文,, 3 \n"
+      + "last,\"\",";
+
+  @BeforeClass
+  public void before() {
+    LOGGER.debug("-------------------starting test csv workbook read helper-------------------");
+  }
+
+  @Test
+  public void testRead() throws Exception {
+
+    Workbook workbook = new Csv2WorkbookReadHelper().read(new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)));
+
+    assertEquals(workbook.sizeOfSheets(), 1);
+    assertCsvSheet(workbook.getFirstSheet());
+  }
+
+  @Test
+  public void testReadTsv() throws Exception {
+
+    String tsv = "name\tremark\n\"a\tb\"\t\"\"\"x\"\"\"";
+    Workbook workbook = Csv2WorkbookReadHelper.tsv().read(new ByteArrayInputStream(tsv.getBytes(StandardCharsets.UTF_8)));
+
+    Sheet sheet = workbook.getFirstSheet();
+    assertEquals(sheet.sizeOfRows(), 2);
+    assertEquals(sheet.getRow(2).getCell(1).getValue(), "a\tb");
+    assertEquals(sheet.getRow(2).getCell(2).getValue(), "\"x\"");
+
+    Charset gbk = Charset.forName("GBK");
+    workbook = new Csv2WorkbookReadHelper(';', '\'', gbk).read(new ByteArrayInputStream("'中;文';x".getBytes(gbk)));
+
+    assertEquals(workbook.getFirstSheet().getRow(1).getCell(1).getValue(), "中;文");
+    assertEquals(workbook.getFirstSheet().getRow(1).getCell(2).getValue(), "x");
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testNotAsciiCompatible() {
+    new Csv2WorkbookReadHelper(',', '"', StandardCharsets.UTF_16);
+  }
+
+  @Test
+  public void testTrailByteDelimiter() {
+
+    // 0x7C is the trail byte of some gbk characters
+    for (String charsetName : Arrays.asList("GBK", "Big5", "Shift_JIS")) {
+      try {
+        new Csv2WorkbookReadHelper('|', '"', Charset.forName(charsetName));
+        fail(charsetName + " accepts trail byte delimiter");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+
+    new Csv2WorkbookReadHelper('|', '"', StandardCharsets.UTF_8);
+    new Csv2WorkbookReadHelper('|', '\\', StandardCharsets.ISO_8859_1);
+    new Csv2WorkbookReadHelper('\t', '"', Charset.forName("GBK"));
+  }
+
+  @Test
+  public void testStatefulCharset() {
+
+    // the japanese character is encoded as 0x24 0x22 ($") between escape sequences
+    byte[] bytes = "\u3042".getBytes(Charset.forName("ISO-2022-JP"));
+    assertEquals(bytes[4], (byte) '"');
+
+    for (String charsetName : Arrays.asList("ISO-2022-JP", "ISO-2022-KR", "ISO-2022-CN")) {
+      try {
+        new Csv2WorkbookReadHelper(',', '"', Charset.forName(charsetName));
+        fail(charsetName + " accepted");
+      } catch (IllegalArgumentException e) {
+        assertTrue(e.getMessage().contains("stateful"));
+      }
+    }
+  }
+
+  @Test
+  public void testReadFile() throws Exception {
+
+    File file = File.createTempFile("test", ".csv");
+    file.deleteOnExit();
+    FileUtils.writeByteArrayToFile(file, CSV.getBytes(StandardCharsets.UTF_8));
+
+    Workbook workbook = new Csv2WorkbookReadHelper().read(file);
+
+    Sheet sheet = workbook.getFirstSheet();
+    assertEquals(sheet.getName(), FilenameUtils.getBaseName(file.getName()));
+    assertCsvSheet(sheet);
+
+    // fields and line breaks cross the mapped windows
+    for (int windowSize = 1; windowSize <= 8; windowSize++) {
+      Csv2WorkbookReadHelper readHelper = new Csv2WorkbookReadHelper();
+      readHelper.setWindowSize(windowSize);
+      AssertUtil.assertWorkbookEquals(readHelper.read(file), workbook);
+    }
+  }
+
+  @Test
+  public void testReadRowRange() throws Exception {
+
+    StringBuilder csv = new StringBuilder();
+    for (int i = 1; i <= 100; i++) {
+      csv.append("row").append(i).append(",\"").append(i).append("\n\"\n");
+    }
+
+    File file = File.createTempFile("test", ".csv");
+    file.deleteOnExit();
+    FileUtils.writeStringToFile(file, csv.toString(), StandardCharsets.UTF_8);
+
+    Csv2WorkbookReadHelper readHelper = new Csv2WorkbookReadHelper();
+    readHelper.setWindowSize(16);
+    readHelper.readOptions(new ReadOptions().startRow(11).maxRows(5));
+
+    Sheet sheet = readHelper.read(file).getFirstSheet();
+    assertEquals(sheet.sizeOfRows(), 5);
+    assertEquals(sheet.getRow(11).getCell(1).getValue(), "row11");
+    assertEquals(sheet.getRow(15).getCell(2).getValue(), "15");
+
+    Sheet streamSheet = readHelper.read(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8))).getFirstSheet();
+    assertEquals(streamSheet.sizeOfRows(), 5);
+    for (int i = 11; i <= 15; i++) {
+      AssertUtil.assertRowEquals(streamSheet.getRow(i), sheet.getRow(i));
+    }
+  }
+
+  @Test
+  public void testReadCursor() throws Exception {
+
+    final List<Row> rows = new ArrayList<>();
+
+    new Csv2WorkbookReadHelper()
+        .readOptions(new ReadOptions().columns(3).headerRows(1))
+        .read(new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)), new RowCursorHandler() {
+          @Override
+          public void onSheetStart(Sheet sheet) {
+            assertEquals(sheet.getIndex(), 1);
+          }
+
+          @Override
+          public void onRow(RowCursor rowCursor) {
+            rows.add(rowCursor.toRow());
+          }
+
+          @Override
+          public void onSheetEnd(Sheet sheet) {
+            assertEquals(sheet.sizeOfRows(), 0);
+          }
+        });
+
+    assertEquals(rows.size(), 4);
+    assertEquals(rows.get(0).getCell(2).getValue(), "remark");
+    for (int i = 1; i < rows.size(); i++) {
+      assertEquals(rows.get(i).sizeOfCells(), 3);
+      assertNull(rows.get(i).getCell(1).getValue());
+      assertNull(rows.get(i).getCell(2).getValue());
+    }
+    assertEquals(rows.get(1).getCell(3).getValue(), "12.5");
+    assertEquals(rows.get(2).getCell(3).getValue(), "3");
+  }
+
+  private void assertCsvSheet(Sheet sheet) {
+
+    assertEquals(sheet.sizeOfRows(), 4);
+
+    Row header = sheet.getRow(1);
+    assertEquals(header.sizeOfCells(), 3);
+    assertEquals(header.getCell(1).getValue(), "name");
+    assertEquals(header.getCell(3).getValue(), "amount");
+
+    Row row2 = sheet.getRow(2);
+    assertEquals(row2.getCell(1).getValue(), "hanwen");
+    assertEquals(row2.getCell(2).getValue(), "a, \"quoted\"\r\nline");
+    assertEquals(row2.getCell(3).getValue(), "12.5");
+
+    Row row3 = sheet.getRow(3);
+    assertEquals(row3.getCell(1).getValue(), "中文");
+    assertNull(row3.getCell(2).getValue());
+    assertEquals(row3.getCell(3).getValue(), "3");
+
+    Row row4 = sheet.getRow(4);
+    assertEquals(row4.sizeOfCells(), 3);
+    assertEquals(row4.getCell(1).getValue(), "last");
+    assertNull(row4.getCell(2).getValue());
+    assertNull(row4.getCell(3).getValue());
+  }
+}
@@ -11,6 +11,8 @@ import spreadsheet.mapper.model.core.Sheet;
 import spreadsheet.mapper.model.core.Workbook;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.testng.Assert.assertEquals;
 
@@ -67,4 +69,40 @@ public class Excel2WorkbookReadHelperTest {
     assertEquals(firstRow.getCell(3).getValue(), "1984-11-22");
     assertEquals(firstRow.getCell(4).getValue(), "1984-11-22");
   }
-}
\ No newline at end of file
+
+  @Test(dependsOnMethods = "testRead")
+  public void testReadRows() throws Exception {
+
+    final List<Row> rows = new ArrayList<>();
+
+    new Excel2WorkbookReadHelper().read(getClass().getResourceAsStream("test.xlsx"), new SheetRowHandler() {
+      @Override
+      public void onSheetStart(Sheet sheet) {
+        assertEquals(sheet.getIndex(), 1);
+        assertEquals(sheet.sizeOfRows(), 0);
+      }
+
+      @Override
+      public void onRow(Row row) {
+        rows.add(row);
+      }
+
+      @Override
+      public void onSheetEnd(Sheet sheet) {
+        assertEquals(sheet.sizeOfRows(), 0);
+      }
+    });
+
+    assertEquals(rows.size(), 3);
+    for (int i = 1; i <= rows.size(); i++) {
+      Row row = rows.get(i - 1);
+      assertEquals(row.getIndex(), i);
+      assertEquals(row.getSheet().getIndex(), 1);
+      assertEquals(row.sizeOfCells(), 14);
+    }
+
+    AssertUtil.assertHeaderRowEquals(rows.get(0), true);
+    AssertUtil.assertRow2Equals(rows.get(1));
+    AssertUtil.assertRow3Equals(rows.get(2));
+  }
+}
@@ -0,0 +1,170 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import spreadsheet.mapper.TestFactory;
+import spreadsheet.mapper.model.core.Workbook;
+import spreadsheet.mapper.model.meta.FieldMeta;
+import spreadsheet.mapper.model.meta.SheetMeta;
+import spreadsheet.mapper.model.meta.WorkbookMeta;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+public class HeaderProbeTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(HeaderProbeTest.class);
+
+  @BeforeClass
+  public void before() {
+    LOGGER.debug("-------------------starting test header probe-------------------");
+  }
+
+  @Test
+  public void testProbe() throws Exception {
+
+    assertTestSheetMeta(new HeaderProbe(new Xlsx2WorkbookReadHelper()).probe(getClass().getResourceAsStream("test.xlsx"), 1));
+    assertTestSheetMeta(new HeaderProbe(new Xls2WorkbookReadHelper()).probe(getClass().getResourceAsStream("test.xls"), 1));
+    assertTestSheetMeta(new HeaderProbe(new Excel2WorkbookReadHelper()).probe(getClass().getResourceAsStream("test.xlsx"), 1));
+  }
+
+  @Test
+  public void testProbeMultiHeaders() throws Exception {
+
+    SXSSFWorkbook poiWorkbook = new SXSSFWorkbook();
+    org.apache.poi.ss.usermodel.Sheet sheet = poiWorkbook.createSheet("data");
+    String[] titles = {"Name", "Age", "Age", "Remark"};
+    String[] names = {"name", "age", "age", null};
+    org.apache.poi.ss.usermodel.Row titleRow = sheet.createRow(0);
+    for (int i = 0; i < titles.length; i++) {
+      titleRow.createCell(i).setCellValue(titles[i]);
+    }
+    org.apache.poi.ss.usermodel.Row nameRow = sheet.createRow(1);
+    for (int i = 0; i < names.length; i++) {
+      if (names[i] != null) {
+        nameRow.createCell(i).setCellValue(names[i]);
+      }
+    }
+    for (int i = 2; i < 20000; i++) {
+      sheet.createRow(i).createCell(0).setCellValue("name" + i);
+    }
+    poiWorkbook.createSheet("empty");
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    poiWorkbook.write(outputStream);
+    poiWorkbook.dispose();
+    byte[] bytes = outputStream.toByteArray();
+
+    HeaderProbe headerProbe = new HeaderProbe(new Xlsx2WorkbookReadHelper());
+
+    Workbook workbook = headerProbe.probeRows(new ByteArrayInputStream(bytes), 2);
+    assertEquals(workbook.sizeOfSheets(), 2);
+    assertEquals(workbook.getFirstSheet().sizeOfRows(), 2);
+    assertEquals(workbook.getSheet(2).sizeOfRows(), 0);
+
+    WorkbookMeta workbookMeta = headerProbe.probe(new ByteArrayInputStream(bytes), 2);
+    assertEquals(workbookMeta.sizeOfSheetMetas(), 2);
+
+    SheetMeta sheetMeta = workbookMeta.getFirstSheetMeta();
+    assertEquals(sheetMeta.getSheetName(), "data");
+    assertEquals(sheetMeta.getDataStartRowIndex(), 3);
+
+    // duplicated name keeps first column, column without name is not a field
+    List<FieldMeta> fieldMetas = sheetMeta.getFieldMetas();
+    assertEquals(fieldMetas.size(), 2);
+    assertEquals(fieldMetas.get(1).getName(), "age");
+    assertEquals(fieldMetas.get(1).getColumnIndex(), 2);
+    assertEquals(fieldMetas.get(1).getHeaderMeta(1).getValue(), "Age");
+    assertEquals(fieldMetas.get(1).getHeaderMeta(2).getValue(), "age");
+
+    SheetMeta emptySheetMeta = workbookMeta.getSheetMeta(2);
+    assertEquals(emptySheetMeta.getFieldMetas().size(), 0);
+    assertNull(emptySheetMeta.getFieldMeta("name"));
+  }
+
+  @Test
+  public void testProbeKeepsReadOptions() throws Exception {
+
+    SXSSFWorkbook poiWorkbook = new SXSSFWorkbook();
+    poiWorkbook.createSheet("other").createRow(0).createCell(0).setCellValue("other");
+    org.apache.poi.ss.usermodel.Sheet sheet = poiWorkbook.createSheet("data");
+    for (int i = 0; i < 10; i++) {
+      sheet.createRow(i).createCell(0).setCellValue("name" + i);
+    }
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    poiWorkbook.write(outputStream);
+    poiWorkbook.dispose();
+    byte[] bytes = outputStream.toByteArray();
+
+    ReadOptions readOptions = new ReadOptions().sheets("data").startRow(6);
+    SharedReadHelper workbookReadHelper = new SharedReadHelper(bytes);
+    workbookReadHelper.readOptions(readOptions);
+
+    // the sheets option is kept, the header rows are read from the first row
+    Workbook workbook = new HeaderProbe(workbookReadHelper).probeRows(new ByteArrayInputStream(bytes), 1);
+    assertEquals(workbook.sizeOfSheets(), 1);
+    assertEquals(workbook.getFirstSheet().sizeOfRows(), 1);
+    assertEquals(workbook.getFirstSheet().getRow(1).getCell(1).getValue(), "name0");
+
+    // the read of other thread during probe is not limited by probe
+    assertEquals(workbookReadHelper.sharedRowSize, 5);
+
+    // the next read of read helper is not limited by probe
+    assertSame(workbookReadHelper.getReadOptions(), readOptions);
+    assertEquals(readOptions.getMaxRows(), 0);
+    assertEquals(workbookReadHelper.read(new ByteArrayInputStream(bytes)).getFirstSheet().sizeOfRows(), 5);
+  }
+
+  private void assertTestSheetMeta(WorkbookMeta workbookMeta) {
+
+    assertEquals(workbookMeta.sizeOfSheetMetas(), 1);
+    SheetMeta sheetMeta = workbookMeta.getFirstSheetMeta();
+    assertEquals(sheetMeta.getDataStartRowIndex(), 2);
+
+    Map<String, FieldMeta> fieldMetaMap = TestFactory.createFieldMetaMap();
+    assertEquals(sheetMeta.getFieldMetas().size(), fieldMetaMap.size());
+    for (FieldMeta expected : fieldMetaMap.values()) {
+      FieldMeta fieldMeta = sheetMeta.getFieldMeta(expected.getName());
+      assertEquals(fieldMeta.getColumnIndex(), expected.getColumnIndex());
+      assertEquals(fieldMeta.getHeaderMeta(1).getValue(), expected.getName());
+    }
+  }
+
+  /**
+   * read helper shared with other reads, reads the whole sheet by itself when the probe is reading
+   */
+  private static class SharedReadHelper extends Xlsx2WorkbookReadHelper {
+
+    private byte[] bytes;
+
+    private int sharedRowSize = -1;
+
+    private SharedReadHelper(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    protected void read(File file, InputStream inputStream, ByteBuffer byteBuffer, Workbook excelWorkbook,
+                        RowCursorHandler rowCursorHandler, boolean padRows, ReadOptions readOptions) {
+      if (readOptions.getMaxRows() > 0 && sharedRowSize < 0) {
+        // the shared read is limited by probe and reaches here again if the probe changes the read helper
+        sharedRowSize = 0;
+        sharedRowSize = read(new ByteArrayInputStream(bytes)).getFirstSheet().sizeOfRows();
+      }
+      super.read(file, inputStream, byteBuffer, excelWorkbook, rowCursorHandler, padRows, readOptions);
+    }
+  }
+}
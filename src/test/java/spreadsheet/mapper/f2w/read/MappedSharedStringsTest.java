@@ -0,0 +1,70 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import spreadsheet.mapper.AssertUtil;
+import spreadsheet.mapper.model.core.Workbook;
+
+import java.io.ByteArrayInputStream;
+
+import static org.testng.Assert.assertEquals;
+
+public class MappedSharedStringsTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MappedSharedStringsTest.class);
+
+  @BeforeClass
+  public void before() {
+    LOGGER.debug("-------------------starting test mapped shared strings-------------------");
+  }
+
+  @Test
+  public void testGetEntryAt() throws Exception {
+
+    String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+        "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" count=\"4\" uniqueCount=\"4\">" +
+        "<si><t>Scarlett Johansson</t></si>" +
+        "<si><t/></si>" +
+        "<si><r><t>中文</t></r><r><t xml:space=\"preserve\"> rich</t></r><rPh sb=\"0\" eb=\"1\"><t>phonetic</t></rPh></si>" +
+        "<si><t>last</t></si>" +
+        "</sst>";
+
+    MappedSharedStrings sharedStrings = new MappedSharedStrings(new ByteArrayInputStream(xml.getBytes("UTF-8")), 1);
+    try {
+
+      assertEquals(sharedStrings.getCount(), 4);
+      assertEquals(sharedStrings.getEntryAt(3), "last");
+      assertEquals(sharedStrings.getEntryAt(0), "Scarlett Johansson");
+      assertEquals(sharedStrings.getEntryAt(1), "");
+      assertEquals(sharedStrings.getEntryAt(2), "中文 rich");
+      // evicted entry decoded again
+      assertEquals(sharedStrings.getEntryAt(0), "Scarlett Johansson");
+
+    } finally {
+      sharedStrings.close();
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testGetEntryAtOutOfBounds() throws Exception {
+
+    MappedSharedStrings sharedStrings = new MappedSharedStrings(null, MappedSharedStrings.DEFAULT_CACHE_SIZE);
+    try {
+      assertEquals(sharedStrings.getCount(), 0);
+      sharedStrings.getEntryAt(0);
+    } finally {
+      sharedStrings.close();
+    }
+  }
+
+  @Test
+  public void testRead() throws Exception {
+
+    Workbook workbook = new Xlsx2WorkbookReadHelper().readOptions(new ReadOptions().mapSharedStrings(true)).read(getClass().getResourceAsStream("test.xlsx"));
+
+    AssertUtil.assertWorkbookEquals(workbook, true);
+    AssertUtil.assertWorkbookEquals(workbook, new Xlsx2WorkbookReadHelper().read(getClass().getResourceAsStream("test.xlsx")));
+  }
+}
@@ -0,0 +1,118 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class MergedRegionIndexTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MergedRegionIndexTest.class);
+
+  @BeforeClass
+  public void before() {
+    LOGGER.debug("-------------------starting test merged region index-------------------");
+  }
+
+  @Test
+  public void testFind() throws Exception {
+
+    MergedRegionIndex mergedRegionIndex = new MergedRegionIndex();
+    mergedRegionIndex.add(5, 9, 0, 0);
+    mergedRegionIndex.add(1, 4, 0, 0);
+    mergedRegionIndex.add(2, 2, 1, 3);
+    // single cell is not merged
+    mergedRegionIndex.add(0, 0, 0, 0);
+
+    assertEquals(mergedRegionIndex.size(), 3);
+
+    // ids in reading order
+    assertEquals(mergedRegionIndex.find(3, 0), 0);
+    assertEquals(mergedRegionIndex.find(2, 3), 1);
+    assertEquals(mergedRegionIndex.find(9, 0), 2);
+    assertEquals(mergedRegionIndex.getFirstRow(2), 5);
+    assertEquals(mergedRegionIndex.getLastCol(1), 3);
+
+    assertEquals(mergedRegionIndex.find(0, 0), -1);
+    assertEquals(mergedRegionIndex.find(10, 0), -1);
+    assertEquals(mergedRegionIndex.find(3, 1), -1);
+    assertEquals(mergedRegionIndex.find(2, 4), -1);
+
+    assertTrue(mergedRegionIndex.isAnchor(1, 0));
+    assertTrue(mergedRegionIndex.isAnchor(2, 1));
+    assertFalse(mergedRegionIndex.isAnchor(2, 2));
+    assertFalse(mergedRegionIndex.isAnchor(2, 0));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testAddIllegal() throws Exception {
+    new MergedRegionIndex().add(3, 2, 0, 0);
+  }
+
+  @Test
+  public void testFindRandom() throws Exception {
+
+    Random random = new Random(17);
+    int rowSize = 300;
+    int colSize = 30;
+
+    // not overlapped regions
+    int[][] grid = new int[rowSize][colSize];
+    List<int[]> regions = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      int firstRow = random.nextInt(rowSize);
+      int firstCol = random.nextInt(colSize);
+      int lastRow = Math.min(rowSize - 1, firstRow + random.nextInt(random.nextBoolean() ? 3 : 40));
+      int lastCol = Math.min(colSize - 1, firstCol + random.nextInt(random.nextBoolean() ? 2 : 10));
+      if (isOccupied(grid, firstRow, lastRow, firstCol, lastCol)) {
+        continue;
+      }
+      regions.add(new int[]{firstRow, lastRow, firstCol, lastCol});
+      for (int r = firstRow; r <= lastRow; r++) {
+        for (int c = firstCol; c <= lastCol; c++) {
+          grid[r][c] = regions.size();
+        }
+      }
+    }
+
+    MergedRegionIndex mergedRegionIndex = new MergedRegionIndex();
+    for (int[] region : regions) {
+      mergedRegionIndex.add(region[0], region[1], region[2], region[3]);
+    }
+
+    for (int r = 0; r < rowSize; r++) {
+      for (int c = 0; c < colSize; c++) {
+        int id = mergedRegionIndex.find(r, c);
+        int[] region = grid[r][c] == 0 ? null : regions.get(grid[r][c] - 1);
+
+        if (region == null || (region[0] == region[1] && region[2] == region[3])) {
+          assertEquals(id, -1);
+          continue;
+        }
+        assertEquals(mergedRegionIndex.getFirstRow(id), region[0]);
+        assertEquals(mergedRegionIndex.getLastRow(id), region[1]);
+        assertEquals(mergedRegionIndex.getFirstCol(id), region[2]);
+        assertEquals(mergedRegionIndex.getLastCol(id), region[3]);
+      }
+    }
+  }
+
+  private boolean isOccupied(int[][] grid, int firstRow, int lastRow, int firstCol, int lastCol) {
+    for (int r = firstRow; r <= lastRow; r++) {
+      for (int c = firstCol; c <= lastCol; c++) {
+        if (grid[r][c] != 0) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
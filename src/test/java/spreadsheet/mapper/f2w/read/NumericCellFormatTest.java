@@ -0,0 +1,56 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import spreadsheet.mapper.f2w.DateFormatRegisterer;
+
+import static org.testng.Assert.*;
+
+public class NumericCellFormatTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(NumericCellFormatTest.class);
+
+  @BeforeClass
+  public void before() {
+    LOGGER.debug("-------------------starting test numeric cell format-------------------");
+  }
+
+  @Test
+  public void testFormat() throws Exception {
+
+    NumericCellFormat general = new NumericCellFormat(0, "General");
+    assertFalse(general.isDate());
+    assertFalse(general.isDate(1.0));
+    assertEquals(general.format(10000, false), "10000");
+    assertEquals(general.format(0.001, false), "0.001");
+
+    NumericCellFormat date = new NumericCellFormat(164, "yyyy\\-mm\\-dd");
+    assertTrue(date.isDate());
+    assertEquals(date.getDatePattern(), DateFormatRegisterer.FULL_LOCAL_DATE_PATTERN);
+    // 1984-11-22
+    assertEquals(date.format(31008, false), "1984-11-22");
+    assertEquals(date.formatDate(new LocalDate(1984, 11, 22).toDate()), "1984-11-22");
+    assertFalse(date.isDate(-1));
+
+    NumericCellFormat unregistered = new NumericCellFormat(165, "yyyy/mm/dd");
+    assertTrue(unregistered.isDate());
+    assertNull(unregistered.getDatePattern());
+    assertEquals(unregistered.format(31008, false), DateFormatRegisterer.ERROR_PATTERN);
+  }
+
+  @Test
+  public void testCellStyleCache() throws Exception {
+
+    CellStyleCache cellStyleCache = new CellStyleCache();
+    assertNull(cellStyleCache.get(0));
+    assertNull(cellStyleCache.get(-1));
+
+    NumericCellFormat numericCellFormat = new NumericCellFormat(0, null);
+    cellStyleCache.put(1000, numericCellFormat);
+    assertSame(cellStyleCache.get(1000), numericCellFormat);
+    assertNull(cellStyleCache.get(999));
+  }
+}
@@ -0,0 +1,196 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import spreadsheet.mapper.AssertUtil;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.core.Workbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+public class Ods2WorkbookReadHelperTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Ods2WorkbookReadHelperTest.class);
+
+  private static final String CONTENT = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+      + "<office:document-content xmlns:office=\"urn:oasis:names:tc:opendocument:xmlns:office:1.0\""
+      + " xmlns:table=\"urn:oasis:names:tc:opendocument:xmlns:table:1.0\""
+      + " xmlns:text=\"urn:oasis:names:tc:opendocument:xmlns:text:1.0\" office:version=\"1.2\">\n"
+      + "<office:body><office:spreadsheet>\n"
+      + "<table:table table:name=\"values\">\n"
+      + "  <table:table-column table:number-columns-repeated=\"1024\"/>\n"
+      + "  <table:table-header-rows><table:table-row>\n"
+      + "    <table:table-cell office:value-type=\"string\"><text:p>name</text:p></table:table-cell>\n"
+      + "    <table:table-cell office:value-type=\"float\" office:value=\"12.5\" table:formula=\"of:=25/2\"><text:p>12.50</text:p></table:table-cell>\n"
+      + "    <table:table-cell office:value-type=\"percentage\" office:value=\"0.5\"><text:p>50%</text:p></table:table-cell>\n"
+      + "    <table:table-cell office:value-type=\"date\" office:date-value=\"2017-03-22\"><text:p>03/22/17</text:p></table:table-cell>\n"
+      + "    <table:table-cell office:value-type=\"date\" office:date-value=\"2017-03-22T10:11:12.5\"/>\n"
+      + "    <table:table-cell office:value-type=\"time\" office:time-value=\"PT36H05M01S\"/>\n"
+      + "    <table:table-cell office:value-type=\"boolean\" office:boolean-value=\"true\"><text:p>TRUE</text:p></table:table-cell>\n"
+      + "    <table:table-cell table:number-columns-repeated=\"16377\"/>\n"
+      + "  </table:table-row></table:table-header-rows>\n"
+      + "  <table:table-row>\n"
+      + "    <table:table-cell office:value-type=\"string\">\n"
+      + "      <office:annotation><text:p>note</text:p></office:annotation>\n"
+      + "      <text:p>a<text:s text:c=\"2\"/><text:span>b</text:span><text:tab/>c</text:p><text:p>d</text:p>\n"
+      + "    </table:table-cell>\n"
+      + "    <table:table-cell office:value-type=\"string\"><text:p>   </text:p></table:table-cell>\n"
+      + "    <table:table-cell table:number-columns-repeated=\"2\" office:value-type=\"float\" office:value=\"1\"/>\n"
+      + "  </table:table-row>\n"
+      + "  <table:table-row table:number-rows-repeated=\"3\"><table:table-cell table:number-columns-repeated=\"1024\"/></table:table-row>\n"
+      + "  <table:table-row-group><table:table-row table:number-rows-repeated=\"2\">\n"
+      + "    <table:table-cell table:number-columns-repeated=\"2\"/>\n"
+      + "    <table:table-cell office:value-type=\"string\"><text:p>x</text:p></table:table-cell>\n"
+      + "  </table:table-row></table:table-row-group>\n"
+      + "  <table:table-row table:number-rows-repeated=\"1048569\"><table:table-cell table:number-columns-repeated=\"1024\"/></table:table-row>\n"
+      + "</table:table>\n"
+      + "<table:table table:name=\"merged\">\n"
+      + "  <table:table-row>\n"
+      + "    <table:table-cell table:number-columns-spanned=\"2\" table:number-rows-spanned=\"2\" office:value-type=\"string\"><text:p>m</text:p></table:table-cell>\n"
+      + "    <table:covered-table-cell/>\n"
+      + "    <table:table-cell office:value-type=\"string\"><text:p>n</text:p></table:table-cell>\n"
+      + "  </table:table-row>\n"
+      + "  <table:table-row><table:covered-table-cell table:number-columns-repeated=\"2\"/></table:table-row>\n"
+      + "</table:table>\n"
+      + "</office:spreadsheet></office:body></office:document-content>\n";
+
+  private byte[] ods;
+
+  @BeforeClass
+  public void before() throws Exception {
+    LOGGER.debug("-------------------starting test ods workbook read helper-------------------");
+
+    ods = createOds(CONTENT);
+  }
+
+  @Test
+  public void testRead() throws Exception {
+
+    Workbook workbook = new Ods2WorkbookReadHelper().read(new ByteArrayInputStream(ods));
+    assertEquals(workbook.sizeOfSheets(), 2);
+
+    Sheet sheet = workbook.getSheet(1);
+    assertEquals(sheet.getName(), "values");
+    // the trailing repeated empty rows are not read
+    assertEquals(sheet.sizeOfRows(), 7);
+
+    assertEquals(sheet.getRow(1).sizeOfCells(), 7);
+    assertEquals(sheet.getRow(1).getCell(1).getValue(), "name");
+    assertEquals(sheet.getRow(1).getCell(2).getValue(), "12.5");
+    assertEquals(sheet.getRow(1).getCell(3).getValue(), "0.5");
+    assertEquals(sheet.getRow(1).getCell(4).getValue(), "2017-03-22");
+    assertEquals(sheet.getRow(1).getCell(5).getValue(), "2017-03-22 10:11:12");
+    assertEquals(sheet.getRow(1).getCell(6).getValue(), "36:05:01");
+    assertEquals(sheet.getRow(1).getCell(7).getValue(), "true");
+
+    assertEquals(sheet.getRow(2).getCell(1).getValue(), "a  b\tc\nd");
+    assertNull(sheet.getRow(2).getCell(2).getValue());
+    assertEquals(sheet.getRow(2).getCell(3).getValue(), "1");
+    assertEquals(sheet.getRow(2).getCell(4).getValue(), "1");
+
+    for (int i = 3; i <= 5; i++) {
+      for (int j = 1; j <= sheet.getRow(i).sizeOfCells(); j++) {
+        assertNull(sheet.getRow(i).getCell(j).getValue());
+      }
+    }
+    for (int i = 6; i <= 7; i++) {
+      assertNull(sheet.getRow(i).getCell(1).getValue());
+      assertEquals(sheet.getRow(i).getCell(3).getValue(), "x");
+    }
+
+    Sheet merged = workbook.getSheet(2);
+    assertEquals(merged.sizeOfRows(), 1);
+    assertEquals(merged.getRow(1).getCell(1).getValue(), "m");
+    assertNull(merged.getRow(1).getCell(2).getValue());
+    assertEquals(merged.getRow(1).getCell(3).getValue(), "n");
+  }
+
+  @Test
+  public void testReadSources() throws Exception {
+
+    Workbook workbook = new Ods2WorkbookReadHelper().read(new ByteArrayInputStream(ods));
+
+    File file = File.createTempFile("test", ".ods");
+    file.deleteOnExit();
+    FileUtils.writeByteArrayToFile(file, ods);
+
+    AssertUtil.assertWorkbookEquals(new Ods2WorkbookReadHelper().read(file), workbook);
+    AssertUtil.assertWorkbookEquals(new Ods2WorkbookReadHelper().read(ByteBuffer.wrap(ods)), workbook);
+
+    assertEquals(Auto2WorkbookReadHelper.detect(ods), Auto2WorkbookReadHelper.Format.ODS);
+    AssertUtil.assertWorkbookEquals(new Auto2WorkbookReadHelper().read(file), workbook);
+  }
+
+  @Test
+  public void testReadOptions() throws Exception {
+
+    Workbook workbook = new Ods2WorkbookReadHelper()
+        .readOptions(new ReadOptions().sheets("merged").fillMergedRegions(true))
+        .read(new ByteArrayInputStream(ods));
+
+    assertEquals(workbook.sizeOfSheets(), 1);
+    Sheet merged = workbook.getFirstSheet();
+    assertEquals(merged.sizeOfRows(), 2);
+    assertEquals(merged.getRow(1).getCell(2).getValue(), "m");
+    assertEquals(merged.getRow(2).getCell(1).getValue(), "m");
+    assertEquals(merged.getRow(2).getCell(2).getValue(), "m");
+
+    Sheet sheet = new Ods2WorkbookReadHelper()
+        .readOptions(new ReadOptions().sheets(1).startRow(6).maxRows(1))
+        .read(new ByteArrayInputStream(ods)).getFirstSheet();
+    assertEquals(sheet.sizeOfRows(), 1);
+    assertEquals(sheet.getRow(6).getCell(3).getValue(), "x");
+  }
+
+  @Test
+  public void testReadEmpty() throws Exception {
+
+    assertEquals(new Ods2WorkbookReadHelper().read(new ByteArrayInputStream(new byte[0])).sizeOfSheets(), 0);
+  }
+
+  @Test(expectedExceptions = WorkbookReadException.class)
+  public void testReadNoContent() throws Exception {
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+      zipOutputStream.putNextEntry(new ZipEntry("styles.xml"));
+      zipOutputStream.closeEntry();
+    }
+    new Ods2WorkbookReadHelper().read(new ByteArrayInputStream(outputStream.toByteArray()));
+  }
+
+  private byte[] createOds(String content) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+      byte[] mimetype = "application/vnd.oasis.opendocument.spreadsheet".getBytes(StandardCharsets.US_ASCII);
+      CRC32 crc = new CRC32();
+      crc.update(mimetype);
+
+      ZipEntry mimetypeEntry = new ZipEntry("mimetype");
+      mimetypeEntry.setMethod(ZipEntry.STORED);
+      mimetypeEntry.setSize(mimetype.length);
+      mimetypeEntry.setCrc(crc.getValue());
+      zipOutputStream.putNextEntry(mimetypeEntry);
+      zipOutputStream.write(mimetype);
+      zipOutputStream.closeEntry();
+
+      zipOutputStream.putNextEntry(new ZipEntry("content.xml"));
+      zipOutputStream.write(content.getBytes(StandardCharsets.UTF_8));
+      zipOutputStream.closeEntry();
+    }
+    return outputStream.toByteArray();
+  }
+}
@@ -0,0 +1,227 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import spreadsheet.mapper.AssertUtil;
+import spreadsheet.mapper.model.core.Row;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.core.Workbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+@Test(dependsOnGroups = "Excel2WorkbookReaderTest")
+public class Xls2WorkbookReadHelperTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Xls2WorkbookReadHelperTest.class);
+
+  @BeforeClass
+  public void before() {
+    LOGGER.debug("-------------------starting test xls workbook read helper-------------------");
+  }
+
+  @Test
+  public void testRead() throws Exception {
+
+    WorkbookReadHelper reader = new Xls2WorkbookReadHelper();
+
+    Workbook workbook = reader.read(getClass().getResourceAsStream("test.xls"));
+
+    AssertUtil.assertWorkbookEquals(workbook, true);
+
+    Workbook excelWorkbook = new Excel2WorkbookReadHelper().read(getClass().getResourceAsStream("test.xls"));
+
+    AssertUtil.assertWorkbookEquals(workbook, excelWorkbook);
+  }
+
+  @Test
+  public void testReadByteBuffer() throws Exception {
+
+    byte[] xls = IOUtils.toByteArray(getClass().getResourceAsStream("test.xls"));
+    Workbook workbook = new Xls2WorkbookReadHelper().read(new ByteArrayInputStream(xls));
+
+    AssertUtil.assertWorkbookEquals(new Xls2WorkbookReadHelper().read(ByteBuffer.wrap(xls)), workbook);
+    AssertUtil.assertWorkbookEquals(new Excel2WorkbookReadHelper().read(ByteBuffer.wrap(xls)), workbook);
+
+    // read from position, the position is not changed
+    ByteBuffer directBuffer = ByteBuffer.allocateDirect(xls.length + 3);
+    directBuffer.put(new byte[3]).put(xls).position(3);
+    AssertUtil.assertWorkbookEquals(new Xls2WorkbookReadHelper().read(directBuffer), workbook);
+    assertEquals(directBuffer.position(), 3);
+
+    assertEquals(new Xls2WorkbookReadHelper().read(ByteBuffer.allocate(0)).sizeOfSheets(), 0);
+  }
+
+  @Test
+  public void testReadValues() throws Exception {
+
+    byte[] bytes = createXls();
+
+    Workbook workbook = new Xls2WorkbookReadHelper().read(new ByteArrayInputStream(bytes));
+
+    assertEquals(workbook.sizeOfSheets(), 2);
+
+    Sheet sheet1 = workbook.getSheet(1);
+    assertEquals(sheet1.getName(), "data");
+    assertEquals(sheet1.sizeOfRows(), 2);
+
+    Row row1 = sheet1.getRow(1);
+    assertEquals(row1.sizeOfCells(), 6);
+    assertEquals(row1.getCell(1).getValue(), "Scarlett Johansson");
+    assertEquals(row1.getCell(2).getValue(), "10000");
+    assertEquals(row1.getCell(3).getValue(), "0.001");
+    assertEquals(row1.getCell(4).getValue(), "true");
+    assertEquals(row1.getCell(5).getValue(), "1984-11-22");
+    assertNull(row1.getCell(6).getValue());
+
+    Row row2 = sheet1.getRow(2);
+    assertEquals(row2.sizeOfCells(), 6);
+    assertNull(row2.getCell(1).getValue());
+    assertEquals(row2.getCell(2).getValue(), "1");
+
+    assertEquals(workbook.getSheet(2).getName(), "lookup");
+
+    Workbook excelWorkbook = new Excel2WorkbookReadHelper().read(new ByteArrayInputStream(bytes));
+
+    AssertUtil.assertWorkbookEquals(workbook, excelWorkbook);
+  }
+
+  @Test
+  public void testReadSheets() throws Exception {
+
+    byte[] bytes = createXls();
+
+    Workbook workbook = new Xls2WorkbookReadHelper().readOptions(new ReadOptions().sheets("lookup")).read(new ByteArrayInputStream(bytes));
+
+    assertEquals(workbook.sizeOfSheets(), 1);
+    assertEquals(workbook.getFirstSheet().getName(), "lookup");
+    assertEquals(workbook.getFirstSheet().getIndex(), 1);
+    assertEquals(workbook.getFirstSheet().getFirstRow().getCell(1).getValue(), "lookup");
+
+    Workbook excelWorkbook = new Excel2WorkbookReadHelper().readOptions(new ReadOptions().sheets(2)).read(new ByteArrayInputStream(bytes));
+
+    AssertUtil.assertWorkbookEquals(workbook, excelWorkbook);
+
+    workbook = new Xls2WorkbookReadHelper().readOptions(new ReadOptions().sheets(1)).read(new ByteArrayInputStream(bytes));
+
+    assertEquals(workbook.sizeOfSheets(), 1);
+    assertEquals(workbook.getFirstSheet().getName(), "data");
+    assertEquals(workbook.getFirstSheet().sizeOfRows(), 2);
+  }
+
+  private byte[] createXls() throws Exception {
+    HSSFWorkbook hssfWorkbook = new HSSFWorkbook();
+
+    CellStyle dateStyle = hssfWorkbook.createCellStyle();
+    dateStyle.setDataFormat(hssfWorkbook.createDataFormat().getFormat("yyyy\\-mm\\-dd"));
+
+    org.apache.poi.ss.usermodel.Sheet sheet = hssfWorkbook.createSheet("data");
+
+    org.apache.poi.ss.usermodel.Row row1 = sheet.createRow(0);
+    row1.createCell(0).setCellValue("  Scarlett Johansson ");
+    row1.createCell(1).setCellValue(10000);
+    row1.createCell(2).setCellValue(0.001);
+    row1.createCell(3).setCellValue(true);
+    row1.createCell(4).setCellValue(new LocalDate(1984, 11, 22).toDate());
+    row1.getCell(4).setCellStyle(dateStyle);
+    row1.createCell(5).setCellStyle(dateStyle);
+
+    org.apache.poi.ss.usermodel.Row row2 = sheet.createRow(1);
+    row2.createCell(0).setCellValue(" ");
+    row2.createCell(1).setCellValue(1);
+
+    hssfWorkbook.createSheet("lookup").createRow(0).createCell(0).setCellValue("lookup");
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    hssfWorkbook.write(outputStream);
+    hssfWorkbook.close();
+    return outputStream.toByteArray();
+  }
+
+  @Test
+  public void testReadFile() throws Exception {
+
+    File file = File.createTempFile("test", ".xls");
+    file.deleteOnExit();
+    FileUtils.copyInputStreamToFile(getClass().getResourceAsStream("test.xls"), file);
+    long lastModified = file.lastModified();
+
+    Workbook workbook = new Xls2WorkbookReadHelper().read(file);
+
+    AssertUtil.assertWorkbookEquals(workbook, true);
+    AssertUtil.assertWorkbookEquals(workbook, new Xls2WorkbookReadHelper().read(file.toPath()));
+    AssertUtil.assertWorkbookEquals(workbook, new Excel2WorkbookReadHelper().read(file));
+
+    final List<Row> rows = new ArrayList<>();
+    new Xls2WorkbookReadHelper().read(file, new SheetRowHandler() {
+      @Override
+      public void onSheetStart(Sheet sheet) {
+      }
+
+      @Override
+      public void onRow(Row row) {
+        rows.add(row);
+      }
+
+      @Override
+      public void onSheetEnd(Sheet sheet) {
+      }
+    });
+    assertEquals(rows.size(), 3);
+    AssertUtil.assertRow3Equals(rows.get(2));
+
+    // read only
+    assertEquals(file.lastModified(), lastModified);
+  }
+
+  @Test
+  public void testReadRows() throws Exception {
+
+    final List<Row> rows = new ArrayList<>();
+
+    new Xls2WorkbookReadHelper().read(getClass().getResourceAsStream("test.xls"), new SheetRowHandler() {
+      @Override
+      public void onSheetStart(Sheet sheet) {
+        assertEquals(sheet.getIndex(), 1);
+        assertEquals(sheet.sizeOfRows(), 0);
+      }
+
+      @Override
+      public void onRow(Row row) {
+        rows.add(row);
+      }
+
+      @Override
+      public void onSheetEnd(Sheet sheet) {
+        assertEquals(sheet.sizeOfRows(), 0);
+      }
+    });
+
+    assertEquals(rows.size(), 3);
+    for (int i = 1; i <= rows.size(); i++) {
+      Row row = rows.get(i - 1);
+      assertEquals(row.getIndex(), i);
+      assertEquals(row.getSheet().getIndex(), 1);
+      assertEquals(row.sizeOfCells(), 14);
+    }
+
+    AssertUtil.assertHeaderRowEquals(rows.get(0), true);
+    AssertUtil.assertRow2Equals(rows.get(1));
+    AssertUtil.assertRow3Equals(rows.get(2));
+  }
+}
@@ -0,0 +1,254 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.poi.util.LittleEndian;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import spreadsheet.mapper.model.core.Row;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.core.Workbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+@Test(dependsOnGroups = "Excel2WorkbookReaderTest")
+public class Xlsb2WorkbookReadHelperTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Xlsb2WorkbookReadHelperTest.class);
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  private static final Charset UTF_16LE = Charset.forName("UTF-16LE");
+
+  @BeforeClass
+  public void before() {
+    LOGGER.debug("-------------------starting test xlsb workbook read helper-------------------");
+  }
+
+  @Test
+  public void testRead() throws Exception {
+
+    Workbook workbook = new Xlsb2WorkbookReadHelper().read(new ByteArrayInputStream(createXlsb()));
+
+    assertEquals(workbook.sizeOfSheets(), 2);
+
+    Sheet sheet1 = workbook.getSheet(1);
+    assertEquals(sheet1.getName(), "data");
+    assertEquals(sheet1.sizeOfRows(), 3);
+
+    Row row1 = sheet1.getRow(1);
+    assertEquals(row1.sizeOfCells(), 10);
+    assertEquals(row1.getCell(1).getValue(), "Scarlett Johansson");
+    assertEquals(row1.getCell(2).getValue(), "10000");
+    assertEquals(row1.getCell(3).getValue(), "0.001");
+    assertEquals(row1.getCell(4).getValue(), "true");
+    assertEquals(row1.getCell(5).getValue(), "1984-11-22");
+    assertNull(row1.getCell(6).getValue());
+    assertEquals(row1.getCell(7).getValue(), "inline");
+    assertEquals(row1.getCell(8).getValue(), "1.23");
+    // formula cached result and error
+    assertEquals(row1.getCell(9).getValue(), "2");
+    assertNull(row1.getCell(10).getValue());
+
+    Row row2 = sheet1.getRow(2);
+    assertEquals(row2.sizeOfCells(), 10);
+    assertNull(row2.getCell(1).getValue());
+
+    Row row3 = sheet1.getRow(3);
+    assertEquals(row3.sizeOfCells(), 10);
+    assertEquals(row3.getCell(2).getValue(), "lookup");
+
+    Sheet sheet2 = workbook.getSheet(2);
+    assertEquals(sheet2.getName(), "lookup");
+    assertEquals(sheet2.getIndex(), 2);
+    assertEquals(sheet2.getFirstRow().getCell(1).getValue(), "lookup");
+  }
+
+  @Test
+  public void testReadRows() throws Exception {
+
+    final List<Row> rows = new ArrayList<>();
+
+    new Xlsb2WorkbookReadHelper().readOptions(new ReadOptions().sheets("data").columns(1, 5))
+        .read(new ByteArrayInputStream(createXlsb()), new SheetRowHandler() {
+          @Override
+          public void onSheetStart(Sheet sheet) {
+            assertEquals(sheet.getName(), "data");
+          }
+
+          @Override
+          public void onRow(Row row) {
+            rows.add(row);
+          }
+
+          @Override
+          public void onSheetEnd(Sheet sheet) {
+            assertEquals(sheet.sizeOfRows(), 0);
+          }
+        });
+
+    assertEquals(rows.size(), 3);
+    assertEquals(rows.get(0).sizeOfCells(), 5);
+    assertEquals(rows.get(0).getCell(1).getValue(), "Scarlett Johansson");
+    assertNull(rows.get(0).getCell(2).getValue());
+    assertEquals(rows.get(0).getCell(5).getValue(), "1984-11-22");
+    assertNull(rows.get(2).getCell(2).getValue());
+  }
+
+  @Test
+  public void testToRkNumber() throws Exception {
+
+    assertEquals(XlsbSheetParser.toRkNumber(10000 << 2 | 0x02), 10000.0);
+    assertEquals(XlsbSheetParser.toRkNumber(-5 << 2 | 0x02), -5.0);
+    assertEquals(XlsbSheetParser.toRkNumber(123 << 2 | 0x03), 1.23);
+
+    int rk = (int) (Double.doubleToLongBits(0.5) >>> 32);
+    assertEquals(XlsbSheetParser.toRkNumber(rk), 0.5);
+    assertEquals(XlsbSheetParser.toRkNumber(rk | 0x01), 0.005);
+  }
+
+  /*=====================
+    minimal xlsb package
+   ======================*/
+  byte[] createXlsb() throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+
+    putEntry(zipOutputStream, "[Content_Types].xml", ("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+        "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">" +
+        "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>" +
+        "<Override PartName=\"/xl/workbook.bin\" ContentType=\"application/vnd.ms-excel.sheet.binary.macroEnabled.main\"/>" +
+        "<Override PartName=\"/xl/worksheets/sheet1.bin\" ContentType=\"application/vnd.ms-excel.worksheet\"/>" +
+        "<Override PartName=\"/xl/worksheets/sheet2.bin\" ContentType=\"application/vnd.ms-excel.worksheet\"/>" +
+        "<Override PartName=\"/xl/styles.bin\" ContentType=\"application/vnd.ms-excel.styles\"/>" +
+        "<Override PartName=\"/xl/sharedStrings.bin\" ContentType=\"application/vnd.ms-excel.sharedStrings\"/>" +
+        "</Types>").getBytes(UTF_8));
+
+    putEntry(zipOutputStream, "_rels/.rels", ("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+        "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+        "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument\" Target=\"xl/workbook.bin\"/>" +
+        "</Relationships>").getBytes(UTF_8));
+
+    putEntry(zipOutputStream, "xl/_rels/workbook.bin.rels", ("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>" +
+        "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+        "<Relationship Id=\"rId1\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet1.bin\"/>" +
+        "<Relationship Id=\"rId2\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet\" Target=\"worksheets/sheet2.bin\"/>" +
+        "<Relationship Id=\"rId3\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles\" Target=\"styles.bin\"/>" +
+        "<Relationship Id=\"rId4\" Type=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships/sharedStrings\" Target=\"sharedStrings.bin\"/>" +
+        "</Relationships>").getBytes(UTF_8));
+
+    // workbook: BrtWbProp, BrtBundleSh
+    ByteArrayOutputStream workbook = new ByteArrayOutputStream();
+    writeRecord(workbook, 153, concat(int32(0), int32(0), int32(0)));
+    writeRecord(workbook, 156, concat(int32(0), int32(1), wideString("rId1"), wideString("data")));
+    writeRecord(workbook, 156, concat(int32(0), int32(2), wideString("rId2"), wideString("lookup")));
+    putEntry(zipOutputStream, "xl/workbook.bin", workbook.toByteArray());
+
+    // styles: BrtFmt, BrtBeginCellXFs, BrtXf, BrtEndCellXFs
+    ByteArrayOutputStream styles = new ByteArrayOutputStream();
+    writeRecord(styles, 615, int32(1));
+    writeRecord(styles, 44, concat(int16(164), wideString("yyyy\\-mm\\-dd")));
+    writeRecord(styles, 616, new byte[0]);
+    writeRecord(styles, 617, int32(2));
+    writeRecord(styles, 47, concat(int16(0xFFFF), int16(0), new byte[12]));
+    writeRecord(styles, 47, concat(int16(0xFFFF), int16(164), new byte[12]));
+    writeRecord(styles, 618, new byte[0]);
+    putEntry(zipOutputStream, "xl/styles.bin", styles.toByteArray());
+
+    // shared strings: BrtBeginSst, BrtSstItem, BrtEndSst
+    ByteArrayOutputStream sharedStrings = new ByteArrayOutputStream();
+    writeRecord(sharedStrings, 159, concat(int32(2), int32(2)));
+    writeRecord(sharedStrings, 19, concat(new byte[]{0}, wideString("  Scarlett Johansson ")));
+    writeRecord(sharedStrings, 19, concat(new byte[]{0}, wideString("lookup")));
+    writeRecord(sharedStrings, 160, new byte[0]);
+    putEntry(zipOutputStream, "xl/sharedStrings.bin", sharedStrings.toByteArray());
+
+    ByteArrayOutputStream sheet1 = new ByteArrayOutputStream();
+    writeRecord(sheet1, 148, concat(int32(0), int32(2), int32(0), int32(9)));
+    writeRecord(sheet1, 0, concat(int32(0), new byte[13]));
+    writeRecord(sheet1, 7, concat(cell(0, 0), int32(0)));
+    writeRecord(sheet1, 2, concat(cell(1, 0), int32(10000 << 2 | 0x02)));
+    writeRecord(sheet1, 5, concat(cell(2, 0), float64(0.001)));
+    writeRecord(sheet1, 4, concat(cell(3, 0), new byte[]{1}));
+    writeRecord(sheet1, 5, concat(cell(4, 1), float64(31008)));
+    writeRecord(sheet1, 1, cell(5, 1));
+    writeRecord(sheet1, 6, concat(cell(6, 0), wideString("inline")));
+    writeRecord(sheet1, 2, concat(cell(7, 0), int32(123 << 2 | 0x03)));
+    writeRecord(sheet1, 9, concat(cell(8, 0), float64(2), int16(0), int32(0)));
+    writeRecord(sheet1, 3, concat(cell(9, 0), new byte[]{0x07}));
+    writeRecord(sheet1, 0, concat(int32(2), new byte[13]));
+    writeRecord(sheet1, 7, concat(cell(1, 0), int32(1)));
+    putEntry(zipOutputStream, "xl/worksheets/sheet1.bin", sheet1.toByteArray());
+
+    ByteArrayOutputStream sheet2 = new ByteArrayOutputStream();
+    writeRecord(sheet2, 0, concat(int32(0), new byte[13]));
+    writeRecord(sheet2, 7, concat(cell(0, 0), int32(1)));
+    putEntry(zipOutputStream, "xl/worksheets/sheet2.bin", sheet2.toByteArray());
+
+    zipOutputStream.close();
+    return outputStream.toByteArray();
+  }
+
+  private void putEntry(ZipOutputStream zipOutputStream, String name, byte[] bytes) throws Exception {
+    zipOutputStream.putNextEntry(new ZipEntry(name));
+    zipOutputStream.write(bytes);
+    zipOutputStream.closeEntry();
+  }
+
+  private void writeRecord(ByteArrayOutputStream outputStream, int recordType, byte[] data) {
+    writeVarInt(outputStream, recordType);
+    writeVarInt(outputStream, data.length);
+    outputStream.write(data, 0, data.length);
+  }
+
+  private void writeVarInt(ByteArrayOutputStream outputStream, int value) {
+    do {
+      int b = value & 0x7F;
+      value >>>= 7;
+      outputStream.write(value == 0 ? b : b | 0x80);
+    } while (value != 0);
+  }
+
+  private byte[] cell(int colNum, int styleIndex) {
+    return concat(int32(colNum), new byte[]{(byte) styleIndex, 0, 0, 0});
+  }
+
+  private byte[] wideString(String value) {
+    return concat(int32(value.length()), value.getBytes(UTF_16LE));
+  }
+
+  private byte[] int16(int value) {
+    byte[] bytes = new byte[2];
+    LittleEndian.putUShort(bytes, 0, value);
+    return bytes;
+  }
+
+  private byte[] int32(int value) {
+    byte[] bytes = new byte[4];
+    LittleEndian.putInt(bytes, 0, value);
+    return bytes;
+  }
+
+  private byte[] float64(double value) {
+    byte[] bytes = new byte[8];
+    LittleEndian.putDouble(bytes, 0, value);
+    return bytes;
+  }
+
+  private byte[] concat(byte[]... arrays) {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    for (byte[] array : arrays) {
+      outputStream.write(array, 0, array.length);
+    }
+    return outputStream.toByteArray();
+  }
+}
@@ -0,0 +1,565 @@
+package spreadsheet.mapper.f2w.read;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.joda.time.LocalDate;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import spreadsheet.mapper.AssertUtil;
+import spreadsheet.mapper.model.core.Row;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.core.Workbook;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+@Test(dependsOnGroups = "Excel2WorkbookReaderTest")
+public class Xlsx2WorkbookReadHelperTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Xlsx2WorkbookReadHelperTest.class);
+
+  @BeforeClass
+  public void before() {
+    LOGGER.debug("-------------------starting test xlsx workbook read helper-------------------");
+  }
+
+  @Test
+  public void testRead() throws Exception {
+
+    WorkbookReadHelper reader = new Xlsx2WorkbookReadHelper();
+
+    Workbook workbook = reader.read(getClass().getResourceAsStream("test.xlsx"));
+
+    AssertUtil.assertWorkbookEquals(workbook, true);
+    assertEquals(workbook.getFirstSheet().getName(), "Sheet0");
+
+    Workbook excelWorkbook = new Excel2WorkbookReadHelper().read(getClass().getResourceAsStream("test.xlsx"));
+
+    AssertUtil.assertWorkbookEquals(workbook, excelWorkbook);
+  }
+
+  @Test
+  public void testReadDate() throws Exception {
+
+    WorkbookReadHelper reader = new Xlsx2WorkbookReadHelper();
+
+    Workbook workbook = reader.read(getClass().getResourceAsStream("dateFormatTest.xlsx"));
+
+    Sheet firstSheet = workbook.getFirstSheet();
+
+    Row firstRow = firstSheet.getFirstRow();
+
+    assertEquals(firstRow.getCell(1).getValue(), "1984-11-22");
+    assertEquals(firstRow.getCell(2).getValue(), "1984-11-22");
+    assertEquals(firstRow.getCell(3).getValue(), "1984-11-22");
+    assertEquals(firstRow.getCell(4).getValue(), "1984-11-22");
+
+    Workbook excelWorkbook = new Excel2WorkbookReadHelper().read(getClass().getResourceAsStream("dateFormatTest.xlsx"));
+
+    AssertUtil.assertWorkbookEquals(workbook, excelWorkbook);
+  }
+
+  @Test
+  public void testReadSheets() throws Exception {
+
+    XSSFWorkbook xssfWorkbook = new XSSFWorkbook();
+    xssfWorkbook.createSheet("instruction").createRow(0).createCell(0).setCellValue("instruction");
+    xssfWorkbook.createSheet("data").createRow(1).createCell(1).setCellValue("data");
+    xssfWorkbook.createSheet("lookup").createRow(0).createCell(0).setCellValue("lookup");
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    xssfWorkbook.write(outputStream);
+    xssfWorkbook.close();
+    byte[] bytes = outputStream.toByteArray();
+
+    Workbook workbook = new Xlsx2WorkbookReadHelper().readOptions(new ReadOptions().sheets("data")).read(new ByteArrayInputStream(bytes));
+
+    assertEquals(workbook.sizeOfSheets(), 1);
+    Sheet sheet = workbook.getFirstSheet();
+    assertEquals(sheet.getName(), "data");
+    assertEquals(sheet.getIndex(), 1);
+    assertEquals(sheet.sizeOfRows(), 2);
+    assertEquals(sheet.getRow(2).getCell(2).getValue(), "data");
+
+    Workbook excelWorkbook = new Excel2WorkbookReadHelper().readOptions(new ReadOptions().sheets(2)).read(new ByteArrayInputStream(bytes));
+
+    AssertUtil.assertWorkbookEquals(workbook, excelWorkbook);
+
+    workbook = new Xlsx2WorkbookReadHelper().readOptions(new ReadOptions().sheets(1, 3)).read(new ByteArrayInputStream(bytes));
+
+    assertEquals(workbook.sizeOfSheets(), 2);
+    assertEquals(workbook.getSheet(1).getName(), "instruction");
+    assertEquals(workbook.getSheet(2).getName(), "lookup");
+    assertEquals(workbook.getSheet(2).getIndex(), 2);
+  }
+
+  @Test
+  public void testReadConcurrently() throws Exception {
+
+    XSSFWorkbook xssfWorkbook = new XSSFWorkbook();
+    CellStyle dateStyle = xssfWorkbook.createCellStyle();
+    dateStyle.setDataFormat(xssfWorkbook.createDataFormat().getFormat("yyyy\\-mm\\-dd"));
+
+    for (int i = 1; i <= 8; i++) {
+      org.apache.poi.ss.usermodel.Sheet sheet = xssfWorkbook.createSheet("branch" + i);
+      for (int j = 0; j < i * 50; j++) {
+        org.apache.poi.ss.usermodel.Row row = sheet.createRow(j);
+        row.createCell(0).setCellValue("branch" + i + "-" + j);
+        row.createCell(i).setCellValue(j);
+        row.createCell(i + 1).setCellValue(new LocalDate(1984, 11, 22).plusDays(j).toDate());
+        row.getCell(i + 1).setCellStyle(dateStyle);
+      }
+    }
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    xssfWorkbook.write(outputStream);
+    xssfWorkbook.close();
+    byte[] bytes = outputStream.toByteArray();
+
+    ExecutorService executorService = Executors.newFixedThreadPool(4);
+    try {
+
+      Workbook workbook = new Xlsx2WorkbookReadHelper().readOptions(new ReadOptions().executorService(executorService)).read(new ByteArrayInputStream(bytes));
+
+      assertEquals(workbook.sizeOfSheets(), 8);
+      for (int i = 1; i <= 8; i++) {
+        Sheet sheet = workbook.getSheet(i);
+        assertEquals(sheet.getName(), "branch" + i);
+        assertEquals(sheet.sizeOfRows(), i * 50);
+        assertEquals(sheet.getRow(2).getCell(i + 2).getValue(), "1984-11-23");
+      }
+
+      AssertUtil.assertWorkbookEquals(workbook, new Xlsx2WorkbookReadHelper().read(new ByteArrayInputStream(bytes)));
+      AssertUtil.assertWorkbookEquals(workbook, new Excel2WorkbookReadHelper().read(new ByteArrayInputStream(bytes)));
+
+    } finally {
+      executorService.shutdown();
+    }
+  }
+
+  @Test
+  public void testReadColumns() throws Exception {
+
+    ReadOptions readOptions = new ReadOptions().columns(2, 5).headerRows(1);
+
+    Workbook workbook = new Xlsx2WorkbookReadHelper().readOptions(readOptions).read(getClass().getResourceAsStream("test.xlsx"));
+    Workbook fullWorkbook = new Xlsx2WorkbookReadHelper().read(getClass().getResourceAsStream("test.xlsx"));
+
+    Sheet sheet = workbook.getFirstSheet();
+    Sheet fullSheet = fullWorkbook.getFirstSheet();
+    assertEquals(sheet.sizeOfRows(), 3);
+
+    // header row intact
+    AssertUtil.assertRowEquals(sheet.getRow(1), fullSheet.getRow(1));
+
+    for (int i = 2; i <= sheet.sizeOfRows(); i++) {
+      Row row = sheet.getRow(i);
+      Row fullRow = fullSheet.getRow(i);
+
+      assertEquals(row.sizeOfCells(), 5);
+      assertNull(row.getCell(1).getValue());
+      assertEquals(row.getCell(2).getValue(), fullRow.getCell(2).getValue());
+      assertNull(row.getCell(3).getValue());
+      assertNull(row.getCell(4).getValue());
+      assertEquals(row.getCell(5).getValue(), fullRow.getCell(5).getValue());
+    }
+
+    AssertUtil.assertWorkbookEquals(workbook, new Excel2WorkbookReadHelper().readOptions(readOptions).read(getClass().getResourceAsStream("test.xlsx")));
+    AssertUtil.assertWorkbookEquals(workbook, new Xls2WorkbookReadHelper().readOptions(readOptions).read(getClass().getResourceAsStream("test.xls")));
+  }
+
+  @Test
+  public void testReadUsedRange() throws Exception {
+
+    byte[] xlsx = createFormattedWorkbook(new XSSFWorkbook());
+    byte[] xls = createFormattedWorkbook(new HSSFWorkbook());
+
+    ReadOptions readOptions = new ReadOptions().usedRange(true);
+    Workbook workbook = new Xlsx2WorkbookReadHelper().readOptions(readOptions).read(new ByteArrayInputStream(xlsx));
+
+    Sheet sheet = workbook.getFirstSheet();
+    assertEquals(sheet.sizeOfRows(), 3);
+    for (Row row : sheet.getRows()) {
+      assertEquals(row.sizeOfCells(), 3);
+    }
+    assertEquals(sheet.getRow(1).getCell(2).getValue(), "b");
+    assertNull(sheet.getRow(2).getCell(1).getValue());
+    assertEquals(sheet.getRow(3).getCell(3).getValue(), "c");
+
+    AssertUtil.assertWorkbookEquals(workbook, new Excel2WorkbookReadHelper().readOptions(readOptions).read(new ByteArrayInputStream(xlsx)));
+    AssertUtil.assertWorkbookEquals(workbook, new Excel2WorkbookReadHelper().readOptions(readOptions).read(new ByteArrayInputStream(xls)));
+    AssertUtil.assertWorkbookEquals(workbook, new Xls2WorkbookReadHelper().readOptions(readOptions).read(new ByteArrayInputStream(xls)));
+
+    final List<Integer> rowIndexes = new ArrayList<>();
+    new Xlsx2WorkbookReadHelper().readOptions(readOptions).read(new ByteArrayInputStream(xlsx), new RowCursorHandler() {
+      @Override
+      public void onSheetStart(Sheet sheet) {
+      }
+
+      @Override
+      public void onRow(RowCursor rowCursor) {
+        rowIndexes.add(rowCursor.getIndex());
+        // padded to the used columns read before, the held empty row is pushed after row 3 read
+        assertEquals(rowCursor.sizeOfCells(), rowCursor.getIndex() == 1 ? 2 : 3);
+      }
+
+      @Override
+      public void onSheetEnd(Sheet sheet) {
+      }
+    });
+    assertEquals(rowIndexes, Arrays.asList(1, 2, 3));
+
+    // formatted rows are read without used range
+    assertEquals(new Xlsx2WorkbookReadHelper().read(new ByteArrayInputStream(xlsx)).getFirstSheet().sizeOfRows(), 2000);
+    assertEquals(new Excel2WorkbookReadHelper().read(new ByteArrayInputStream(xls)).getFirstSheet().sizeOfRows(), 2000);
+  }
+
+  private byte[] createFormattedWorkbook(org.apache.poi.ss.usermodel.Workbook poiWorkbook) throws Exception {
+
+    CellStyle style = poiWorkbook.createCellStyle();
+    style.setFillForegroundColor(IndexedColors.YELLOW.getIndex());
+    style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+    org.apache.poi.ss.usermodel.Sheet sheet = poiWorkbook.createSheet("formatted");
+    sheet.createRow(0).createCell(0).setCellValue("a");
+    sheet.getRow(0).createCell(1).setCellValue("b");
+    sheet.createRow(2).createCell(2).setCellValue("c");
+    sheet.getRow(2).createCell(15).setCellStyle(style);
+
+    // formatted to the end
+    for (int i = 3; i < 2000; i++) {
+      org.apache.poi.ss.usermodel.Row row = sheet.createRow(i);
+      row.setRowStyle(style);
+      row.createCell(10).setCellStyle(style);
+      row.createCell(11).setCellValue(" ");
+    }
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    poiWorkbook.write(outputStream);
+    poiWorkbook.close();
+    return outputStream.toByteArray();
+  }
+
+  @Test
+  public void testReadRowRange() throws Exception {
+
+    byte[] xlsx = createPagedWorkbook(new XSSFWorkbook());
+    byte[] xls = createPagedWorkbook(new HSSFWorkbook());
+
+    ReadOptions readOptions = new ReadOptions().startRow(101).maxRows(50);
+    Workbook workbook = new Xlsx2WorkbookReadHelper().readOptions(readOptions).read(new ByteArrayInputStream(xlsx));
+
+    assertEquals(workbook.sizeOfSheets(), 2);
+    for (Sheet sheet : workbook.getSheets()) {
+      assertEquals(sheet.sizeOfRows(), 50);
+      // the collected rows keep their index in file as the rows pushed to handler
+      assertEquals(sheet.getFirstRow().getIndex(), 101);
+      assertEquals(sheet.getRow(101).getCell(1).getValue(), sheet.getName() + "-100");
+      assertEquals(sheet.getRow(150).getIndex(), 150);
+      assertEquals(sheet.getRow(150).getCell(2).getValue(), "149");
+    }
+
+    AssertUtil.assertWorkbookEquals(workbook, new Excel2WorkbookReadHelper().readOptions(readOptions).read(new ByteArrayInputStream(xlsx)));
+    AssertUtil.assertWorkbookEquals(workbook, new Excel2WorkbookReadHelper().readOptions(readOptions).read(new ByteArrayInputStream(xls)));
+    AssertUtil.assertWorkbookEquals(workbook, new Xls2WorkbookReadHelper().readOptions(readOptions).read(new ByteArrayInputStream(xls)));
+
+    final List<String> rowIndexes = new ArrayList<>();
+    RowCursorHandler rowCursorHandler = new RowCursorHandler() {
+      @Override
+      public void onSheetStart(Sheet sheet) {
+      }
+
+      @Override
+      public void onRow(RowCursor rowCursor) {
+        // index in file
+        rowIndexes.add(rowCursor.getSheet().getName() + ":" + rowCursor.getIndex());
+        assertEquals(rowCursor.getValue(1), rowCursor.getSheet().getName() + "-" + (rowCursor.getIndex() - 1));
+      }
+
+      @Override
+      public void onSheetEnd(Sheet sheet) {
+      }
+    };
+
+    // resume from next page, stop at first sheet
+    ReadOptions nextPage = new ReadOptions().sheets(1).startRow(151).maxRows(50);
+    new Xlsx2WorkbookReadHelper().readOptions(nextPage).read(new ByteArrayInputStream(xlsx), rowCursorHandler);
+    new Xls2WorkbookReadHelper().readOptions(nextPage).read(new ByteArrayInputStream(xls), rowCursorHandler);
+    new Excel2WorkbookReadHelper().readOptions(nextPage).read(new ByteArrayInputStream(xls), rowCursorHandler);
+
+    assertEquals(rowIndexes.size(), 150);
+    for (int i = 0; i < 150; i++) {
+      assertEquals(rowIndexes.get(i), "s1:" + (151 + i % 50));
+    }
+
+    // last page
+    Workbook lastPage = new Xlsx2WorkbookReadHelper().readOptions(new ReadOptions().startRow(981).maxRows(50)).read(new ByteArrayInputStream(xlsx));
+    assertEquals(lastPage.getFirstSheet().sizeOfRows(), 20);
+  }
+
+  private byte[] createPagedWorkbook(org.apache.poi.ss.usermodel.Workbook poiWorkbook) throws Exception {
+
+    for (int i = 1; i <= 2; i++) {
+      org.apache.poi.ss.usermodel.Sheet sheet = poiWorkbook.createSheet("s" + i);
+      for (int j = 0; j < 1000; j++) {
+        org.apache.poi.ss.usermodel.Row row = sheet.createRow(j);
+        row.createCell(0).setCellValue("s" + i + "-" + j);
+        row.createCell(1).setCellValue(j);
+      }
+    }
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    poiWorkbook.write(outputStream);
+    poiWorkbook.close();
+    return outputStream.toByteArray();
+  }
+
+  @Test
+  public void testReadMergedRegions() throws Exception {
+
+    byte[] xlsx = createMergedWorkbook(new XSSFWorkbook());
+    byte[] xls = createMergedWorkbook(new HSSFWorkbook());
+    ReadOptions readOptions = new ReadOptions().fillMergedRegions(true);
+
+    Sheet sheet = new Xlsx2WorkbookReadHelper().readOptions(readOptions).read(new ByteArrayInputStream(xlsx)).getFirstSheet();
+    assertEquals(sheet.sizeOfRows(), 8);
+    for (int i = 2; i <= 4; i++) {
+      assertEquals(sheet.getRow(i).getCell(1).getValue(), "A");
+    }
+    assertEquals(sheet.getRow(5).getCell(1).getValue(), "B");
+    assertEquals(sheet.getRow(6).getCell(1).getValue(), "B");
+    assertEquals(sheet.getRow(6).getCell(2).getValue(), "n5");
+    // missing row in file
+    for (int i = 7; i <= 8; i++) {
+      assertNull(sheet.getRow(i).getCell(1).getValue());
+      assertEquals(sheet.getRow(i).getCell(2).getValue(), "total");
+      assertEquals(sheet.getRow(i).getCell(3).getValue(), "total");
+    }
+
+    AssertUtil.assertWorkbookEquals(new Xlsx2WorkbookReadHelper().readOptions(readOptions).read(new ByteArrayInputStream(xlsx)),
+        new Excel2WorkbookReadHelper().readOptions(readOptions).read(new ByteArrayInputStream(xlsx)));
+    AssertUtil.assertWorkbookEquals(new Xlsx2WorkbookReadHelper().readOptions(readOptions).read(new ByteArrayInputStream(xlsx)),
+        new Xls2WorkbookReadHelper().readOptions(readOptions).read(new ByteArrayInputStream(xls)));
+
+    // not filled by default
+    Sheet notFilled = new Xlsx2WorkbookReadHelper().read(new ByteArrayInputStream(xlsx)).getFirstSheet();
+    assertNull(notFilled.getRow(3).getCell(1).getValue());
+
+    // anchor before start row, anchor column not requested
+    readOptions = new ReadOptions().fillMergedRegions(true).startRow(3).maxRows(6).columns(2, 3);
+    for (WorkbookReadHelperAdapter readHelper : Arrays.<WorkbookReadHelperAdapter>asList(new Xlsx2WorkbookReadHelper(), new Xls2WorkbookReadHelper(), new Excel2WorkbookReadHelper())) {
+      byte[] bytes = readHelper instanceof Xls2WorkbookReadHelper ? xls : xlsx;
+      Sheet rangeSheet = readHelper.readOptions(readOptions).read(new ByteArrayInputStream(bytes)).getFirstSheet();
+
+      assertEquals(rangeSheet.sizeOfRows(), 6);
+      assertNull(rangeSheet.getRow(3).getCell(1).getValue());
+      assertEquals(rangeSheet.getRow(3).getCell(2).getValue(), "n2");
+      assertEquals(rangeSheet.getRow(7).getCell(2).getValue(), "total");
+      assertEquals(rangeSheet.getRow(8).getCell(3).getValue(), "total");
+    }
+  }
+
+  /**
+   * category merged over rows, total merged over columns and a missing row
+   */
+  private byte[] createMergedWorkbook(org.apache.poi.ss.usermodel.Workbook poiWorkbook) throws Exception {
+
+    org.apache.poi.ss.usermodel.Sheet sheet = poiWorkbook.createSheet("merged");
+    org.apache.poi.ss.usermodel.Row header = sheet.createRow(0);
+    header.createCell(0).setCellValue("category");
+    header.createCell(1).setCellValue("name");
+    header.createCell(2).setCellValue("amount");
+
+    for (int i = 1; i <= 5; i++) {
+      org.apache.poi.ss.usermodel.Row row = sheet.createRow(i);
+      row.createCell(1).setCellValue("n" + i);
+      row.createCell(2).setCellValue(i);
+    }
+    sheet.getRow(1).createCell(0).setCellValue("A");
+    sheet.getRow(4).createCell(0).setCellValue("B");
+    sheet.createRow(6).createCell(1).setCellValue("total");
+
+    sheet.addMergedRegion(new CellRangeAddress(1, 3, 0, 0));
+    sheet.addMergedRegion(new CellRangeAddress(4, 5, 0, 0));
+    sheet.addMergedRegion(new CellRangeAddress(6, 7, 1, 2));
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    poiWorkbook.write(outputStream);
+    poiWorkbook.close();
+    return outputStream.toByteArray();
+  }
+
+  @Test
+  public void testReadFormulas() throws Exception {
+
+    byte[] xlsx = createFormulaWorkbook(new XSSFWorkbook());
+    byte[] xls = createFormulaWorkbook(new HSSFWorkbook());
+
+    // cached results
+    for (WorkbookReadHelperAdapter readHelper : Arrays.<WorkbookReadHelperAdapter>asList(new Xlsx2WorkbookReadHelper(), new Xls2WorkbookReadHelper(), new Excel2WorkbookReadHelper())) {
+      byte[] bytes = readHelper instanceof Xls2WorkbookReadHelper ? xls : xlsx;
+      Row row = readHelper.read(new ByteArrayInputStream(bytes)).getSheet(2).getFirstRow();
+
+      assertEquals(row.getCell(1).getValue(), "4");
+      assertEquals(row.getCell(2).getValue(), "x2");
+      assertEquals(row.getCell(3).getValue(), "true");
+      assertNull(row.getCell(4).getValue());
+    }
+
+    // evaluated with the value changed after last calculation
+    Workbook workbook = new Excel2WorkbookReadHelper().readOptions(new ReadOptions().evaluateFormulas(true)).read(new ByteArrayInputStream(xlsx));
+    Row row = workbook.getSheet(2).getFirstRow();
+    assertEquals(row.getCell(1).getValue(), "20");
+    assertEquals(row.getCell(2).getValue(), "x10");
+    assertEquals(row.getCell(3).getValue(), "true");
+    assertNull(row.getCell(4).getValue());
+    assertEquals(workbook.getSheet(1).getFirstRow().getCell(1).getValue(), "10");
+  }
+
+  /**
+   * formulas of second sheet refer to first sheet, the first sheet value is changed after calculated
+   */
+  private byte[] createFormulaWorkbook(org.apache.poi.ss.usermodel.Workbook poiWorkbook) throws Exception {
+
+    org.apache.poi.ss.usermodel.Cell input = poiWorkbook.createSheet("input").createRow(0).createCell(0);
+    input.setCellValue(2);
+
+    org.apache.poi.ss.usermodel.Row row = poiWorkbook.createSheet("formula").createRow(0);
+    row.createCell(0).setCellFormula("input!A1*2");
+    row.createCell(1).setCellFormula("CONCATENATE(\"x\",input!A1)");
+    row.createCell(2).setCellFormula("input!A1>1");
+    row.createCell(3).setCellFormula("1/0");
+
+    poiWorkbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+    input.setCellValue(10);
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    poiWorkbook.write(outputStream);
+    poiWorkbook.close();
+    return outputStream.toByteArray();
+  }
+
+  @Test
+  public void testReadFile() throws Exception {
+
+    File file = File.createTempFile("test", ".xlsx");
+    file.deleteOnExit();
+    FileUtils.copyInputStreamToFile(getClass().getResourceAsStream("test.xlsx"), file);
+    long lastModified = file.lastModified();
+
+    Workbook workbook = new Xlsx2WorkbookReadHelper().read(file);
+
+    AssertUtil.assertWorkbookEquals(workbook, true);
+    AssertUtil.assertWorkbookEquals(workbook, new Xlsx2WorkbookReadHelper().read(file.toPath()));
+    AssertUtil.assertWorkbookEquals(workbook, new Excel2WorkbookReadHelper().read(file));
+
+    final List<Row> rows = new ArrayList<>();
+    new Xlsx2WorkbookReadHelper().read(file, new SheetRowHandler() {
+      @Override
+      public void onSheetStart(Sheet sheet) {
+      }
+
+      @Override
+      public void onRow(Row row) {
+        rows.add(row);
+      }
+
+      @Override
+      public void onSheetEnd(Sheet sheet) {
+      }
+    });
+    assertEquals(rows.size(), 3);
+    AssertUtil.assertRow3Equals(rows.get(2));
+
+    // read only
+    assertEquals(file.lastModified(), lastModified);
+  }
+
+  @Test
+  public void testReadRows() throws Exception {
+
+    final List<Row> rows = new ArrayList<>();
+
+    new Xlsx2WorkbookReadHelper().read(getClass().getResourceAsStream("test.xlsx"), new SheetRowHandler() {
+      @Override
+      public void onSheetStart(Sheet sheet) {
+        assertEquals(sheet.getIndex(), 1);
+        assertEquals(sheet.sizeOfRows(), 0);
+      }
+
+      @Override
+      public void onRow(Row row) {
+        rows.add(row);
+      }
+
+      @Override
+      public void onSheetEnd(Sheet sheet) {
+        assertEquals(sheet.sizeOfRows(), 0);
+      }
+    });
+
+    assertEquals(rows.size(), 3);
+    for (int i = 1; i <= rows.size(); i++) {
+      Row row = rows.get(i - 1);
+      assertEquals(row.getIndex(), i);
+      assertEquals(row.getSheet().getIndex(), 1);
+      assertEquals(row.sizeOfCells(), 14);
+    }
+
+    AssertUtil.assertHeaderRowEquals(rows.get(0), true);
+    AssertUtil.assertRow2Equals(rows.get(1));
+    AssertUtil.assertRow3Equals(rows.get(2));
+  }
+
+  @Test
+  public void testReadCursor() throws Exception {
+
+    final List<RowCursor> cursors = new ArrayList<>();
+    final List<Row> rows = new ArrayList<>();
+
+    new Xlsx2WorkbookReadHelper().read(getClass().getResourceAsStream("test.xlsx"), new RowCursorHandler() {
+      @Override
+      public void onSheetStart(Sheet sheet) {
+        assertEquals(sheet.getIndex(), 1);
+      }
+
+      @Override
+      public void onRow(RowCursor rowCursor) {
+        cursors.add(rowCursor);
+        assertEquals(rowCursor.getIndex(), cursors.size());
+        assertEquals(rowCursor.sizeOfCells(), 14);
+        rows.add(rowCursor.toRow());
+      }
+
+      @Override
+      public void onSheetEnd(Sheet sheet) {
+        assertEquals(sheet.sizeOfRows(), 0);
+      }
+    });
+
+    assertEquals(cursors.size(), 3);
+    assertSame(cursors.get(0), cursors.get(1));
+    assertSame(cursors.get(1), cursors.get(2));
+
+    AssertUtil.assertHeaderRowEquals(rows.get(0), true);
+    AssertUtil.assertRow2Equals(rows.get(1));
+    AssertUtil.assertRow3Equals(rows.get(2));
+  }
+}
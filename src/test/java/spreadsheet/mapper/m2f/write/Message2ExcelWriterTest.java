@@ -7,7 +7,9 @@ import org.testng.annotations.Test;
 import spreadsheet.mapper.model.msg.Message;
 import spreadsheet.mapper.model.msg.MessageBean;
 import spreadsheet.mapper.model.msg.MessageWriteStrategies;
+import spreadsheet.mapper.w2f.write.WorkbookWriteException;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -15,6 +17,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
 /**
  * Created by hanwen on 2017/1/6.
  */
@@ -38,6 +44,46 @@ public class Message2ExcelWriterTest {
     messageWriteHelper.write(createErrorMessages(), new FileOutputStream(file));
   }
 
+  @Test(dependsOnMethods = "testWrite")
+  public void testWriteFromFile() throws Exception {
+
+    long lastModified = file.lastModified();
+    long length = file.length();
+
+    File output = File.createTempFile("test", ".xlsx");
+    output.deleteOnExit();
+
+    MessageWriteHelper messageWriteHelper = new Message2ExcelWriteHelper(file);
+    messageWriteHelper.write(createErrorMessages(), new FileOutputStream(output));
+
+    // source file not modified
+    assertEquals(file.lastModified(), lastModified);
+    assertEquals(file.length(), length);
+    assertTrue(output.length() > 0);
+  }
+
+  @Test(dependsOnMethods = "testWrite")
+  public void testCloseWithoutWrite() throws Exception {
+
+    long lastModified = file.lastModified();
+    long length = file.length();
+
+    Message2ExcelWriteHelper messageWriteHelper = new Message2ExcelWriteHelper(file);
+    messageWriteHelper.close();
+    messageWriteHelper.close();
+
+    // source file not modified
+    assertEquals(file.lastModified(), lastModified);
+    assertEquals(file.length(), length);
+
+    try {
+      messageWriteHelper.write(createErrorMessages(), new ByteArrayOutputStream());
+      fail("closed message write helper is written");
+    } catch (WorkbookWriteException e) {
+      assertTrue(e.getMessage().contains("closed"));
+    }
+  }
+
   private Collection<Message> createErrorMessages() {
 
     List<Message> messages = new ArrayList<>();
@@ -0,0 +1,233 @@
+package spreadsheet.mapper.model.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import spreadsheet.mapper.AssertUtil;
+import spreadsheet.mapper.TestBean;
+import spreadsheet.mapper.TestFactory;
+import spreadsheet.mapper.f2w.read.ReadOptions;
+import spreadsheet.mapper.f2w.read.Xlsx2WorkbookReadHelper;
+import spreadsheet.mapper.model.meta.SheetMeta;
+import spreadsheet.mapper.w2o.param.BooleanParam;
+import spreadsheet.mapper.w2o.process.DefaultSheetProcessHelper;
+import spreadsheet.mapper.w2o.process.ObjectFactory;
+import spreadsheet.mapper.w2o.process.SheetProcessHelper;
+import spreadsheet.mapper.w2o.process.setter.buildin.BooleanSetter;
+import spreadsheet.mapper.w2o.process.setter.buildin.LocalDateSetter;
+import spreadsheet.mapper.w2o.process.setter.buildin.LocalDateTimeSetter;
+import spreadsheet.mapper.w2o.validation.DefaultSheetValidationHelper;
+import spreadsheet.mapper.w2o.validation.validator.cell.buildin.UniqueValidator;
+
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class ColumnarSheetTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ColumnarSheetTest.class);
+
+  @BeforeClass
+  public void before() {
+    LOGGER.debug("-------------------starting test columnar sheet-------------------");
+  }
+
+  @Test
+  public void testAddRow() throws Exception {
+
+    ColumnarSheet sheet = new ColumnarSheet("columnar");
+    new WorkbookBean().addSheet(sheet);
+
+    // wider than initial columns, longer than initial rows
+    for (int i = 1; i <= 100; i++) {
+      Row row = new RowBean();
+      for (int j = 1; j <= 20; j++) {
+        row.addCell(new CellBean(j % 2 == 0 ? null : "v" + (i % 3) + "-" + j));
+      }
+      assertTrue(sheet.addRow(row));
+    }
+
+    assertEquals(sheet.getIndex(), 1);
+    assertEquals(sheet.sizeOfRows(), 100);
+    assertEquals(sheet.getRows().size(), 100);
+    assertEquals(sheet.sizeOfValues(), 3 * 10);
+
+    Row row = sheet.getRow(100);
+    assertEquals(row.getIndex(), 100);
+    assertSame(row.getSheet(), sheet);
+    assertEquals(row.sizeOfCells(), 20);
+    assertEquals(row.getCells().size(), 20);
+    assertEquals(row.getFirstCell().getValue(), "v1-1");
+    assertNull(row.getCell(20).getValue());
+    assertEquals(row.getCell(19).getIndex(), 19);
+    assertEquals(row.getCell(19).getValue(), "v1-19");
+    assertEquals(row.getCell(19).getRow().getIndex(), 100);
+    assertEquals(row.getCell(19), sheet.getRow(100).getCell(19));
+
+    // pooled
+    assertSame(sheet.getValue(1, 3), sheet.getValue(100, 3));
+    assertSame(sheet.getValue(1, 3), sheet.getFirstRow().getCell(3).getValue());
+
+    // padding
+    Row shortRow = new RowBean();
+    shortRow.addCell(new CellBean("short"));
+    sheet.addRow(shortRow);
+    Row columnarRow = sheet.getRow(101);
+    assertEquals(columnarRow.sizeOfCells(), 1);
+    columnarRow.addCell(new CellBean());
+    columnarRow.addCell(new CellBean("padded"));
+    assertEquals(columnarRow.sizeOfCells(), 3);
+    assertNull(sheet.getValue(101, 2));
+    assertEquals(sheet.getRow(101).getCell(3).getValue(), "padded");
+
+    // the supplied row is copied
+    assertNull(shortRow.getSheet());
+    assertEquals(shortRow.sizeOfCells(), 1);
+  }
+
+  @Test
+  public void testCompact() throws Exception {
+
+    ColumnarSheet sheet = new ColumnarSheet();
+    for (int i = 1; i <= 20; i++) {
+      Row row = new RowBean();
+      row.addCell(new CellBean("v" + (i % 2)));
+      row.addCell(new CellBean("id" + i));
+      sheet.addRow(row);
+    }
+    assertEquals(sheet.sizeOfValues(), 22);
+
+    sheet.compact();
+    assertEquals(sheet.sizeOfRows(), 20);
+    assertEquals(sheet.getValue(20, 1), "v0");
+    assertEquals(sheet.getValue(20, 2), "id20");
+
+    // added after compact, stored but not pooled
+    Row row = new RowBean();
+    row.addCell(new CellBean("v0"));
+    row.addCell(new CellBean());
+    sheet.addRow(row);
+    assertEquals(sheet.sizeOfValues(), 23);
+    assertEquals(sheet.getValue(21, 1), "v0");
+    assertNull(sheet.getValue(21, 2));
+    assertSame(sheet.getValue(2, 1), sheet.getValue(20, 1));
+
+    ColumnarSheet emptySheet = new ColumnarSheet();
+    emptySheet.compact();
+    emptySheet.addRow(row);
+    assertEquals(emptySheet.getValue(1, 1), "v0");
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testColumnIndexOutOfBounds() throws Exception {
+
+    ColumnarSheet sheet = new ColumnarSheet();
+    Row row = new RowBean();
+    row.addCell(new CellBean("a"));
+    sheet.addRow(row);
+
+    sheet.getRow(1).getCell(2);
+  }
+
+  @Test
+  public void testHelpers() throws Exception {
+
+    Sheet sheet = copy(TestFactory.createSheet());
+    SheetMeta sheetMeta = TestFactory.createSheetMeta(true);
+
+    List<TestBean> data = createSheetProcessHelper().process(sheet, sheetMeta);
+    assertEquals(data.size(), 2);
+    AssertUtil.assertTestBean1Equals(data.get(0));
+    AssertUtil.assertTestBean2Equals(data.get(1));
+
+    assertTrue(new DefaultSheetValidationHelper()
+        .addDependencyValidator(new UniqueValidator().group("int1").matchField("int1"))
+        .valid(sheet, sheetMeta));
+
+    Row duplicated = new RowBean();
+    for (Cell cell : sheet.getRow(2).getCells()) {
+      duplicated.addCell(new CellBean(cell.getValue()));
+    }
+    sheet.addRow(duplicated);
+
+    assertFalse(new DefaultSheetValidationHelper()
+        .addDependencyValidator(new UniqueValidator().group("int1").matchField("int1"))
+        .valid(sheet, sheetMeta));
+  }
+
+  @Test
+  public void testRead() throws Exception {
+
+    Workbook workbook = new Xlsx2WorkbookReadHelper()
+        .readOptions(new ReadOptions().columnarSheets(true))
+        .read(getClass().getResourceAsStream("/spreadsheet/mapper/f2w/read/test.xlsx"));
+
+    assertTrue(workbook.getFirstSheet() instanceof ColumnarSheet);
+    AssertUtil.assertWorkbookEquals(workbook, new Xlsx2WorkbookReadHelper().read(getClass().getResourceAsStream("/spreadsheet/mapper/f2w/read/test.xlsx")));
+  }
+
+  @Test
+  public void testFirstRowIndex() throws Exception {
+
+    Sheet sheet = TestFactory.createSheet();
+    // page read from the first data row
+    ColumnarSheet page = new ColumnarSheet(sheet.getName(), 2);
+    for (int i = 2; i <= sheet.sizeOfRows(); i++) {
+      page.addRow(sheet.getRow(i));
+    }
+
+    assertEquals(page.sizeOfRows(), 2);
+    assertEquals(page.getFirstRow().getIndex(), 2);
+    assertEquals(page.getRows().get(1).getIndex(), 3);
+    AssertUtil.assertRowEquals(page.getRow(3), sheet.getRow(3));
+    assertEquals(page.getValue(3, 1), sheet.getRow(3).getCell(1).getValue());
+
+    // the page maps as the full sheet, no data row is taken as header row
+    List<TestBean> data = createSheetProcessHelper().process(page, TestFactory.createSheetMeta(true));
+    assertEquals(data.size(), 2);
+    AssertUtil.assertTestBean1Equals(data.get(0));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testRowIndexBeforeFirstRow() throws Exception {
+
+    ColumnarSheet page = new ColumnarSheet(null, 2);
+    page.addRow(new RowBean());
+
+    page.getRow(1);
+  }
+
+  private SheetProcessHelper<TestBean> createSheetProcessHelper() {
+    SheetProcessHelper<TestBean> sheetProcessHelper = new DefaultSheetProcessHelper<TestBean>()
+        .setObjectFactory(new ObjectFactory<TestBean>() {
+          @Override
+          public TestBean create(Row row, SheetMeta sheetMeta) {
+            return new TestBean();
+          }
+        });
+    sheetProcessHelper.addFieldSetter(new LocalDateTimeSetter<TestBean>().pattern("yyyy-MM-dd HH:mm:ss").matchField("localDateTime"));
+    sheetProcessHelper.addFieldSetter(new LocalDateSetter<TestBean>().pattern("yyyy-MM-dd").matchField("localDate"));
+    sheetProcessHelper.addFieldSetter(
+        new BooleanSetter<TestBean>()
+            .param(new BooleanParam().supportedTrue("pass").supportedFalse("failure"))
+            .matchField("boolean1"));
+    sheetProcessHelper.addFieldSetter(
+        new BooleanSetter<TestBean>()
+            .param(new BooleanParam().supportedTrue("pass").supportedFalse("failure"))
+            .matchField("boolean2"));
+    return sheetProcessHelper;
+  }
+
+  private Sheet copy(Sheet sheet) {
+    Sheet columnarSheet = new ColumnarSheet(sheet.getName());
+    for (Row row : sheet.getRows()) {
+      columnarSheet.addRow(row);
+    }
+    return columnarSheet;
+  }
+}
@@ -0,0 +1,148 @@
+package spreadsheet.mapper.utils;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.joda.time.LocalDate;
+import org.joda.time.LocalDateTime;
+import org.joda.time.chrono.BuddhistChronology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.text.SimpleDateFormat;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+public class TextCodecTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TextCodecTest.class);
+
+  private static final String[] PATTERNS = {
+      "yyyy-MM-dd", "yyyy-MM", "yyyy", "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd HH:mm", "yyyy-MM-dd HH",
+      "yy/M/d H:m:s.SSS", "dd.MM.yyyy'T'HH''mm", "'at' HH:mm:ss", "yyyy-MMM-dd", "EEE yyyy"
+  };
+
+  private static final double[] NUMBERS = {
+      0, -0.0, 1, -1, 12.5, -12.5, 0.1, 0.2, 0.3, 0.1 + 0.2, 0.0001, 0.00001, 0.000123, 100.25, 1 / 3.0,
+      1e10, 99999999999.9999, 123456789.123, 999999999999999.0, 1e15, -1e15, 1e16, 1234567890123456.0,
+      1.23456789012345, 1.234567890123456, 1e-10, Double.MIN_VALUE, Double.MAX_VALUE,
+      Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+  };
+
+  @BeforeClass
+  public void before() {
+    LOGGER.debug("-------------------starting test text codec-------------------");
+  }
+
+  @Test
+  public void testToText() throws Exception {
+
+    for (double number : NUMBERS) {
+      assertEquals(TextCodec.toText(number), NumberToTextConverter.toText(number), String.valueOf(number));
+    }
+
+    Random random = new Random(19);
+    for (int i = 0; i < 200000; i++) {
+      double number = randomNumber(random);
+      assertEquals(TextCodec.toText(number), NumberToTextConverter.toText(number), String.valueOf(number));
+    }
+  }
+
+  @Test
+  public void testToPlainText() throws Exception {
+
+    for (double number : NUMBERS) {
+      if (Double.isNaN(number) || Double.isInfinite(number)) {
+        continue;
+      }
+      assertEquals(TextCodec.toPlainText(number), BigDecimal.valueOf(number).stripTrailingZeros().toPlainString(), String.valueOf(number));
+    }
+
+    Random random = new Random(19);
+    for (int i = 0; i < 200000; i++) {
+      double number = randomNumber(random);
+      float floatNumber = (float) number;
+      if (Float.isNaN(floatNumber) || Float.isInfinite(floatNumber)) {
+        continue;
+      }
+      assertEquals(TextCodec.toPlainText(number), BigDecimal.valueOf(number).stripTrailingZeros().toPlainString(), String.valueOf(number));
+      assertEquals(TextCodec.toPlainText(floatNumber), new BigDecimal(Float.toString(floatNumber)).stripTrailingZeros().toPlainString(), String.valueOf(floatNumber));
+    }
+  }
+
+  @Test
+  public void testPrint() throws Exception {
+
+    Random random = new Random(19);
+    for (int i = 0; i < 20000; i++) {
+      LocalDateTime localDateTime = new LocalDateTime(random.nextInt(10000) + 1, 1, 1, 0, 0)
+          .plusMillis(random.nextInt(Integer.MAX_VALUE))
+          .plusDays(random.nextInt(365));
+
+      for (String pattern : PATTERNS) {
+        assertEquals(TextCodec.print(localDateTime, pattern), localDateTime.toString(pattern), pattern);
+        assertEquals(TextCodec.print(localDateTime.toLocalDate(), pattern), localDateTime.toLocalDate().toString(pattern), pattern);
+      }
+      assertEquals(TextCodec.print(localDateTime, null), localDateTime.toString((String) null));
+    }
+
+    LocalDate buddhistDate = new LocalDate(2017, 3, 19, BuddhistChronology.getInstanceUTC());
+    assertEquals(TextCodec.print(buddhistDate, "yyyy-MM-dd"), buddhistDate.toString("yyyy-MM-dd"));
+  }
+
+  @Test
+  public void testFormatExcelDate() throws Exception {
+
+    for (String timeZoneId : new String[]{"UTC", "Asia/Shanghai", "America/New_York", "Europe/London"}) {
+      TimeZone timeZone = TimeZone.getTimeZone(timeZoneId);
+
+      for (String pattern : PATTERNS) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat(pattern);
+        dateFormat.setTimeZone(timeZone);
+
+        Random random = new Random(19);
+        for (int i = 0; i < 5000; i++) {
+          double value = i < 100 ? i + random.nextInt(24) / 24.0 : random.nextDouble() * 80000;
+          boolean date1904 = random.nextBoolean();
+
+          String text = TextCodec.formatExcelDate(value, date1904, pattern, timeZone);
+          if (text != null) {
+            assertEquals(text, dateFormat.format(DateUtil.getJavaDate(value, date1904, timeZone)), pattern + " " + value);
+          }
+        }
+      }
+    }
+
+    TimeZone newYork = TimeZone.getTimeZone("America/New_York");
+    // 2017-03-12 02:30 skipped by daylight saving time
+    assertNull(TextCodec.formatExcelDate(42806 + 2.5 / 24, false, "yyyy-MM-dd HH:mm", newYork));
+    assertEquals(TextCodec.formatExcelDate(42806 + 3.5 / 24, false, "yyyy-MM-dd HH:mm", newYork), "2017-03-12 03:30");
+    assertEquals(TextCodec.formatExcelDate(60, false, "yyyy-MM-dd", newYork), "1900-03-01");
+    assertEquals(TextCodec.formatExcelDate(0, true, "yyyy-MM-dd", newYork), "1904-01-01");
+    assertNotNull(TextCodec.formatExcelDate(2958465.99, false, "yyyy-MM-dd", newYork));
+    assertNull(TextCodec.formatExcelDate(-1, false, "yyyy-MM-dd", newYork));
+    assertNull(TextCodec.formatExcelDate(1, false, "yyyy-MMM-dd", newYork));
+  }
+
+  private double randomNumber(Random random) {
+    switch (random.nextInt(5)) {
+      case 0:
+        return random.nextInt() / 100.0;
+      case 1:
+        // short decimals
+        return (random.nextLong() % 100000000000000L) / Math.pow(10, random.nextInt(6));
+      case 2:
+        return random.nextLong();
+      case 3:
+        return random.nextDouble() * Math.pow(10, random.nextInt(30) - 15);
+      default:
+        return Double.longBitsToDouble(random.nextLong());
+    }
+  }
+}
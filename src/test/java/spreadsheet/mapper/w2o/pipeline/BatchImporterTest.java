@@ -0,0 +1,197 @@
+package spreadsheet.mapper.w2o.pipeline;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import spreadsheet.mapper.TestBean;
+import spreadsheet.mapper.f2w.read.Auto2WorkbookReadHelper;
+import spreadsheet.mapper.f2w.read.Excel2WorkbookReadHelper;
+import spreadsheet.mapper.f2w.read.WorkbookReadException;
+import spreadsheet.mapper.model.core.Row;
+import spreadsheet.mapper.model.meta.FieldMetaBean;
+import spreadsheet.mapper.model.meta.SheetMeta;
+import spreadsheet.mapper.model.meta.SheetMetaBean;
+import spreadsheet.mapper.model.meta.WorkbookMetaBean;
+import spreadsheet.mapper.w2o.process.DefaultSheetProcessHelper;
+import spreadsheet.mapper.w2o.process.ObjectFactory;
+import spreadsheet.mapper.w2o.validation.DefaultSheetValidationHelper;
+import spreadsheet.mapper.w2o.validation.SheetValidationHelper;
+import spreadsheet.mapper.w2o.validation.validator.cell.buildin.RegexFormatValidator;
+import spreadsheet.mapper.w2o.validation.validator.cell.buildin.UniqueValidator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class BatchImporterTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BatchImporterTest.class);
+
+  private static final int FILE_COUNT = 20;
+
+  private static final int ROW_COUNT = 50;
+
+  private ExecutorService executorService;
+
+  private List<File> files = new ArrayList<>();
+
+  @BeforeClass
+  public void before() throws Exception {
+    LOGGER.debug("-------------------starting test batch importer-------------------");
+
+    executorService = Executors.newFixedThreadPool(4);
+
+    for (int i = 0; i < FILE_COUNT; i++) {
+      File file = File.createTempFile("batch" + i, ".xlsx");
+      file.deleteOnExit();
+      FileUtils.writeByteArrayToFile(file, createXlsx(i));
+      files.add(file);
+    }
+  }
+
+  @AfterClass
+  public void after() {
+    executorService.shutdown();
+  }
+
+  @Test
+  public void testRun() throws Exception {
+
+    List<File> batchFiles = new ArrayList<>(files);
+
+    File broken = File.createTempFile("broken", ".xlsx");
+    broken.deleteOnExit();
+    FileUtils.writeByteArrayToFile(broken, new byte[]{0x50, 0x4B, 0x03, 0x04, 0, 0, 0, 0});
+    batchFiles.add(3, broken);
+
+    File csv = File.createTempFile("batch", ".csv");
+    csv.deleteOnExit();
+    FileUtils.writeStringToFile(csv, "other\n", StandardCharsets.UTF_8);
+    batchFiles.add(csv);
+
+    List<BatchImportResult<TestBean>> results = new BatchImporter<TestBean>(new Auto2WorkbookReadHelper(), executorService)
+        .setSheetProcessHelper(new DefaultSheetProcessHelper<TestBean>().setObjectFactory(new TestBeanObjectFactory()))
+        .setSheetValidationHelperFactory(new SheetValidationHelperFactory() {
+          @Override
+          public SheetValidationHelper create() {
+            return new DefaultSheetValidationHelper()
+                .addDependencyValidator(new UniqueValidator().group("unique").matchField("string").errorMessage("duplicated"))
+                .addDependencyValidator(new RegexFormatValidator().regex("^s\\d+$").group("regex").matchField("string").errorMessage("bad format"));
+          }
+        })
+        .run(batchFiles, createSheetMeta());
+
+    assertEquals(results.size(), FILE_COUNT + 2);
+
+    BatchImportResult<TestBean> brokenResult = results.get(3);
+    assertEquals(brokenResult.getFile(), broken);
+    assertFalse(brokenResult.isSucceeded());
+    assertFalse(brokenResult.isValid());
+    assertTrue(brokenResult.getFailure() instanceof WorkbookReadException);
+
+    // the sheet of sheet meta is not in csv
+    BatchImportResult<TestBean> csvResult = results.get(FILE_COUNT + 1);
+    assertTrue(csvResult.isSucceeded());
+    assertTrue(csvResult.getData().isEmpty());
+
+    results.remove(FILE_COUNT + 1);
+    results.remove(3);
+    for (int i = 0; i < FILE_COUNT; i++) {
+      BatchImportResult<TestBean> result = results.get(i);
+      assertEquals(result.getFile(), files.get(i));
+      assertTrue(result.isSucceeded());
+
+      // unique values are validated per file, the last row of odd file is duplicated
+      boolean duplicated = i % 2 == 1;
+      assertEquals(result.isValid(), !duplicated);
+      assertEquals(result.getErrorMessages().size(), duplicated ? 1 : 0);
+
+      List<TestBean> data = result.getData();
+      assertEquals(data.size(), duplicated ? ROW_COUNT - 1 : ROW_COUNT);
+      for (int j = 0; j < data.size(); j++) {
+        assertEquals(data.get(j).getInt1(), i * 1000 + j + 1);
+      }
+    }
+  }
+
+  @Test
+  public void testRunWithoutValidation() throws Exception {
+
+    List<BatchImportResult<TestBean>> results = new BatchImporter<TestBean>(new Auto2WorkbookReadHelper(), executorService)
+        .setSheetProcessHelper(new DefaultSheetProcessHelper<TestBean>().setObjectFactory(new TestBeanObjectFactory()))
+        .run(files, createSheetMeta());
+
+    assertEquals(results.size(), FILE_COUNT);
+    for (BatchImportResult<TestBean> result : results) {
+      assertTrue(result.isValid());
+      assertEquals(result.getData().size(), ROW_COUNT);
+    }
+  }
+
+  @Test
+  public void testRunSharedExcelReadHelper() throws Exception {
+
+    List<BatchImportResult<TestBean>> results = new BatchImporter<TestBean>(new Excel2WorkbookReadHelper(), executorService)
+        .setSheetProcessHelper(new DefaultSheetProcessHelper<TestBean>().setObjectFactory(new TestBeanObjectFactory()))
+        .run(files, createSheetMeta());
+
+    assertEquals(results.size(), FILE_COUNT);
+    for (int i = 0; i < FILE_COUNT; i++) {
+      List<TestBean> data = results.get(i).getData();
+      assertEquals(data.size(), ROW_COUNT);
+      for (int j = 0; j < data.size(); j++) {
+        assertEquals(data.get(j).getInt1(), i * 1000 + j + 1);
+      }
+    }
+  }
+
+  private byte[] createXlsx(int fileIndex) throws Exception {
+    SXSSFWorkbook poiWorkbook = new SXSSFWorkbook();
+    poiWorkbook.createSheet("other").createRow(0).createCell(0).setCellValue("other");
+    org.apache.poi.ss.usermodel.Sheet sheet = poiWorkbook.createSheet("data");
+    sheet.createRow(0).createCell(0).setCellValue("int1");
+    sheet.getRow(0).createCell(1).setCellValue("string");
+    for (int i = 1; i <= ROW_COUNT; i++) {
+      org.apache.poi.ss.usermodel.Row row = sheet.createRow(i);
+      row.createCell(0).setCellValue(fileIndex * 1000 + i);
+      // same values in every file
+      row.createCell(1).setCellValue(fileIndex % 2 == 1 && i == ROW_COUNT ? "s1" : "s" + i);
+    }
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    poiWorkbook.write(outputStream);
+    poiWorkbook.dispose();
+    return outputStream.toByteArray();
+  }
+
+  private SheetMeta createSheetMeta() {
+    SheetMeta sheetMeta = new SheetMetaBean("data", 2);
+    sheetMeta.addFieldMeta(new FieldMetaBean("int1", 1));
+    sheetMeta.addFieldMeta(new FieldMetaBean("string", 2));
+
+    WorkbookMetaBean workbookMeta = new WorkbookMetaBean();
+    workbookMeta.addSheetMeta(new SheetMetaBean("other", 1));
+    workbookMeta.addSheetMeta(sheetMeta);
+    return sheetMeta;
+  }
+
+  private static class TestBeanObjectFactory implements ObjectFactory<TestBean> {
+
+    @Override
+    public TestBean create(Row row, SheetMeta sheetMeta) {
+      return new TestBean();
+    }
+  }
+}
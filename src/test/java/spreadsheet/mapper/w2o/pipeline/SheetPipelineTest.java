@@ -0,0 +1,289 @@
+package spreadsheet.mapper.w2o.pipeline;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import spreadsheet.mapper.AssertUtil;
+import spreadsheet.mapper.TestBean;
+import spreadsheet.mapper.TestFactory;
+import spreadsheet.mapper.f2w.read.RowCursor;
+import spreadsheet.mapper.f2w.read.RowCursorHandler;
+import spreadsheet.mapper.f2w.read.WorkbookReadException;
+import spreadsheet.mapper.f2w.read.Xlsx2WorkbookReadHelper;
+import spreadsheet.mapper.model.core.Cell;
+import spreadsheet.mapper.model.core.CellBean;
+import spreadsheet.mapper.model.core.Row;
+import spreadsheet.mapper.model.core.RowBean;
+import spreadsheet.mapper.model.core.Sheet;
+import spreadsheet.mapper.model.core.SheetBean;
+import spreadsheet.mapper.model.core.Workbook;
+import spreadsheet.mapper.model.core.WorkbookBean;
+import spreadsheet.mapper.model.meta.FieldMeta;
+import spreadsheet.mapper.model.meta.FieldMetaBean;
+import spreadsheet.mapper.model.meta.SheetMeta;
+import spreadsheet.mapper.model.meta.SheetMetaBean;
+import spreadsheet.mapper.model.meta.WorkbookMetaBean;
+import spreadsheet.mapper.w2o.process.DefaultSheetProcessHelper;
+import spreadsheet.mapper.w2o.process.ObjectFactory;
+import spreadsheet.mapper.w2o.process.SheetProcessHelper;
+import spreadsheet.mapper.w2o.process.setter.FieldSetterAdapter;
+import spreadsheet.mapper.w2o.process.setter.buildin.BooleanSetter;
+import spreadsheet.mapper.w2o.process.setter.buildin.LocalDateSetter;
+import spreadsheet.mapper.w2o.process.setter.buildin.LocalDateTimeSetter;
+import spreadsheet.mapper.w2o.param.BooleanParam;
+import spreadsheet.mapper.w2o.validation.DefaultSheetValidationHelper;
+import spreadsheet.mapper.w2o.validation.validator.cell.buildin.UniqueValidator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class SheetPipelineTest {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SheetPipelineTest.class);
+
+  private static final int ROW_COUNT = 3000;
+
+  private ExecutorService executorService;
+
+  private byte[] bytes;
+
+  @BeforeClass
+  public void before() throws Exception {
+    LOGGER.debug("-------------------starting test sheet pipeline-------------------");
+
+    executorService = Executors.newFixedThreadPool(4);
+
+    SXSSFWorkbook poiWorkbook = new SXSSFWorkbook();
+    poiWorkbook.createSheet("other").createRow(0).createCell(0).setCellValue("other");
+    org.apache.poi.ss.usermodel.Sheet sheet = poiWorkbook.createSheet("data");
+    sheet.createRow(0).createCell(0).setCellValue("int1");
+    sheet.getRow(0).createCell(1).setCellValue("string");
+    for (int i = 1; i <= ROW_COUNT; i++) {
+      org.apache.poi.ss.usermodel.Row row = sheet.createRow(i);
+      row.createCell(0).setCellValue(i);
+      // duplicated every 1000 rows
+      row.createCell(1).setCellValue(i % 1000 == 0 ? "s0" : "s" + i);
+    }
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    poiWorkbook.write(outputStream);
+    poiWorkbook.dispose();
+    bytes = outputStream.toByteArray();
+  }
+
+  @AfterClass
+  public void after() {
+    executorService.shutdown();
+  }
+
+  @Test
+  public void testRun() throws Exception {
+
+    SheetMeta sheetMeta = TestFactory.createSheetMeta(true);
+
+    SheetProcessHelper<TestBean> sheetProcessHelper = new DefaultSheetProcessHelper<TestBean>().setObjectFactory(new TestBeanObjectFactory());
+    sheetProcessHelper.addFieldSetter(new LocalDateTimeSetter<TestBean>().pattern("yyyy-MM-dd HH:mm:ss").matchField("localDateTime"));
+    sheetProcessHelper.addFieldSetter(new LocalDateSetter<TestBean>().pattern("yyyy-MM-dd").matchField("localDate"));
+    sheetProcessHelper.addFieldSetter(
+        new BooleanSetter<TestBean>()
+            .param(new BooleanParam().supportedTrue("pass").supportedFalse("failure"))
+            .matchField("boolean1"));
+    sheetProcessHelper.addFieldSetter(
+        new BooleanSetter<TestBean>()
+            .param(new BooleanParam().supportedTrue("pass").supportedFalse("failure"))
+            .matchField("boolean2"));
+
+    SheetPipelineResult<TestBean> result = new SheetPipeline<TestBean>(new Xlsx2WorkbookReadHelper(), executorService)
+        .setSheetProcessHelper(sheetProcessHelper)
+        .setSheetValidationHelper(new DefaultSheetValidationHelper())
+        .run(getClass().getResourceAsStream("/spreadsheet/mapper/f2w/read/test.xlsx"), sheetMeta);
+
+    assertTrue(result.isValid());
+    assertEquals(result.getData().size(), 2);
+    AssertUtil.assertTestBean1Equals(result.getData().get(0));
+    AssertUtil.assertTestBean2Equals(result.getData().get(1));
+  }
+
+  @Test
+  public void testRunConcurrently() throws Exception {
+
+    SheetPipelineResult<TestBean> result = new SheetPipeline<TestBean>(new Xlsx2WorkbookReadHelper(), executorService)
+        .setSheetProcessHelper(new DefaultSheetProcessHelper<TestBean>().setObjectFactory(new TestBeanObjectFactory()))
+        .setSheetValidationHelper(new DefaultSheetValidationHelper()
+            .addDependencyValidator(new UniqueValidator().group("string").matchField("string").errorMessage("duplicated")))
+        .setConsumerCount(3)
+        .setBatchSize(7)
+        .setQueueCapacity(2)
+        .run(new ByteArrayInputStream(bytes), createSheetMeta());
+
+    // the rows of s0 after first are invalid and not processed
+    assertFalse(result.isValid());
+    assertEquals(result.getErrorMessages().size(), 2);
+    assertEquals(result.getErrorMessages().get(0).getRowIndex(), Integer.valueOf(2001));
+    assertEquals(result.getErrorMessages().get(1).getRowIndex(), Integer.valueOf(3001));
+
+    List<TestBean> data = result.getData();
+    assertEquals(data.size(), ROW_COUNT - 2);
+    int previous = 0;
+    for (TestBean testBean : data) {
+      // row order
+      assertTrue(testBean.getInt1() > previous);
+      previous = testBean.getInt1();
+    }
+  }
+
+  @Test
+  public void testConsumerError() throws Exception {
+
+    SheetProcessHelper<TestBean> sheetProcessHelper = new DefaultSheetProcessHelper<TestBean>()
+        .setObjectFactory(new TestBeanObjectFactory())
+        .addFieldSetter(new FailingSetter().matchField("int1"));
+
+    try {
+      new SheetPipeline<TestBean>(new Xlsx2WorkbookReadHelper(), executorService)
+          .setSheetProcessHelper(sheetProcessHelper)
+          .setConsumerCount(2)
+          .setBatchSize(10)
+          .setQueueCapacity(1)
+          .run(new ByteArrayInputStream(bytes), createSheetMeta());
+      fail("consumer error not thrown");
+    } catch (IllegalStateException e) {
+      assertEquals(e.getMessage(), "fail at 500");
+    }
+  }
+
+  @Test(expectedExceptions = WorkbookReadException.class)
+  public void testProducerError() throws Exception {
+
+    byte[] broken = new byte[bytes.length / 2];
+    System.arraycopy(bytes, 0, broken, 0, broken.length);
+
+    new SheetPipeline<TestBean>(new Xlsx2WorkbookReadHelper(), executorService)
+        .setSheetProcessHelper(new DefaultSheetProcessHelper<TestBean>().setObjectFactory(new TestBeanObjectFactory()))
+        .run(new ByteArrayInputStream(broken), createSheetMeta());
+  }
+
+  @Test(timeOut = 120000)
+  public void testProducerErrorWithConsumers() throws Exception {
+
+    // consumers waiting for the validate turn of dropped batches hang only sometimes
+    for (int i = 0; i < 3000; i++) {
+      try {
+        new SheetPipeline<TestBean>(new FailingReadHelper(6), executorService)
+            .setSheetProcessHelper(new DefaultSheetProcessHelper<TestBean>().setObjectFactory(new TestBeanObjectFactory()))
+            .setSheetValidationHelper(new DefaultSheetValidationHelper())
+            .setConsumerCount(4)
+            .setBatchSize(1)
+            .run(new ByteArrayInputStream(new byte[0]), createSheetMeta());
+        fail("producer error not thrown");
+      } catch (WorkbookReadException e) {
+        assertEquals(e.getMessage(), "fail after 6 rows");
+      }
+    }
+  }
+
+  private SheetMeta createSheetMeta() {
+    SheetMeta sheetMeta = new SheetMetaBean("data", 2);
+    sheetMeta.addFieldMeta(new FieldMetaBean("int1", 1));
+    sheetMeta.addFieldMeta(new FieldMetaBean("string", 2));
+
+    WorkbookMetaBean workbookMeta = new WorkbookMetaBean();
+    workbookMeta.addSheetMeta(new SheetMetaBean("other", 1));
+    workbookMeta.addSheetMeta(sheetMeta);
+    return sheetMeta;
+  }
+
+  private static class TestBeanObjectFactory implements ObjectFactory<TestBean> {
+
+    @Override
+    public TestBean create(Row row, SheetMeta sheetMeta) {
+      return new TestBean();
+    }
+  }
+
+  /**
+   * reader pushing rows of data sheet from memory and failing after some rows
+   */
+  private static class FailingReadHelper extends Xlsx2WorkbookReadHelper {
+
+    private int failAfter;
+
+    private FailingReadHelper(int failAfter) {
+      this.failAfter = failAfter;
+    }
+
+    @Override
+    public void read(InputStream inputStream, RowCursorHandler rowCursorHandler) {
+      IOUtils.closeQuietly(inputStream);
+
+      Workbook workbook = new WorkbookBean();
+      workbook.addSheet(new SheetBean("other"));
+      final Sheet sheet = new SheetBean("data");
+      workbook.addSheet(sheet);
+
+      rowCursorHandler.onSheetStart(sheet);
+      for (int i = 1; i <= failAfter; i++) {
+        final Row row = new RowBean(sheet, i);
+        row.addCell(new CellBean(i == 1 ? "int1" : String.valueOf(i)));
+        row.addCell(new CellBean(i == 1 ? "string" : "s" + i));
+
+        rowCursorHandler.onRow(new RowCursor() {
+
+          @Override
+          public Sheet getSheet() {
+            return sheet;
+          }
+
+          @Override
+          public int getIndex() {
+            return row.getIndex();
+          }
+
+          @Override
+          public int sizeOfCells() {
+            return row.sizeOfCells();
+          }
+
+          @Override
+          public String getValue(int columnIndex) {
+            return row.getCell(columnIndex).getValue();
+          }
+
+          @Override
+          public Row toRow() {
+            return row;
+          }
+        });
+      }
+      throw new WorkbookReadException("fail after " + failAfter + " rows");
+    }
+  }
+
+  private static class FailingSetter extends FieldSetterAdapter<TestBean, FailingSetter> {
+
+    @Override
+    protected FailingSetter getThis() {
+      return this;
+    }
+
+    @Override
+    protected void customSet(TestBean object, Cell cell, FieldMeta fieldMeta) {
+      if ("500".equals(cell.getValue())) {
+        throw new IllegalStateException("fail at 500");
+      }
+    }
+  }
+}
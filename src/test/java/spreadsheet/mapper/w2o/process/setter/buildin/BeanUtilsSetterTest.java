@@ -4,9 +4,14 @@ import org.testng.annotations.Test;
 import spreadsheet.mapper.TestBean;
 import spreadsheet.mapper.TestFactory;
 import spreadsheet.mapper.model.core.Cell;
+import spreadsheet.mapper.model.core.CellBean;
 import spreadsheet.mapper.model.meta.FieldMeta;
+import spreadsheet.mapper.model.meta.FieldMetaBean;
 
 import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Date;
 import java.util.Map;
 
 import static org.testng.Assert.*;
@@ -91,4 +96,41 @@ public class BeanUtilsSetterTest {
     assertNull(testBean1.getBoolean2());
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testSetInOtherContextClassLoader() throws Exception {
+
+    final DateBean dateBean = new DateBean();
+    final Throwable[] failure = new Throwable[1];
+
+    // bean utils keeps converters per context class loader, the setter created in it registers the converters there
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          new BeanUtilsSetter<DateBean>().set(dateBean, new CellBean("not a date"), new FieldMetaBean("date", 1));
+        } catch (Throwable e) {
+          failure[0] = e;
+        }
+      }
+    });
+    thread.setContextClassLoader(new URLClassLoader(new URL[0], getClass().getClassLoader()));
+    thread.start();
+    thread.join();
+
+    assertNull(failure[0]);
+    assertNull(dateBean.getDate());
+  }
+
+  public static class DateBean {
+
+    private Date date;
+
+    public Date getDate() {
+      return date;
+    }
+
+    public void setDate(Date date) {
+      this.date = date;
+    }
+  }
+}